@@ -17,13 +17,13 @@
 
 package com.abincaps.shortlink.admin.controller;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.abincaps.shortlink.admin.common.result.Result;
 import com.abincaps.shortlink.admin.common.result.Results;
 import com.abincaps.shortlink.admin.remote.ShortLinkActualRemoteService;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkCreateReqDTO;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkPageReqDTO;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkUpdateReqDTO;
+import com.abincaps.shortlink.admin.remote.dto.resp.CursorPageRespDTO;
 import com.abincaps.shortlink.admin.remote.dto.resp.ShortLinkCreateRespDTO;
 import com.abincaps.shortlink.admin.remote.dto.resp.ShortLinkPageRespDTO;
 import lombok.RequiredArgsConstructor;
@@ -63,7 +63,7 @@ public class ShortLinkController {
      * 分页查询短链接
      */
     @GetMapping("/api/short-link/admin/v1/page")
-    public Result<Page<ShortLinkPageRespDTO>> pageShortLink(ShortLinkPageReqDTO requestParam) {
-        return shortLinkActualRemoteService.pageShortLink(requestParam.getGid(), requestParam.getOrderTag(), requestParam.getCurrent(), requestParam.getSize());
+    public Result<CursorPageRespDTO<ShortLinkPageRespDTO>> pageShortLink(ShortLinkPageReqDTO requestParam) {
+        return shortLinkActualRemoteService.pageShortLink(requestParam.getGid(), requestParam.getOrderTag(), requestParam.getCurrent(), requestParam.getSize(), requestParam.getCursor());
     }
 }
@@ -17,13 +17,13 @@
 
 package com.abincaps.shortlink.admin.controller;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.abincaps.shortlink.admin.common.result.Result;
 import com.abincaps.shortlink.admin.remote.ShortLinkActualRemoteService;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkGroupStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkGroupStatsReqDTO;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.admin.remote.dto.req.ShortLinkStatsReqDTO;
+import com.abincaps.shortlink.admin.remote.dto.resp.CursorPageRespDTO;
 import com.abincaps.shortlink.admin.remote.dto.resp.ShortLinkStatsAccessRecordRespDTO;
 import com.abincaps.shortlink.admin.remote.dto.resp.ShortLinkStatsRespDTO;
 import lombok.RequiredArgsConstructor;
@@ -60,15 +60,17 @@ public class ShortLinkStatsController {
      * 访问单个短链接指定时间内访问记录监控数据
      */
     @GetMapping("/api/short-link/admin/v1/stats/access-record")
-    public Result<Page<ShortLinkStatsAccessRecordRespDTO>> shortLinkStatsAccessRecord(ShortLinkStatsAccessRecordReqDTO requestParam) {
-        return shortLinkActualRemoteService.shortLinkStatsAccessRecord(requestParam.getFullShortUrl(), requestParam.getGid(), requestParam.getStartDate(), requestParam.getEndDate());
+    public Result<CursorPageRespDTO<ShortLinkStatsAccessRecordRespDTO>> shortLinkStatsAccessRecord(ShortLinkStatsAccessRecordReqDTO requestParam) {
+        return shortLinkActualRemoteService.shortLinkStatsAccessRecord(requestParam.getFullShortUrl(), requestParam.getGid(), requestParam.getStartDate(), requestParam.getEndDate(),
+                requestParam.getCurrent(), requestParam.getSize(), requestParam.getCursor());
     }
 
     /**
      * 访问分组短链接指定时间内访问记录监控数据
      */
     @GetMapping("/api/short-link/admin/v1/stats/access-record/group")
-    public Result<Page<ShortLinkStatsAccessRecordRespDTO>> groupShortLinkStatsAccessRecord(ShortLinkGroupStatsAccessRecordReqDTO requestParam) {
-        return shortLinkActualRemoteService.groupShortLinkStatsAccessRecord(requestParam.getGid(), requestParam.getStartDate(), requestParam.getEndDate());
+    public Result<CursorPageRespDTO<ShortLinkStatsAccessRecordRespDTO>> groupShortLinkStatsAccessRecord(ShortLinkGroupStatsAccessRecordReqDTO requestParam) {
+        return shortLinkActualRemoteService.groupShortLinkStatsAccessRecord(requestParam.getGid(), requestParam.getStartDate(), requestParam.getEndDate(),
+                requestParam.getCurrent(), requestParam.getSize(), requestParam.getCursor());
     }
 }
@@ -17,7 +17,6 @@
 
 package com.abincaps.shortlink.admin.remote;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.abincaps.shortlink.admin.common.result.Result;
 import com.abincaps.shortlink.admin.dto.req.RecycleBinRecoverReqDTO;
 import com.abincaps.shortlink.admin.dto.req.RecycleBinRemoveReqDTO;
@@ -73,13 +72,15 @@ public interface ShortLinkActualRemoteService {
      * @param orderTag 排序类型
      * @param current  当前页
      * @param size     当前数据多少
+     * @param cursor   分页游标，为 null 时按页码分页
      * @return 查询短链接响应
      */
     @GetMapping("/api/short-link/v1/page")
-    Result<Page<ShortLinkPageRespDTO>> pageShortLink(@RequestParam("gid") String gid,
-                                                     @RequestParam("orderTag") String orderTag,
-                                                     @RequestParam("current") Long current,
-                                                     @RequestParam("size") Long size);
+    Result<CursorPageRespDTO<ShortLinkPageRespDTO>> pageShortLink(@RequestParam("gid") String gid,
+                                                                  @RequestParam("orderTag") String orderTag,
+                                                                  @RequestParam("current") Long current,
+                                                                  @RequestParam("size") Long size,
+                                                                  @RequestParam(value = "cursor", required = false) String cursor);
 
     /**
      * 查询分组短链接总量
@@ -113,12 +114,14 @@ public interface ShortLinkActualRemoteService {
      * @param gidList 分组标识集合
      * @param current 当前页
      * @param size    当前数据多少
+     * @param cursor  分页游标，为 null 时按页码分页
      * @return 查询短链接响应
      */
     @GetMapping("/api/short-link/v1/recycle-bin/page")
-    Result<Page<ShortLinkPageRespDTO>> pageRecycleBinShortLink(@RequestParam("gidList") List<String> gidList,
-                                                               @RequestParam("current") Long current,
-                                                               @RequestParam("size") Long size);
+    Result<CursorPageRespDTO<ShortLinkPageRespDTO>> pageRecycleBinShortLink(@RequestParam("gidList") List<String> gidList,
+                                                                            @RequestParam("current") Long current,
+                                                                            @RequestParam("size") Long size,
+                                                                            @RequestParam(value = "cursor", required = false) String cursor);
 
     /**
      * 恢复短链接
@@ -172,13 +175,19 @@ public interface ShortLinkActualRemoteService {
      * @param gid          分组标识
      * @param startDate    开始时间
      * @param endDate      结束时间
+     * @param current      当前页
+     * @param size         当前数据多少
+     * @param cursor       分页游标，为 null 时按页码分页
      * @return 短链接监控访问记录信息
      */
     @GetMapping("/api/short-link/v1/stats/access-record")
-    Result<Page<ShortLinkStatsAccessRecordRespDTO>> shortLinkStatsAccessRecord(@RequestParam("fullShortUrl") String fullShortUrl,
-                                                                               @RequestParam("gid") String gid,
-                                                                               @RequestParam("startDate") String startDate,
-                                                                               @RequestParam("endDate") String endDate);
+    Result<CursorPageRespDTO<ShortLinkStatsAccessRecordRespDTO>> shortLinkStatsAccessRecord(@RequestParam("fullShortUrl") String fullShortUrl,
+                                                                                            @RequestParam("gid") String gid,
+                                                                                            @RequestParam("startDate") String startDate,
+                                                                                            @RequestParam("endDate") String endDate,
+                                                                                            @RequestParam("current") Long current,
+                                                                                            @RequestParam("size") Long size,
+                                                                                            @RequestParam(value = "cursor", required = false) String cursor);
 
     /**
      * 访问分组短链接指定时间内监控访问记录数据
@@ -186,10 +195,16 @@ public interface ShortLinkActualRemoteService {
      * @param gid       分组标识
      * @param startDate 开始时间
      * @param endDate   结束时间
+     * @param current   当前页
+     * @param size      当前数据多少
+     * @param cursor    分页游标，为 null 时按页码分页
      * @return 分组短链接监控访问记录信息
      */
     @GetMapping("/api/short-link/v1/stats/access-record/group")
-    Result<Page<ShortLinkStatsAccessRecordRespDTO>> groupShortLinkStatsAccessRecord(@RequestParam("gid") String gid,
-                                                                                    @RequestParam("startDate") String startDate,
-                                                                                    @RequestParam("endDate") String endDate);
+    Result<CursorPageRespDTO<ShortLinkStatsAccessRecordRespDTO>> groupShortLinkStatsAccessRecord(@RequestParam("gid") String gid,
+                                                                                                 @RequestParam("startDate") String startDate,
+                                                                                                 @RequestParam("endDate") String endDate,
+                                                                                                 @RequestParam("current") Long current,
+                                                                                                 @RequestParam("size") Long size,
+                                                                                                 @RequestParam(value = "cursor", required = false) String cursor);
 }
@@ -36,4 +36,9 @@ public class ShortLinkPageReqDTO extends Page {
      * 排序标识
      */
     private String orderTag;
+
+    /**
+     * 游标分页标识，传入时启用游标分页且不统计总数，首页传空字符串，后续传上一页返回的 nextCursor
+     */
+    private String cursor;
 }
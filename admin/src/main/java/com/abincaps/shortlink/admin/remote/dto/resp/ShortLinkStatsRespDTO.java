@@ -98,4 +98,9 @@ public class ShortLinkStatsRespDTO {
      * 访问网络类型详情
      */
     private List<ShortLinkStatsNetworkRespDTO> networkStats;
+
+    /**
+     * 查询超时或失败、以空数据返回的统计项
+     */
+    private List<String> degradedSections;
 }
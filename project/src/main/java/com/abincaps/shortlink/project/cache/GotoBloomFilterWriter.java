@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.cache;
+
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.dao.entity.ShortLinkGotoDO;
+import com.abincaps.shortlink.project.dao.mapper.ShortLinkGotoMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.LOCK_BLOOM_FILTER_REBUILD_KEY;
+
+/**
+ * 短链接布隆过滤器批量读写
+ * 当前 Redisson 版本的布隆过滤器不支持批量操作，每个元素单独一次往返，批量写入与判断时按分段并行提交并等待全部完成；
+ * 升级前创建或 Redis 数据丢失后缺失的元素由跳转路由表重建
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GotoBloomFilterWriter implements InitializingBean, DisposableBean {
+
+    private static final int ADD_THREADS = 8;
+    private static final int ADD_CHUNK_SIZE = 256;
+    private static final int REBUILD_FETCH_ROWS = 2000;
+
+    private final RBloomFilter<String> shortUriCreateCachePenetrationBloomFilter;
+    private final ShortLinkGotoMapper shortLinkGotoMapper;
+    private final RedissonClient redissonClient;
+
+    private ExecutorService addExecutor;
+    private ExecutorService rebuildExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        addExecutor = Executors.newFixedThreadPool(
+                ADD_THREADS,
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-bloom-filter-").setDaemon(true).build()
+        );
+        rebuildExecutor = Executors.newSingleThreadExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-bloom-filter-rebuild-").setDaemon(true).build()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+        addExecutor.shutdownNow();
+    }
+
+    /**
+     * 批量写入布隆过滤器，返回时全部元素均已写入
+     *
+     * @param fullShortUrls 完整短链接
+     */
+    public void addAll(Collection<String> fullShortUrls) {
+        CompletableFuture<?>[] futures = ListUtil.partition(List.copyOf(fullShortUrls), ADD_CHUNK_SIZE).stream()
+                .map(chunk -> CompletableFuture.runAsync(() -> chunk.forEach(shortUriCreateCachePenetrationBloomFilter::add), addExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    /**
+     * 批量判断元素是否存在，按线程数均分后并行判断
+     *
+     * @param fullShortUrls 完整短链接
+     * @return 布隆过滤器中不存在的完整短链接，保持输入顺序
+     */
+    public List<String> filterAbsent(List<String> fullShortUrls) {
+        if (fullShortUrls.isEmpty()) {
+            return List.of();
+        }
+        int chunkSize = (fullShortUrls.size() + ADD_THREADS - 1) / ADD_THREADS;
+        List<CompletableFuture<List<String>>> futures = ListUtil.partition(fullShortUrls, chunkSize).stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> chunk.stream()
+                        .filter(each -> !shortUriCreateCachePenetrationBloomFilter.contains(each))
+                        .toList(), addExecutor))
+                .toList();
+        List<String> result = new ArrayList<>(fullShortUrls.size());
+        futures.forEach(each -> result.addAll(each.join()));
+        return result;
+    }
+
+    /**
+     * 在后台按主键顺序读取跳转路由表，将全部短链接写入布隆过滤器，已存在的元素重复写入无影响
+     */
+    public void rebuild() {
+        rebuildExecutor.execute(this::doRebuild);
+    }
+
+    private void doRebuild() {
+        RLock lock = redissonClient.getLock(LOCK_BLOOM_FILTER_REBUILD_KEY);
+        if (!lock.tryLock()) {
+            log.info("短链接布隆过滤器重建正在其他节点执行，本次跳过");
+            return;
+        }
+        try {
+            long lastId = 0L;
+            long total = 0L;
+            List<ShortLinkGotoDO> batch;
+            do {
+                batch = shortLinkGotoMapper.listAfterId(lastId, REBUILD_FETCH_ROWS);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                addAll(batch.stream().map(ShortLinkGotoDO::getFullShortUrl).toList());
+                lastId = batch.get(batch.size() - 1).getId();
+                total += batch.size();
+            } while (batch.size() == REBUILD_FETCH_ROWS);
+            log.info("短链接布隆过滤器重建完成，数量：{}", total);
+        } catch (Exception ex) {
+            log.error("短链接布隆过滤器重建失败", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
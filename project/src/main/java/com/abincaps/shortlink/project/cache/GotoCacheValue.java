@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 短链接跳转本地缓存值
+ */
+@Getter
+@AllArgsConstructor
+public class GotoCacheValue {
+
+    /**
+     * 原始链接，为空表示短链接不存在或已失效
+     */
+    private final String originUrl;
+
+    /**
+     * 缓存有效时间，单位：纳秒
+     */
+    private final long expireNanos;
+
+    /**
+     * 是否为空值标记
+     */
+    public boolean isNull() {
+        return originUrl == null;
+    }
+}
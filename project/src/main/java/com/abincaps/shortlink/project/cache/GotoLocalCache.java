@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.abincaps.shortlink.project.config.GotoLocalCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.GOTO_LOCAL_CACHE_INVALIDATE_TOPIC;
+
+/**
+ * 短链接跳转本地缓存
+ * 位于 Redis 之前的一级缓存，容量与有效期均有上限，失效通过 Redis 广播同步到所有节点
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GotoLocalCache implements InitializingBean {
+
+    private static final int INVALIDATE_BATCH_SIZE = 1000;
+
+    private final GotoLocalCacheConfig gotoLocalCacheConfig;
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, GotoCacheValue> cache;
+    private RTopic invalidateTopic;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(gotoLocalCacheConfig.getMaximumSize())
+                .expireAfter(new Expiry<String, GotoCacheValue>() {
+
+                    @Override
+                    public long expireAfterCreate(String key, GotoCacheValue value, long currentTime) {
+                        return value.getExpireNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, GotoCacheValue value, long currentTime, long currentDuration) {
+                        return value.getExpireNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, GotoCacheValue value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // 命中、未命中、淘汰次数通过 cache.gets / cache.evictions 指标暴露
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "short-link-goto");
+        invalidateTopic = redissonClient.getTopic(GOTO_LOCAL_CACHE_INVALIDATE_TOPIC, StringCodec.INSTANCE);
+        // 批量失效时消息为逗号分隔的多个后缀
+        invalidateTopic.addListener(String.class, (channel, message) -> cache.invalidateAll(StrUtil.split(message, ',')));
+    }
+
+    /**
+     * 读取本地缓存
+     *
+     * @param shortUri 短链接后缀
+     * @return 缓存值，未命中返回 null
+     */
+    public GotoCacheValue get(String shortUri) {
+        if (!gotoLocalCacheConfig.getEnable()) {
+            return null;
+        }
+        return cache.getIfPresent(shortUri);
+    }
+
+    /**
+     * 缓存短链接跳转的原始链接
+     *
+     * @param shortUri      短链接后缀
+     * @param originUrl     原始链接
+     * @param validTimeMill 短链接剩余有效时间，单位：毫秒，小于 0 表示未设置有效期
+     */
+    public void put(String shortUri, String originUrl, long validTimeMill) {
+        if (!gotoLocalCacheConfig.getEnable()) {
+            return;
+        }
+        long maxExpireMill = TimeUnit.SECONDS.toMillis(gotoLocalCacheConfig.getMaxExpireSeconds());
+        long expireMill = validTimeMill < 0 ? maxExpireMill : Math.min(validTimeMill, maxExpireMill);
+        if (expireMill == 0) {
+            return;
+        }
+        cache.put(shortUri, new GotoCacheValue(originUrl, TimeUnit.MILLISECONDS.toNanos(expireMill)));
+    }
+
+    /**
+     * 缓存短链接不存在或已失效的空值标记
+     *
+     * @param shortUri 短链接后缀
+     */
+    public void putNull(String shortUri) {
+        put(shortUri, null, -1L);
+    }
+
+    /**
+     * 失效短链接的本地缓存，并广播到其它节点
+     *
+     * @param shortUri 短链接后缀
+     */
+    public void invalidate(String shortUri) {
+        cache.invalidate(shortUri);
+        try {
+            invalidateTopic.publish(shortUri);
+        } catch (Throwable ex) {
+            log.error("广播短链接本地缓存失效消息失败，shortUri：{}", shortUri, ex);
+        }
+    }
+
+    /**
+     * 批量失效短链接的本地缓存，合并为少量广播消息
+     *
+     * @param shortUris 短链接后缀集合
+     */
+    public void invalidateAll(List<String> shortUris) {
+        cache.invalidateAll(shortUris);
+        for (List<String> each : CollUtil.split(shortUris, INVALIDATE_BATCH_SIZE)) {
+            try {
+                invalidateTopic.publish(String.join(",", each));
+            } catch (Throwable ex) {
+                log.error("广播短链接本地缓存批量失效消息失败，数量：{}", each.size(), ex);
+            }
+        }
+    }
+}
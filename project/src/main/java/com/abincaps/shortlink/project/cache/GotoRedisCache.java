@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.cache;
+
+import com.abincaps.shortlink.common.constant.RedisKeyConstant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短链接跳转 Redis 缓存查询
+ * 跳转链接与空值标记通过 Lua 脚本一次往返读取
+ */
+@Component
+@RequiredArgsConstructor
+public class GotoRedisCache {
+
+    private static final String GOTO_LOOKUP_LUA_SCRIPT_PATH = "lua/short_link_goto_lookup.lua";
+
+    private static final DefaultRedisScript<List<String>> GOTO_LOOKUP_SCRIPT;
+
+    static {
+        GOTO_LOOKUP_SCRIPT = new DefaultRedisScript<>();
+        GOTO_LOOKUP_SCRIPT.setScriptSource(new ResourceScriptSource(new ClassPathResource(GOTO_LOOKUP_LUA_SCRIPT_PATH)));
+        GOTO_LOOKUP_SCRIPT.setResultType(listOf(String.class));
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 查询短链接跳转缓存
+     *
+     * @param shortUri 短链接后缀
+     * @return 缓存值，originUrl 为 null 表示空值标记；未命中返回 null
+     */
+    public GotoCacheValue lookup(String shortUri) {
+        List<String> result = stringRedisTemplate.execute(
+                GOTO_LOOKUP_SCRIPT,
+                List.of(RedisKeyConstant.GOTO + shortUri, RedisKeyConstant.IS_NULL + shortUri)
+        );
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        if ("0".equals(result.get(0))) {
+            return new GotoCacheValue(null, -1L);
+        }
+        long validTimeMill = Long.parseLong(result.get(2));
+        return new GotoCacheValue(result.get(1), TimeUnit.MILLISECONDS.toNanos(validTimeMill));
+    }
+
+    /**
+     * 脚本返回多行结果时结果类型只能声明为 List，由该方法收窄为带元素类型的 Class，脚本返回值均为字符串
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Class<List<T>> listOf(Class<T> elementType) {
+        return (Class<List<T>>) (Class<?>) List.class;
+    }
+}
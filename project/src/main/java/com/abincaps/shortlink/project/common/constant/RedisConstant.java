@@ -38,6 +38,11 @@ public class RedisConstant {
      */
     public static final String LOCK_GOTO_SHORT_LINK_KEY = "short-link:lock:goto:%s";
 
+    /**
+     * 短链接跳转本地缓存失效广播 Topic
+     */
+    public static final String GOTO_LOCAL_CACHE_INVALIDATE_TOPIC = "short-link:local-cache:goto:invalidate";
+
     /**
      * 短链接修改分组 ID 锁前缀 Key
      */
@@ -49,14 +54,39 @@ public class RedisConstant {
     public static final String DELAY_QUEUE_STATS_KEY = "short-link:delay-queue:stats";
 
     /**
-     * 短链接统计判断是否新用户缓存标识
+     * 短链接每日访问用户 HyperLogLog 缓存标识，参数依次为完整短链接、日期
+     */
+    public static final String SHORT_LINK_STATS_UV_KEY = "short-link:stats:uv:%s:%s";
+
+    /**
+     * 短链接每日访问 IP HyperLogLog 缓存标识，参数依次为完整短链接、日期
+     */
+    public static final String SHORT_LINK_STATS_UIP_KEY = "short-link:stats:uip:%s:%s";
+
+    /**
+     * 分组每日访问用户 HyperLogLog 缓存标识，参数依次为分组标识、日期
+     */
+    public static final String SHORT_LINK_STATS_GROUP_UV_KEY = "short-link:stats:group-uv:%s:%s";
+
+    /**
+     * 分组每日访问 IP HyperLogLog 缓存标识，参数依次为分组标识、日期
      */
-    public static final String SHORT_LINK_STATS_UV_KEY = "short-link:stats:uv:";
+    public static final String SHORT_LINK_STATS_GROUP_UIP_KEY = "short-link:stats:group-uip:%s:%s";
 
     /**
-     * 短链接统计判断是否新 IP 缓存标识
+     * 首次写入每日 HyperLogLog 的日期缓存标识，早于该日期的 UV、UIP 只能从数据库统计
      */
-    public static final String SHORT_LINK_STATS_UIP_KEY = "short-link:stats:uip:";
+    public static final String SHORT_LINK_STATS_UNIQUE_START_DATE_KEY = "short-link:stats:unique-start-date";
+
+    /**
+     * 短链接每日 HyperLogLog 未完成刷新的临时 Key 集合，参数为每日 HyperLogLog Key，与其位于同一槽位
+     */
+    public static final String SHORT_LINK_STATS_UNIQUE_PENDING_KEY = "{%s}:pending";
+
+    /**
+     * 短链接每日 HyperLogLog 单次刷新的临时 Key，参数依次为每日 HyperLogLog Key、刷新标识，与其位于同一槽位
+     */
+    public static final String SHORT_LINK_STATS_UNIQUE_TEMP_KEY = "{%s}:tmp:%s";
 
     /**
      * 短链接监控消息保存队列 Topic 缓存标识
@@ -67,4 +97,54 @@ public class RedisConstant {
      * 短链接监控消息保存队列 Group 缓存标识
      */
     public static final String SHORT_LINK_STATS_STREAM_GROUP_KEY = "short-link:stats-stream:only-group";
+
+    /**
+     * 短链接监控消息死信队列，保存投递次数超过上限仍无法落库的消息
+     */
+    public static final String SHORT_LINK_STATS_STREAM_DEAD_LETTER_KEY = "short-link:stats-stream:dead-letter";
+
+    /**
+     * 短链接监控消息已落库但未确认的事件标识集合，按时间分桶
+     */
+    public static final String SHORT_LINK_STATS_DEDUP_KEY = "short-link:stats-stream:dedup:%s";
+
+    /**
+     * 短链接后缀预留标识，参数为完整短链接，防止多个节点的后缀池取到相同后缀
+     */
+    public static final String SHORT_LINK_CODE_RESERVE_KEY = "short-link:code-reserve:%s";
+
+    /**
+     * 短链接排行榜，参数依次为分组标识、统计周期（今日为 yyyyMMdd，累计为 total）、排序标识
+     */
+    public static final String SHORT_LINK_STATS_RANK_KEY = "short-link:stats:rank:%s:%s:%s";
+
+    /**
+     * 短链接排行榜一致性校验分布式锁
+     */
+    public static final String LOCK_STATS_RANK_CHECK_KEY = "short-link:lock:stats-rank-check";
+
+    /**
+     * 短链接访问统计汇总分布式锁
+     */
+    public static final String LOCK_STATS_ROLLUP_KEY = "short-link:lock:stats-rollup";
+
+    /**
+     * 短链接布隆过滤器重建分布式锁
+     */
+    public static final String LOCK_BLOOM_FILTER_REBUILD_KEY = "short-link:lock:bloom-filter-rebuild";
+
+    /**
+     * 访客首次访问日期索引补录分布式锁
+     */
+    public static final String LOCK_STATS_FIRST_SEEN_BACKFILL_KEY = "short-link:lock:stats-first-seen-backfill";
+
+    /**
+     * 短链接监控结果缓存，参数依次为缓存对象、缓存版本、分组标识、开始日期、结束日期
+     */
+    public static final String SHORT_LINK_STATS_CACHE_KEY = "short-link:stats:cache:%s:%s:%s:%s:%s";
+
+    /**
+     * 短链接监控结果缓存版本，参数为缓存对象，递增后原有缓存全部失效
+     */
+    public static final String SHORT_LINK_STATS_CACHE_VERSION_KEY = "short-link:stats:cache-version:%s";
 }
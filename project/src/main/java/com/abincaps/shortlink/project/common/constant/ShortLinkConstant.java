@@ -28,6 +28,11 @@ public class ShortLinkConstant {
      */
     public static final long DEFAULT_CACHE_VALID_TIME = 2626560000L;
 
+    /**
+     * 短链接不存在时空值标记缓存有效时间，默认三十分钟
+     */
+    public static final long GOTO_IS_NULL_CACHE_VALID_TIME = 1800000L;
+
     /**
      * 高德获取地区接口地址
      */
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 访问事件本地列式存储配置
+ * 每个节点只保存本节点消费落库的访问事件，作为查询来源时需保证只有一个节点消费统计消息，或各节点共享同一存储目录
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.segment")
+public class ClickSegmentConfig {
+
+    /**
+     * 是否将访问事件写入本地列式存储，可先开启写入积累数据，再切换查询来源
+     */
+    private Boolean enable = false;
+
+    /**
+     * 访问日志统计查询来源，mysql 为访问日志表，segment 为本地列式存储
+     */
+    private String queryBackend = "mysql";
+
+    /**
+     * 存储目录，按日期建子目录，每个分片按大小上限滚动为多个文件
+     */
+    private String dataDir = "data/click-segment";
+
+    /**
+     * 每日文件按分组标识拆分的分片数
+     */
+    private Integer shardingCount = 2;
+
+    /**
+     * 单个分片文件大小上限，单位字节，超过后滚动写入新文件；读取时整体内存映射，不能超过 2 GiB
+     */
+    private Long maxFileBytes = 256L * 1024 * 1024;
+
+    /**
+     * 保留天数，更早日期的目录整体删除
+     */
+    private Integer retentionDays = 180;
+
+    /**
+     * 过期数据清理任务执行时间
+     */
+    private String purgeCron = "0 20 1 * * ?";
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接后缀生成配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.code")
+public class ShortCodeConfig {
+
+    /**
+     * 生成方式，hash 为原始链接哈希，segment 为号段发号后编码
+     */
+    private String generator = "hash";
+
+    /**
+     * 号段业务标识，对应 t_link_id_segment.biz_tag
+     */
+    private String bizTag = "short-link";
+
+    /**
+     * 每次从数据库申请的号段长度
+     */
+    private Integer segmentStep = 1000;
+
+    /**
+     * 当前号段剩余比例低于该值时异步申请下一号段
+     */
+    private Double segmentPrefetchRatio = 0.2D;
+
+    /**
+     * 号段模式生成的后缀长度，与哈希模式最长 6 位错开，避免和存量后缀重复
+     */
+    private Integer codeLength = 7;
+
+    /**
+     * 打乱字符表及编号置换使用的密钥，上线后不可修改
+     */
+    private Long secret = 20231120L;
+
+    /**
+     * 是否启用后缀池，仅 hash 方式生效
+     */
+    private Boolean poolEnable = false;
+
+    /**
+     * 后缀池容量
+     */
+    private Integer poolCapacity = 2000;
+
+    /**
+     * 后缀池低水位，剩余数量低于该值时立即触发补充
+     */
+    private Integer poolLowWaterMark = 500;
+
+    /**
+     * 每批补充的后缀数量
+     */
+    private Integer poolRefillBatchSize = 200;
+
+    /**
+     * 后缀在 Redis 中的预留秒数，超过预留时间仍未使用的后缀从池中丢弃
+     */
+    private Long poolReserveSeconds = 3600L;
+}
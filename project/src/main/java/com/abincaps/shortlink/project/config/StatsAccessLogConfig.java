@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 访问日志分表配置，分片数、保留月数、预建月数需与 ShardingSphere 中 link_access_logs_complex 算法的配置一致
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.access-log")
+public class StatsAccessLogConfig {
+
+    /**
+     * 每月访问日志按分组标识拆分的表数量
+     */
+    private Integer shardingCount = 2;
+
+    /**
+     * 访问日志保留月数，含当月，更早月份的表整表删除
+     */
+    private Integer retentionMonths = 6;
+
+    /**
+     * 提前创建的未来月份数
+     */
+    private Integer precreateMonths = 2;
+
+    /**
+     * 已过保留期后继续检查删除的月数，用于补删维护任务停止期间遗留的表
+     */
+    private Integer dropLookbackMonths = 12;
+
+    /**
+     * 分表维护任务执行时间
+     */
+    private String maintainCron = "0 10 1 * * ?";
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接监控结果缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.cache")
+public class StatsCacheConfig {
+
+    /**
+     * 是否缓存历史日期的监控结果
+     */
+    private Boolean enable = true;
+
+    /**
+     * 历史日期监控结果缓存时间，历史数据不再变化，仅用于回收不再访问的日期范围
+     */
+    private Long ttlHours = 168L;
+
+    /**
+     * 前一日在零点后继续按实时数据查询的时长，等待统计队列中的前一日数据落库
+     */
+    private Long closeDelayMinutes = 10L;
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * IP 所属地区解析配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.locale")
+public class StatsLocaleConfig {
+
+    /**
+     * 解析方式，amap 为高德 IP 定位接口，local 为本地 IP 段库；本地库文件不存在时回退到高德 IP 定位接口
+     */
+    private String type = "amap";
+
+    /**
+     * 本地 IP 段库文件路径，每行格式：起始IP,结束IP,国家,省份,城市,行政区划代码
+     */
+    private String databasePath = "data/ip-locale.csv";
+
+    /**
+     * 检查本地 IP 段库文件是否变更的间隔毫秒数
+     */
+    private Long reloadIntervalMillis = 60000L;
+
+    /**
+     * 最近解析 IP 缓存的最大条目数
+     */
+    private Integer cacheMaximumSize = 10000;
+
+    /**
+     * 高德 IP 定位接口 Key，amap 方式及 local 方式库文件不存在时使用
+     */
+    private String amapKey;
+}
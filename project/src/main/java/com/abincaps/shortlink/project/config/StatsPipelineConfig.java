@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接访问统计异步处理配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.pipeline")
+public class StatsPipelineConfig {
+
+    /**
+     * 环形缓冲区容量
+     */
+    private Integer bufferCapacity = 65536;
+
+    /**
+     * 缓冲区已满时入队最长等待时间，单位毫秒，0 表示立即丢弃
+     */
+    private Long offerTimeoutMillis = 0L;
+
+    /**
+     * 缓冲区消费线程数，负责将统计记录写入 Redis Stream
+     */
+    private Integer workerThreads = 2;
+
+    /**
+     * 单次管道写入 Redis Stream 的最大条数
+     */
+    private Integer batchSize = 256;
+
+    /**
+     * 缓冲区为空时处理线程休眠时间，单位毫秒
+     */
+    private Long idleWaitMillis = 5L;
+
+    /**
+     * 聚合窗口最长时间，单位秒
+     */
+    private Integer windowSeconds = 5;
+
+    /**
+     * 聚合窗口最大唯一键数量，达到后提前刷新
+     */
+    private Integer windowMaxKeys = 20000;
+
+    /**
+     * 单条多行 upsert 语句的最大行数
+     */
+    private Integer flushBatchRows = 500;
+
+    /**
+     * 聚合窗口最大访问日志数量，达到后提前刷新
+     */
+    private Integer windowMaxAccessLogs = 10000;
+
+    /**
+     * 单条多行 INSERT 访问日志语句的最大行数
+     */
+    private Integer accessLogBatchRows = 1000;
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接监控查询并发配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.query")
+public class StatsQueryConfig {
+
+    /**
+     * 并发执行监控查询的线程数，不宜超过数据库连接池大小
+     */
+    private Integer threads = 16;
+
+    /**
+     * 等待执行的查询队列长度，队列已满时拒绝执行，统计项以空数据返回
+     */
+    private Integer queueCapacity = 256;
+
+    /**
+     * 单项查询超时时间，超时的统计项返回空数据，同时向上取整为秒作为 JDBC 语句超时
+     */
+    private Long timeoutMillis = 3000L;
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接排行榜配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.ranking")
+public class StatsRankingConfig {
+
+    /**
+     * 是否通过 Redis 排行榜按今日、累计访问数据排序分页，关闭后回退到数据库排序
+     */
+    private Boolean enable = true;
+
+    /**
+     * 累计排行榜最近一次访问后的保留时间，单位小时
+     */
+    private Integer totalTtlHours = 24;
+
+    /**
+     * 排行榜与数据库一致性校验间隔，单位毫秒
+     */
+    private Long checkIntervalMillis = 300000L;
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接访问统计汇总配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.rollup")
+public class StatsRollupConfig {
+
+    /**
+     * 是否启用汇总数据，关闭后监控统计均查询明细数据
+     */
+    private Boolean enable = true;
+
+    /**
+     * 每日汇总前一日数据的执行时间
+     */
+    private String cron = "0 30 0 * * ?";
+
+    /**
+     * 每个汇总周期保存的高频 IP 数量
+     */
+    private Integer topIpStoreSize = 20;
+}
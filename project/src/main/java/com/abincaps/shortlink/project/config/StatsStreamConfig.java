@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短链接访问统计 Redis Stream 配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "short-link.stats.stream")
+public class StatsStreamConfig {
+
+    /**
+     * Stream 近似最大长度，超出后裁剪最早的消息
+     */
+    private Long maxLength = 1000000L;
+
+    /**
+     * 消费者线程数
+     */
+    private Integer consumerThreads = 2;
+
+    /**
+     * 单次 XREADGROUP 读取条数
+     */
+    private Integer readCount = 200;
+
+    /**
+     * 无消息时 XREADGROUP 阻塞时间，单位毫秒
+     */
+    private Long blockMillis = 1000L;
+
+    /**
+     * 待确认消息空闲超过该时间视为消费者已失效，单位秒
+     */
+    private Long reclaimMinIdleSeconds = 60L;
+
+    /**
+     * 扫描失效消费者待确认消息的间隔，单位秒
+     */
+    private Long reclaimIntervalSeconds = 30L;
+
+    /**
+     * 单次转移的待确认消息条数
+     */
+    private Integer reclaimCount = 200;
+
+    /**
+     * 消息最大投递次数，达到后不再转移，转入死信队列并确认
+     */
+    private Integer maxDeliveryCount = 5;
+
+    /**
+     * 死信队列近似最大长度
+     */
+    private Long deadLetterMaxLength = 100000L;
+
+    /**
+     * 去重集合时间分桶大小，单位分钟；集合保留两个分桶，需大于消息从落库到被重新转移的最长时间
+     */
+    private Integer dedupBucketMinutes = 60;
+
+    /**
+     * 批量写入 Stream 失败后的重试次数，重试仍失败时丢弃该批记录并计入丢弃指标
+     */
+    private Integer produceRetryTimes = 3;
+
+    /**
+     * 首次重试前的等待时间，之后每次翻倍，单位毫秒
+     */
+    private Long produceRetryBackoffMillis = 100L;
+}
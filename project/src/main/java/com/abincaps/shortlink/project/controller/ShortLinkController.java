@@ -22,19 +22,26 @@ import com.alibaba.csp.sentinel.annotation.SentinelResource;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.abincaps.shortlink.project.common.convention.result.Result;
 import com.abincaps.shortlink.project.common.convention.result.Results;
+import com.abincaps.shortlink.project.dto.req.ShortLinkBatchCreateReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkCreateReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkImportReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkPageReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkUpdateReqDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkBatchCreateRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkCreateRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkGroupCountQueryRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkPageRespDTO;
 import com.abincaps.shortlink.project.handler.CustomBlockHandler;
+import com.abincaps.shortlink.project.service.ShortLinkImportService;
 import com.abincaps.shortlink.project.service.ShortLinkService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -45,6 +52,7 @@ import java.util.List;
 public class ShortLinkController {
 
     private final ShortLinkService shortLinkService;
+    private final ShortLinkImportService shortLinkImportService;
 
     /**
      * 短链接跳转原始链接
@@ -67,6 +75,24 @@ public class ShortLinkController {
         return Results.success(shortLinkService.createShortLink(requestParam));
     }
 
+    /**
+     * 批量创建短链接
+     */
+    @PostMapping("/api/short-link/v1/create/batch")
+    public Result<ShortLinkBatchCreateRespDTO> batchCreateShortLink(@RequestBody ShortLinkBatchCreateReqDTO requestParam) {
+        return Results.success(shortLinkService.batchCreateShortLink(requestParam));
+    }
+
+    /**
+     * 流式导入短链接，请求体为 CSV 或 NDJSON 内容，每个分块提交后返回一行 NDJSON 进度
+     */
+    @PostMapping("/api/short-link/v1/import")
+    public void importShortLinks(ShortLinkImportReqDTO requestParam, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        shortLinkImportService.importShortLinks(requestParam, request.getInputStream(), response.getOutputStream());
+    }
+
     /**
      * 修改短链接
      */
@@ -92,6 +118,15 @@ public class ShortLinkController {
         return Results.success(shortLinkService.listGroupShortLinkCount(requestParam));
     }
 
+    /**
+     * 由跳转路由表重建短链接布隆过滤器
+     */
+    @PostMapping("/api/short-link/v1/bloom-filter/rebuild")
+    public Result<Void> rebuildBloomFilter() {
+        shortLinkService.rebuildBloomFilter();
+        return Results.success();
+    }
+
     /**
      * 短链接不存在跳转页面
      */
@@ -22,15 +22,24 @@ import com.abincaps.shortlink.project.common.convention.result.Result;
 import com.abincaps.shortlink.project.common.convention.result.Results;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsAccessRecordExportReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsRollupBackfillReqDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsAccessRecordRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsRespDTO;
 import com.abincaps.shortlink.project.service.ShortLinkStatsService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * 短链接监控控制层
 
@@ -72,4 +81,33 @@ public class ShortLinkStatsController {
     public Result<IPage<ShortLinkStatsAccessRecordRespDTO>> groupShortLinkStatsAccessRecord(ShortLinkGroupStatsAccessRecordReqDTO requestParam) {
         return Results.success(shortLinkStatsService.groupShortLinkStatsAccessRecord(requestParam));
     }
+
+    /**
+     * 以 CSV 流式导出短链接或分组指定时间内的全部访问记录
+     */
+    @GetMapping("/api/short-link/v1/stats/access-record/export")
+    public void exportStatsAccessRecord(ShortLinkStatsAccessRecordExportReqDTO requestParam, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=access-record.csv");
+        shortLinkStatsService.exportStatsAccessRecord(requestParam, response.getOutputStream());
+    }
+
+    /**
+     * 补录指定日期范围内的访问统计汇总数据
+     */
+    @PostMapping("/api/short-link/v1/stats/rollup/backfill")
+    public Result<Void> backfillStatsRollup(@RequestBody ShortLinkStatsRollupBackfillReqDTO requestParam) {
+        shortLinkStatsService.backfillStatsRollup(requestParam);
+        return Results.success();
+    }
+
+    /**
+     * 由访问日志补录访客首次访问日期索引
+     */
+    @PostMapping("/api/short-link/v1/stats/first-seen/backfill")
+    public Result<Void> backfillVisitorFirstSeen() {
+        shortLinkStatsService.backfillVisitorFirstSeen();
+        return Results.success();
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.entity;
+
+import com.abincaps.shortlink.project.common.database.BaseDO;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 短链接访问统计汇总实体
+ */
+@TableName("t_link_stats_rollup")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinkStatsRollupDO extends BaseDO {
+
+    /**
+     * id
+     */
+    private Long id;
+
+    /**
+     * 完整短链接，分组汇总为空字符串
+     */
+    private String fullShortUrl;
+
+    /**
+     * 分组标识
+     */
+    private String gid;
+
+    /**
+     * 汇总周期 0：日 1：周 2：月
+     */
+    private Integer periodType;
+
+    /**
+     * 周期起始日期
+     */
+    private Date periodStart;
+
+    /**
+     * 访问量
+     */
+    private Integer pv;
+
+    /**
+     * 独立访客数
+     */
+    private Integer uv;
+
+    /**
+     * 独立IP数
+     */
+    private Integer uip;
+
+    /**
+     * 访客 HyperLogLog
+     */
+    private byte[] uvSketch;
+
+    /**
+     * IP HyperLogLog
+     */
+    private byte[] uipSketch;
+
+    /**
+     * 高频访问IP，格式 ip=次数,ip=次数
+     */
+    private String topIps;
+}
@@ -53,6 +53,11 @@ public class ShortLinkDO extends BaseDO {
      */
     private String shortUri;
 
+    /**
+     * 完整短链接
+     */
+    private String fullShortUrl;
+
     /**
      * 创建者ID
      */
@@ -22,12 +22,16 @@ import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
 import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 访问日志监控持久层
@@ -72,86 +76,6 @@ public interface LinkAccessLogsMapper extends BaseMapper<LinkAccessLogsDO> {
             "LIMIT 5;")
     List<HashMap<String, Object>> listTopIpByGroup(@Param("param") ShortLinkGroupStatsReqDTO requestParam);
 
-    /**
-     * 根据短链接获取指定日期内新旧访客数据
-     */
-    @Select("SELECT " +
-            "    SUM(old_user) AS oldUserCnt, " +
-            "    SUM(new_user) AS newUserCnt " +
-            "FROM ( " +
-            "    SELECT " +
-            "        CASE WHEN COUNT(DISTINCT DATE(create_time)) > 1 THEN 1 ELSE 0 END AS old_user, " +
-            "        CASE WHEN COUNT(DISTINCT DATE(create_time)) = 1 AND MAX(create_time) >= #{param.startDate} AND MAX(create_time) <= #{param.endDate} THEN 1 ELSE 0 END AS new_user " +
-            "    FROM " +
-            "        t_link_access_logs " +
-            "    WHERE " +
-            "        full_short_url = #{param.fullShortUrl} " +
-            "        AND gid = #{param.gid} " +
-            "    GROUP BY " +
-            "        user " +
-            ") AS user_counts;")
-    HashMap<String, Object> findUvTypeCntByShortLink(@Param("param") ShortLinkStatsReqDTO requestParam);
-
-    /**
-     * 获取用户信息是否新老访客
-     */
-    @Select("<script> " +
-            "SELECT " +
-            "    user, " +
-            "    CASE " +
-            "        WHEN MIN(create_time) BETWEEN #{startDate} AND #{endDate} THEN '新访客' " +
-            "        ELSE '老访客' " +
-            "    END AS uvType " +
-            "FROM " +
-            "    t_link_access_logs " +
-            "WHERE " +
-            "    full_short_url = #{fullShortUrl} " +
-            "    AND gid = #{gid} " +
-            "    AND user IN " +
-            "    <foreach item='item' index='index' collection='userAccessLogsList' open='(' separator=',' close=')'> " +
-            "        #{item} " +
-            "    </foreach> " +
-            "GROUP BY " +
-            "    user;" +
-            "    </script>"
-    )
-    List<Map<String, Object>> selectUvTypeByUsers(
-            @Param("gid") String gid,
-            @Param("fullShortUrl") String fullShortUrl,
-            @Param("startDate") String startDate,
-            @Param("endDate") String endDate,
-            @Param("userAccessLogsList") List<String> userAccessLogsList
-    );
-
-    /**
-     * 获取分组用户信息是否新老访客
-     */
-    @Select("<script> " +
-            "SELECT " +
-            "    user, " +
-            "    CASE " +
-            "        WHEN MIN(create_time) BETWEEN #{startDate} AND #{endDate} THEN '新访客' " +
-            "        ELSE '老访客' " +
-            "    END AS uvType " +
-            "FROM " +
-            "    t_link_access_logs " +
-            "WHERE " +
-            "    gid = #{gid} " +
-            "    AND user IN " +
-            "    <foreach item='item' index='index' collection='userAccessLogsList' open='(' separator=',' close=')'> " +
-            "        #{item} " +
-            "    </foreach> " +
-            "GROUP BY " +
-            "    user;" +
-            "    </script>"
-    )
-    List<Map<String, Object>> selectGroupUvTypeByUsers(
-            @Param("gid") String gid,
-            @Param("startDate") String startDate,
-            @Param("endDate") String endDate,
-            @Param("userAccessLogsList") List<String> userAccessLogsList
-    );
-
     /**
      * 根据短链接获取指定日期内PV、UV、UIP数据
      */
@@ -184,4 +108,52 @@ public interface LinkAccessLogsMapper extends BaseMapper<LinkAccessLogsDO> {
             "GROUP BY " +
             "    gid;")
     LinkAccessStatsDO findPvUvUidStatsByGroup(@Param("param") ShortLinkGroupStatsReqDTO requestParam);
+
+    /**
+     * 按 (create_time, id) 倒序游标读取访问记录，从上一批最后一条之后继续，结果集以流式方式逐行返回
+     */
+    @Select("<script> " +
+            "SELECT id, full_short_url, gid, user, ip, browser, os, network, device, locale, create_time " +
+            "FROM t_link_access_logs " +
+            "WHERE gid = #{gid} " +
+            "<if test='fullShortUrl != null'>AND full_short_url = #{fullShortUrl} </if>" +
+            "AND create_time BETWEEN #{startTime} AND #{endTime} " +
+            "AND del_flag = 0 " +
+            "<if test='lastCreateTime != null'>AND (create_time &lt; #{lastCreateTime} OR (create_time = #{lastCreateTime} AND id &lt; #{lastId})) </if>" +
+            "ORDER BY create_time DESC, id DESC " +
+            "LIMIT #{limit}" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<LinkAccessLogsDO> cursorAccessRecord(
+            @Param("gid") String gid,
+            @Param("fullShortUrl") String fullShortUrl,
+            @Param("startTime") Date startTime,
+            @Param("endTime") Date endTime,
+            @Param("lastCreateTime") Date lastCreateTime,
+            @Param("lastId") Long lastId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 查询短链接时间范围内的去重访客
+     */
+    @Select("SELECT DISTINCT user FROM t_link_access_logs " +
+            "WHERE gid = #{gid} AND full_short_url = #{fullShortUrl} AND create_time BETWEEN #{startTime} AND #{endTime} AND del_flag = 0")
+    List<String> listDistinctUsers(
+            @Param("gid") String gid,
+            @Param("fullShortUrl") String fullShortUrl,
+            @Param("startTime") Date startTime,
+            @Param("endTime") Date endTime
+    );
+
+    /**
+     * 批量写入访问日志，多行合并为一条 INSERT 语句
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_access_logs (id, full_short_url, gid, user, ip, browser, os, network, device, locale, create_time, update_time, del_flag) VALUES " +
+            "<foreach item='item' collection='accessLogsList' separator=','> " +
+            "(#{item.id}, #{item.fullShortUrl}, #{item.gid}, #{item.user}, #{item.ip}, #{item.browser}, #{item.os}, #{item.network}, #{item.device}, #{item.locale}, #{item.createTime}, NOW(), 0) " +
+            "</foreach>" +
+            "</script>")
+    void insertBatch(@Param("accessLogsList") List<LinkAccessLogsDO> accessLogsList);
 }
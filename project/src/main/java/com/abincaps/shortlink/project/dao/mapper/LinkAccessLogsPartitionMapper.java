@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.mapper;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 访问日志分表维护持久层，表名由分表算法生成，不接收外部输入
+ */
+public interface LinkAccessLogsPartitionMapper {
+
+    /**
+     * 按模板表结构创建访问日志实际表，已存在时忽略
+     */
+    @Update("CREATE TABLE IF NOT EXISTS ${tableName} LIKE t_link_access_logs_template")
+    void createTableIfAbsent(@Param("tableName") String tableName);
+
+    /**
+     * 删除访问日志实际表
+     */
+    @Update("DROP TABLE IF EXISTS ${tableName}")
+    void dropTableIfExists(@Param("tableName") String tableName);
+
+    /**
+     * 按访问时间路由到各月份的全部分片，只校验分表路由，不读取数据
+     */
+    @Select("<script> " +
+            "SELECT COUNT(*) FROM t_link_access_logs WHERE id = -1 AND create_time IN " +
+            "<foreach item='item' collection='createTimes' open='(' separator=',' close=')'> " +
+            "#{item} " +
+            "</foreach>" +
+            "</script>")
+    int probeRoute(@Param("createTimes") List<Date> createTimes);
+}
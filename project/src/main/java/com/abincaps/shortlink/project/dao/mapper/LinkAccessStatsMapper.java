@@ -25,6 +25,7 @@ import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -42,6 +43,18 @@ public interface LinkAccessStatsMapper extends BaseMapper<LinkAccessStatsDO> {
             " uip = uip + #{linkAccessStats.uip};")
     void shortLinkStats(@Param("linkAccessStats") LinkAccessStatsDO linkAccessStatsDO);
 
+    /**
+     * 批量记录基础访问监控数据
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_access_stats (full_short_url, gid, date, pv, uv, uip, hour, weekday, create_time, update_time, del_flag) VALUES " +
+            "<foreach item='item' collection='linkAccessStatsList' separator=','> " +
+            "(#{item.fullShortUrl}, #{item.gid}, #{item.date}, #{item.pv}, #{item.uv}, #{item.uip}, #{item.hour}, #{item.weekday}, NOW(), NOW(), 0) " +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE pv = pv + VALUES(pv), uv = uv + VALUES(uv), uip = uip + VALUES(uip), update_time = NOW()" +
+            "</script>")
+    void shortLinkStatsBatch(@Param("linkAccessStatsList") List<LinkAccessStatsDO> linkAccessStatsList);
+
     /**
      * 根据短链接获取指定日期内基础监控数据
      */
@@ -138,4 +151,10 @@ public interface LinkAccessStatsMapper extends BaseMapper<LinkAccessStatsDO> {
             "GROUP BY " +
             "    gid, weekday;")
     List<LinkAccessStatsDO> listWeekdayStatsByGroup(@Param("param") ShortLinkGroupStatsReqDTO requestParam);
+
+    /**
+     * 查询某日有访问记录的短链接
+     */
+    @Select("SELECT DISTINCT full_short_url, gid FROM t_link_access_stats WHERE date = #{date} ORDER BY gid")
+    List<LinkAccessStatsDO> listLinksByDate(@Param("date") Date date);
 }
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.dao.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 号段持久层
+ */
+public interface LinkIdSegmentMapper {
+
+    /**
+     * 初始化号段记录，已存在时忽略
+     */
+    @Insert("INSERT IGNORE INTO t_link_id_segment (biz_tag, max_id, update_time) VALUES (#{bizTag}, 0, NOW())")
+    void initIfAbsent(@Param("bizTag") String bizTag);
+
+    /**
+     * 号段上限前移一个步长
+     */
+    @Update("UPDATE t_link_id_segment SET max_id = max_id + #{step}, update_time = NOW() WHERE biz_tag = #{bizTag}")
+    int incrementMaxId(@Param("bizTag") String bizTag, @Param("step") int step);
+
+    /**
+     * 查询号段上限
+     */
+    @Select("SELECT max_id FROM t_link_id_segment WHERE biz_tag = #{bizTag}")
+    Long selectMaxId(@Param("bizTag") String bizTag);
+}
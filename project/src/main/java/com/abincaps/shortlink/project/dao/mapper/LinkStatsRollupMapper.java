@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.mapper;
+
+import com.abincaps.shortlink.project.dao.entity.LinkStatsRollupDO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 短链接访问统计汇总持久层
+ */
+public interface LinkStatsRollupMapper extends BaseMapper<LinkStatsRollupDO> {
+
+    /**
+     * 批量写入汇总数据，已存在时覆盖，重复汇总同一周期结果不变
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_stats_rollup (full_short_url, gid, period_type, period_start, pv, uv, uip, uv_sketch, uip_sketch, top_ips, create_time, update_time, del_flag) VALUES " +
+            "<foreach item='item' collection='rollupList' separator=','> " +
+            "(#{item.fullShortUrl}, #{item.gid}, #{item.periodType}, #{item.periodStart}, #{item.pv}, #{item.uv}, #{item.uip}, #{item.uvSketch}, #{item.uipSketch}, #{item.topIps}, NOW(), NOW(), 0) " +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE pv = VALUES(pv), uv = VALUES(uv), uip = VALUES(uip), uv_sketch = VALUES(uv_sketch), uip_sketch = VALUES(uip_sketch), " +
+            "top_ips = VALUES(top_ips), update_time = NOW()" +
+            "</script>")
+    void upsertBatch(@Param("rollupList") List<LinkStatsRollupDO> rollupList);
+
+    /**
+     * 按 (短链接, 分组, 周期起始日期) 顺序分批读取周期类型在日期范围内的汇总数据，从上一批最后一条之后继续
+     */
+    @Select("<script> " +
+            "SELECT full_short_url, gid, period_type, period_start, pv, uv, uip, uv_sketch, uip_sketch, top_ips " +
+            "FROM t_link_stats_rollup " +
+            "WHERE period_type = #{periodType} " +
+            "AND period_start BETWEEN #{startDate} AND #{endDate} " +
+            "AND del_flag = 0 " +
+            "<if test='last != null'>AND (full_short_url, gid, period_start) &gt; (#{last.fullShortUrl}, #{last.gid}, #{last.periodStart}) </if>" +
+            "ORDER BY full_short_url, gid, period_start " +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<LinkStatsRollupDO> listRollups(@Param("periodType") int periodType,
+                                        @Param("startDate") Date startDate,
+                                        @Param("endDate") Date endDate,
+                                        @Param("last") LinkStatsRollupDO last,
+                                        @Param("limit") int limit);
+
+    /**
+     * 记录周期已完成汇总
+     */
+    @Insert("INSERT INTO t_link_stats_rollup_period (period_type, period_start, update_time) VALUES (#{periodType}, #{periodStart}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE update_time = NOW()")
+    void markRolledUp(@Param("periodType") int periodType, @Param("periodStart") Date periodStart);
+
+    /**
+     * 查询日期范围内已完成汇总的周期
+     */
+    @Select("SELECT period_type, period_start FROM t_link_stats_rollup_period WHERE period_start BETWEEN #{startDate} AND #{endDate}")
+    List<LinkStatsRollupDO> listRolledUpPeriods(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+}
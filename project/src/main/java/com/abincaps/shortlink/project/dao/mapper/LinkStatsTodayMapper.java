@@ -22,6 +22,8 @@ import com.abincaps.shortlink.project.dao.entity.LinkStatsTodayDO;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 /**
  * 短链接今日统计持久层
 
@@ -35,4 +37,16 @@ public interface LinkStatsTodayMapper extends BaseMapper<LinkStatsTodayDO> {
             "VALUES( #{linkTodayStats.fullShortUrl}, #{linkTodayStats.gid}, #{linkTodayStats.date}, #{linkTodayStats.todayUv}, #{linkTodayStats.todayPv}, #{linkTodayStats.todayUip}, NOW(), NOW(), 0) " +
             "ON DUPLICATE KEY UPDATE today_uv = today_uv +  #{linkTodayStats.todayUv}, today_pv = today_pv +  #{linkTodayStats.todayPv}, today_uip = today_uip +  #{linkTodayStats.todayUip};")
     void shortLinkTodayState(@Param("linkTodayStats") LinkStatsTodayDO linkStatsTodayDO);
+
+    /**
+     * 批量记录今日统计监控数据
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_stats_today (full_short_url, gid, date, today_uv, today_pv, today_uip, create_time, update_time, del_flag) VALUES " +
+            "<foreach item='item' collection='linkTodayStatsList' separator=','> " +
+            "(#{item.fullShortUrl}, #{item.gid}, #{item.date}, #{item.todayUv}, #{item.todayPv}, #{item.todayUip}, NOW(), NOW(), 0) " +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE today_uv = today_uv + VALUES(today_uv), today_pv = today_pv + VALUES(today_pv), today_uip = today_uip + VALUES(today_uip), update_time = NOW()" +
+            "</script>")
+    void shortLinkTodayStateBatch(@Param("linkTodayStatsList") List<LinkStatsTodayDO> linkStatsTodayList);
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.mapper;
+
+import com.abincaps.shortlink.project.dao.entity.LinkTopIpDailyDO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 每日高频访问 IP 估计持久层
+ */
+public interface LinkTopIpDailyMapper {
+
+    /**
+     * 插入不存在的行并对全部行加排他锁，已存在的行不修改
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_top_ip_daily (gid, full_short_url, date, total, counters) VALUES " +
+            "<foreach item='item' collection='topIpList' separator=','> " +
+            "(#{item.gid}, #{item.fullShortUrl}, #{item.date}, 0, '') " +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE total = total" +
+            "</script>")
+    void lockBatch(@Param("topIpList") List<LinkTopIpDailyDO> topIpList);
+
+    /**
+     * 读取已加锁行的当前数据
+     */
+    @Select("<script> " +
+            "SELECT gid, full_short_url, date, total, counters FROM t_link_top_ip_daily " +
+            "WHERE (gid, full_short_url, date) IN " +
+            "<foreach item='item' collection='topIpList' open='(' separator=',' close=')'> " +
+            "(#{item.gid}, #{item.fullShortUrl}, #{item.date}) " +
+            "</foreach> " +
+            "FOR UPDATE" +
+            "</script>")
+    List<LinkTopIpDailyDO> listForUpdate(@Param("topIpList") List<LinkTopIpDailyDO> topIpList);
+
+    /**
+     * 批量覆盖合并后的估计
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_top_ip_daily (gid, full_short_url, date, total, counters) VALUES " +
+            "<foreach item='item' collection='topIpList' separator=','> " +
+            "(#{item.gid}, #{item.fullShortUrl}, #{item.date}, #{item.total}, #{item.counters}) " +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE total = VALUES(total), counters = VALUES(counters)" +
+            "</script>")
+    void upsertBatch(@Param("topIpList") List<LinkTopIpDailyDO> topIpList);
+
+    /**
+     * 查询日期范围内的每日估计
+     */
+    @Select("SELECT gid, full_short_url, date, total, counters FROM t_link_top_ip_daily " +
+            "WHERE gid = #{gid} AND full_short_url = #{fullShortUrl} AND date BETWEEN #{startDate} AND #{endDate}")
+    List<LinkTopIpDailyDO> listByDateRange(@Param("gid") String gid,
+                                           @Param("fullShortUrl") String fullShortUrl,
+                                           @Param("startDate") Date startDate,
+                                           @Param("endDate") Date endDate);
+
+    /**
+     * 查询最早的估计日期
+     */
+    @Select("SELECT MIN(date) FROM t_link_top_ip_daily")
+    Date findFirstDate();
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.mapper;
+
+import com.abincaps.shortlink.project.dao.entity.LinkVisitorFirstSeenDO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 访客首次访问日期持久层
+ */
+public interface LinkVisitorFirstSeenMapper {
+
+    /**
+     * 批量写入访客首次访问日期，已存在时保留较早的日期
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_visitor_first_seen (gid, full_short_url, visitor_hash, first_seen_date) VALUES " +
+            "<foreach item='item' collection='firstSeenList' separator=','> " +
+            "(#{item.gid}, #{item.fullShortUrl}, #{item.visitorHash}, #{item.firstSeenDate}) " +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE first_seen_date = LEAST(first_seen_date, VALUES(first_seen_date))" +
+            "</script>")
+    void insertBatch(@Param("firstSeenList") List<LinkVisitorFirstSeenDO> firstSeenList);
+
+    /**
+     * 统计首次访问日期在日期范围内的访客数
+     */
+    @Select("SELECT COUNT(*) FROM t_link_visitor_first_seen " +
+            "WHERE gid = #{gid} AND full_short_url = #{fullShortUrl} AND first_seen_date BETWEEN #{startDate} AND #{endDate}")
+    int countFirstSeen(@Param("gid") String gid,
+                       @Param("fullShortUrl") String fullShortUrl,
+                       @Param("startDate") Date startDate,
+                       @Param("endDate") Date endDate);
+
+    /**
+     * 查询指定访客的首次访问日期
+     */
+    @Select("<script> " +
+            "SELECT visitor_hash, first_seen_date FROM t_link_visitor_first_seen " +
+            "WHERE gid = #{gid} AND full_short_url = #{fullShortUrl} AND visitor_hash IN " +
+            "<foreach item='item' collection='visitorHashList' open='(' separator=',' close=')'> " +
+            "#{item} " +
+            "</foreach>" +
+            "</script>")
+    List<LinkVisitorFirstSeenDO> listByVisitors(@Param("gid") String gid,
+                                                @Param("fullShortUrl") String fullShortUrl,
+                                                @Param("visitorHashList") List<Long> visitorHashList);
+}
@@ -19,10 +19,32 @@ package com.abincaps.shortlink.project.dao.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkGotoDO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 短链接跳转持久层
 
  */
 public interface ShortLinkGotoMapper extends BaseMapper<ShortLinkGotoDO> {
+
+    /**
+     * 批量新增短链接跳转记录
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link_goto (id, gid, full_short_url) VALUES " +
+            "<foreach item='item' collection='shortLinkGotoList' separator=','> " +
+            "(#{item.id}, #{item.gid}, #{item.fullShortUrl}) " +
+            "</foreach>" +
+            "</script>")
+    void insertBatch(@Param("shortLinkGotoList") List<ShortLinkGotoDO> shortLinkGotoList);
+
+    /**
+     * 按主键顺序分批读取跳转记录，从上一批最后一条之后继续
+     */
+    @Select("SELECT id, gid, full_short_url FROM t_link_goto WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<ShortLinkGotoDO> listAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
 }
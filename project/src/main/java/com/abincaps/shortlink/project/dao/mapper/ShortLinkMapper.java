@@ -21,9 +21,12 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkDO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkPageReqDTO;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.List;
+
 /**
  * 短链接持久层
 
@@ -32,9 +35,11 @@ public interface ShortLinkMapper extends BaseMapper<ShortLinkDO> {
 
     /**
      * 短链接访问统计自增
+     *
+     * @return 影响行数，分组已变更时为 0
      */
     @Update("update t_link set total_pv = total_pv + #{totalPv}, total_uv = total_uv + #{totalUv}, total_uip = total_uip + #{totalUip} where gid = #{gid} and full_short_url = #{fullShortUrl}")
-    void incrementStats(
+    int incrementStats(
             @Param("gid") String gid,
             @Param("fullShortUrl") String fullShortUrl,
             @Param("totalPv") Integer totalPv,
@@ -46,4 +51,17 @@ public interface ShortLinkMapper extends BaseMapper<ShortLinkDO> {
      * 分页统计短链接
      */
     IPage<ShortLinkDO> pageLink(ShortLinkPageReqDTO requestParam);
+
+    /**
+     * 批量新增短链接，同一批次需属于同一分组，保证路由到同一分表
+     */
+    @Insert("<script> " +
+            "INSERT INTO t_link (id, domain, short_uri, full_short_url, user_id, origin_url, click_num, gid, enable_status, valid_date_type, valid_date, `describe`, " +
+            "total_pv, total_uv, total_uip, create_time, update_time, del_time, del_flag) VALUES " +
+            "<foreach item='item' collection='shortLinkList' separator=','> " +
+            "(#{item.id}, #{item.domain}, #{item.shortUri}, #{item.fullShortUrl}, #{item.userId}, #{item.originUrl}, 0, #{item.gid}, #{item.enableStatus}, #{item.validDateType}, #{item.validDate}, #{item.describe}, " +
+            "0, 0, 0, NOW(), NOW(), 0, 0) " +
+            "</foreach>" +
+            "</script>")
+    void insertBatch(@Param("shortLinkList") List<ShortLinkDO> shortLinkList);
 }
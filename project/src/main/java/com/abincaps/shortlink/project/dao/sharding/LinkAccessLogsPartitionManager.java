@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.sharding;
+
+import com.abincaps.shortlink.project.config.StatsAccessLogConfig;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessLogsPartitionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 访问日志分表维护
+ * 启动时及每日创建保留期内与未来若干月份的表，并整表删除超过保留期的月份，不再按行删除过期日志；
+ * 维护的月份超出 ShardingSphere actualDataNodes 配置范围时启动失败，运行期间每日维护时记录错误日志
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LinkAccessLogsPartitionManager implements InitializingBean {
+
+    private final StatsAccessLogConfig statsAccessLogConfig;
+    private final LinkAccessLogsPartitionMapper linkAccessLogsPartitionMapper;
+
+    @Override
+    public void afterPropertiesSet() {
+        maintain();
+        checkDataNodes(YearMonth.now());
+    }
+
+    @Scheduled(cron = "${short-link.stats.access-log.maintain-cron:0 10 1 * * ?}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        YearMonth earliest = current.minusMonths(statsAccessLogConfig.getRetentionMonths() - 1L);
+        YearMonth latest = current.plusMonths(statsAccessLogConfig.getPrecreateMonths());
+        try {
+            for (YearMonth month = earliest; !month.isAfter(latest); month = month.plusMonths(1)) {
+                forEachBucket(month, linkAccessLogsPartitionMapper::createTableIfAbsent);
+            }
+            checkDataNodes(current);
+            YearMonth dropFrom = earliest.minusMonths(statsAccessLogConfig.getDropLookbackMonths());
+            for (YearMonth month = dropFrom; month.isBefore(earliest); month = month.plusMonths(1)) {
+                forEachBucket(month, linkAccessLogsPartitionMapper::dropTableIfExists);
+            }
+            log.info("访问日志分表维护完成，保留月份：{} ~ {}", earliest, latest);
+        } catch (Exception ex) {
+            log.error("访问日志分表维护失败", ex);
+        }
+    }
+
+    /**
+     * 校验保留期内与预建范围内的月份均可路由，实际表已创建后执行，分片数、月份范围需与分表算法及 actualDataNodes 配置一致
+     */
+    private void checkDataNodes(YearMonth current) {
+        YearMonth earliest = current.minusMonths(statsAccessLogConfig.getRetentionMonths() - 1L);
+        YearMonth latest = current.plusMonths(statsAccessLogConfig.getPrecreateMonths());
+        List<Date> createTimes = new ArrayList<>();
+        for (YearMonth month = earliest; !month.isAfter(latest); month = month.plusMonths(1)) {
+            createTimes.add(Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+        }
+        try {
+            linkAccessLogsPartitionMapper.probeRoute(createTimes);
+        } catch (Exception ex) {
+            throw new IllegalStateException("访问日志分表月份 " + earliest + " ~ " + latest + " 超出 ShardingSphere 分表配置范围，请调整 actualDataNodes", ex);
+        }
+    }
+
+    private void forEachBucket(YearMonth month, Consumer<String> action) {
+        for (int i = 0; i < statsAccessLogConfig.getShardingCount(); i++) {
+            action.accept(LinkAccessLogsShardingAlgorithm.actualTableName(month, i));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.dao.sharding;
+
+import cn.hutool.core.date.DateUtil;
+import com.google.common.collect.Range;
+import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingAlgorithm;
+import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingValue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 访问日志分表算法
+ * 按 create_time 所在月份与 gid 哈希定位实际表，表名为 t_link_access_logs_yyyyMM_分片号；
+ * 只路由到保留期内及预建范围内的月份，已按保留期删除的月份表不会被查询；
+ * 需要路由的实际表不在 actualDataNodes 配置范围内时直接抛出异常，避免写入或查询被静默丢弃
+ */
+public class LinkAccessLogsShardingAlgorithm implements ComplexKeysShardingAlgorithm<Comparable<?>> {
+
+    public static final String LOGIC_TABLE = "t_link_access_logs";
+
+    private static final String GID_COLUMN = "gid";
+    private static final String CREATE_TIME_COLUMN = "create_time";
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private int shardingCount;
+    private int retentionMonths;
+    private int precreateMonths;
+
+    @Override
+    public void init(Properties props) {
+        shardingCount = Integer.parseInt(props.getProperty("sharding-count", "2"));
+        retentionMonths = Integer.parseInt(props.getProperty("retention-months", "6"));
+        precreateMonths = Integer.parseInt(props.getProperty("precreate-months", "2"));
+    }
+
+    @Override
+    public Collection<String> doSharding(Collection<String> availableTargetNames, ComplexKeysShardingValue<Comparable<?>> shardingValue) {
+        YearMonth current = YearMonth.now();
+        YearMonth earliest = current.minusMonths(retentionMonths - 1L);
+        YearMonth latest = current.plusMonths(precreateMonths);
+
+        Set<YearMonth> months = new LinkedHashSet<>();
+        Collection<Comparable<?>> createTimes = shardingValue.getColumnNameAndShardingValuesMap().get(CREATE_TIME_COLUMN);
+        Range<Comparable<?>> createTimeRange = shardingValue.getColumnNameAndRangeValuesMap().get(CREATE_TIME_COLUMN);
+        if (createTimes != null && !createTimes.isEmpty()) {
+            createTimes.forEach(each -> months.add(toMonth(each)));
+        } else {
+            YearMonth from = createTimeRange != null && createTimeRange.hasLowerBound() ? max(toMonth(createTimeRange.lowerEndpoint()), earliest) : earliest;
+            YearMonth to = createTimeRange != null && createTimeRange.hasUpperBound() ? min(toMonth(createTimeRange.upperEndpoint()), latest) : latest;
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                months.add(month);
+            }
+        }
+
+        Set<Integer> buckets = new LinkedHashSet<>();
+        Collection<Comparable<?>> gids = shardingValue.getColumnNameAndShardingValuesMap().get(GID_COLUMN);
+        if (gids != null && !gids.isEmpty()) {
+            gids.forEach(each -> buckets.add(bucket(each.toString(), shardingCount)));
+        } else {
+            for (int i = 0; i < shardingCount; i++) {
+                buckets.add(i);
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        for (YearMonth month : months) {
+            for (Integer bucket : buckets) {
+                String tableName = actualTableName(month, bucket);
+                if (!availableTargetNames.contains(tableName)) {
+                    throw new IllegalStateException("访问日志实际表不在 actualDataNodes 配置范围内：" + tableName);
+                }
+                result.add(tableName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 实际表名
+     */
+    public static String actualTableName(YearMonth month, int bucket) {
+        return LOGIC_TABLE + "_" + month.format(MONTH_FORMATTER) + "_" + bucket;
+    }
+
+    /**
+     * 分组所在分片，与 HASH_MOD 分片算法一致
+     */
+    public static int bucket(String gid, int shardingCount) {
+        return Math.abs(gid.hashCode() % shardingCount);
+    }
+
+    private static YearMonth toMonth(Comparable<?> value) {
+        if (value instanceof Date date) {
+            return YearMonth.from(date.toInstant().atZone(ZoneId.systemDefault()));
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return YearMonth.from(localDateTime);
+        }
+        if (value instanceof LocalDate localDate) {
+            return YearMonth.from(localDate);
+        }
+        return YearMonth.from(DateUtil.parse(value.toString()).toLocalDateTime());
+    }
+
+    private static YearMonth max(YearMonth first, YearMonth second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static YearMonth min(YearMonth first, YearMonth second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -22,6 +22,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Date;
+
 /**
  * 短链接统计实体
 
@@ -37,11 +39,21 @@ public class ShortLinkStatsRecordDTO {
      */
     private String fullShortUrl;
 
+    /**
+     * 分组标识
+     */
+    private String gid;
+
     /**
      * 访问用户IP
      */
     private String remoteAddr;
 
+    /**
+     * 访问用户 User-Agent
+     */
+    private String userAgent;
+
     /**
      * 操作系统
      */
@@ -78,7 +90,12 @@ public class ShortLinkStatsRecordDTO {
     private Boolean uipFirstFlag;
 
     /**
-     * 消息队列唯一标识
+     * 消息队列唯一标识，消费时用于去重
      */
     private String keys;
+
+    /**
+     * 访问时间
+     */
+    private Date currentDate;
 }
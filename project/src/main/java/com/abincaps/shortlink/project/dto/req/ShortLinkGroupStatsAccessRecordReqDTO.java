@@ -42,4 +42,9 @@ public class ShortLinkGroupStatsAccessRecordReqDTO extends Page<LinkAccessLogsDO
      * 结束日期
      */
     private String endDate;
+
+    /**
+     * 游标分页标识，传入时启用游标分页且不统计总数，首页传空字符串，后续传上一页返回的 nextCursor
+     */
+    private String cursor;
 }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.dto.req;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.util.Date;
+
+/**
+ * 短链接流式导入请求参数，导入内容通过请求体上传
+ */
+@Data
+public class ShortLinkImportReqDTO {
+
+    /**
+     * 分组标识
+     */
+    private String gid;
+
+    /**
+     * 创建类型 0：接口创建 1：控制台创建
+     */
+    private Integer createdType;
+
+    /**
+     * 有效期类型 0：永久有效 1：自定义
+     */
+    private Integer validDateType;
+
+    /**
+     * 有效期
+     */
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date validDate;
+
+    /**
+     * 导入格式 csv：每行为原始链接、描述 ndjson：每行为包含 originUrl、describe 的 JSON 对象
+     */
+    private String format = "csv";
+
+    /**
+     * CSV 首行是否为表头
+     */
+    private Boolean containsHeader = false;
+}
@@ -21,6 +21,8 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkDO;
 import lombok.Data;
 
+import java.util.Date;
+
 /**
  * 短链接分页请求参数
 
@@ -37,4 +39,24 @@ public class ShortLinkPageReqDTO extends Page<ShortLinkDO> {
      * 排序标识
      */
     private String orderTag;
+
+    /**
+     * 游标分页标识，传入时启用游标分页且不统计总数，首页传空字符串，后续传上一页返回的 nextCursor
+     */
+    private String cursor;
+
+    /**
+     * 游标中的排序值，由 cursor 解析得到
+     */
+    private Long cursorValue;
+
+    /**
+     * 游标中的时间排序值，由 cursor 解析得到
+     */
+    private Date cursorTime;
+
+    /**
+     * 游标中的主键，由 cursor 解析得到
+     */
+    private Long cursorId;
 }
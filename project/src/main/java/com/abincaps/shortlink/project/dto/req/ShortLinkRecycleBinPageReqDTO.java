@@ -34,4 +34,9 @@ public class ShortLinkRecycleBinPageReqDTO extends Page<ShortLinkDO> {
      * 分组标识
      */
     private List<String> gidList;
+
+    /**
+     * 游标分页标识，传入时启用游标分页且不统计总数，首页传空字符串，后续传上一页返回的 nextCursor
+     */
+    private String cursor;
 }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.dto.resp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 短链接流式导入进度，每个分块提交后输出一行
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShortLinkImportProgressRespDTO {
+
+    /**
+     * 分块序号，从 1 开始，汇总行为 0
+     */
+    private Integer chunk;
+
+    /**
+     * 已读取行数
+     */
+    private Long processed;
+
+    /**
+     * 累计成功数量
+     */
+    private Long succeeded;
+
+    /**
+     * 累计失败数量
+     */
+    private Long failed;
+
+    /**
+     * 是否导入结束
+     */
+    private Boolean finished;
+
+    /**
+     * 当前分块失败原因
+     */
+    private String errorMessage;
+
+    /**
+     * 当前分块创建成功的短链接
+     */
+    private List<ShortLinkBaseInfoRespDTO> baseLinkInfos;
+}
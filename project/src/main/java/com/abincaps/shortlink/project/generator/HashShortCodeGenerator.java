@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.generator;
+
+import cn.hutool.core.lang.UUID;
+import cn.hutool.core.collection.CollUtil;
+import com.abincaps.shortlink.project.common.convention.exception.ServiceException;
+import com.abincaps.shortlink.project.dao.entity.ShortLinkGotoDO;
+import com.abincaps.shortlink.project.dao.mapper.ShortLinkGotoMapper;
+import com.abincaps.shortlink.project.toolkit.HashUtil;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RBloomFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于原始链接哈希的后缀生成器，通过布隆过滤器判断是否重复
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.code.generator", havingValue = "hash", matchIfMissing = true)
+public class HashShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int QUERY_BATCH_SIZE = 1000;
+
+    private final RBloomFilter<String> shortUriCreateCachePenetrationBloomFilter;
+    private final ShortLinkGotoMapper shortLinkGotoMapper;
+
+    @Override
+    public String generate(String domain, String originUrl) {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            String shorUri = HashUtil.hashToBase62(originUrl + UUID.randomUUID());
+
+            // 判断是否唯一
+            if (!shortUriCreateCachePenetrationBloomFilter.contains(domain + "/" + shorUri)) {
+                return shorUri;
+            }
+        }
+        throw new ServiceException("生成短链接频繁");
+    }
+
+    /**
+     * 批量生成时按批查询跳转表确认后缀未被占用，替代逐个查询布隆过滤器
+     */
+    @Override
+    public List<String> generateBatch(String domain, int count) {
+        Set<String> result = new LinkedHashSet<>(count * 2);
+        for (int i = 0; i < MAX_ATTEMPTS && result.size() < count; i++) {
+            Set<String> candidates = new LinkedHashSet<>();
+            while (candidates.size() < count - result.size()) {
+                String shortUri = HashUtil.hashToBase62(UUID.fastUUID().toString());
+                if (!result.contains(shortUri)) {
+                    candidates.add(shortUri);
+                }
+            }
+            candidates.removeAll(selectExisting(domain, candidates));
+            result.addAll(candidates);
+        }
+        if (result.size() < count) {
+            throw new ServiceException("生成短链接频繁");
+        }
+        return new ArrayList<>(result);
+    }
+
+    private Set<String> selectExisting(String domain, Set<String> shortUris) {
+        String prefix = domain + "/";
+        Set<String> existing = new LinkedHashSet<>();
+        for (List<String> each : CollUtil.split(shortUris, QUERY_BATCH_SIZE)) {
+            List<String> fullShortUrls = each.stream().map(shortUri -> prefix + shortUri).toList();
+            shortLinkGotoMapper.selectList(
+                    Wrappers.lambdaQuery(ShortLinkGotoDO.class)
+                            .select(ShortLinkGotoDO::getFullShortUrl)
+                            .in(ShortLinkGotoDO::getFullShortUrl, fullShortUrls)
+            ).forEach(shortLinkGotoDO -> existing.add(shortLinkGotoDO.getFullShortUrl().substring(prefix.length())));
+        }
+        return existing;
+    }
+}
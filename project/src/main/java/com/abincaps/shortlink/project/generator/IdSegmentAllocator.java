@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.generator;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.common.convention.exception.ServiceException;
+import com.abincaps.shortlink.project.config.ShortCodeConfig;
+import com.abincaps.shortlink.project.dao.mapper.LinkIdSegmentMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 号段发号器
+ * 每次从数据库号段记录中申请一段连续编号在本地发放，当前号段消耗到预取比例时异步申请下一号段，
+ * 号段切换时通常无需等待数据库；节点重启时未发放的编号直接丢弃，不会重复
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.code.generator", havingValue = "segment")
+public class IdSegmentAllocator implements InitializingBean, DisposableBean {
+
+    private final ShortCodeConfig shortCodeConfig;
+    private final LinkIdSegmentMapper linkIdSegmentMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService prefetchExecutor;
+
+    /**
+     * 当前号段，下一个待发放编号为 cursor，上限为 max（包含）
+     */
+    private long cursor;
+    private long max = -1L;
+
+    /**
+     * 预取中的下一号段
+     */
+    private CompletableFuture<long[]> nextSegment;
+
+    @Override
+    public void afterPropertiesSet() {
+        // 申请号段使用独立事务，不受创建短链接事务回滚影响
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        prefetchExecutor = Executors.newSingleThreadExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-id-segment-").setDaemon(true).build()
+        );
+        linkIdSegmentMapper.initIfAbsent(shortCodeConfig.getBizTag());
+    }
+
+    @Override
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * 发放下一个编号
+     */
+    public synchronized long nextId() {
+        if (cursor > max) {
+            switchSegment();
+        }
+        long id = cursor++;
+        int step = shortCodeConfig.getSegmentStep();
+        if (nextSegment == null && max - cursor < step * shortCodeConfig.getSegmentPrefetchRatio()) {
+            nextSegment = CompletableFuture.supplyAsync(this::loadSegment, prefetchExecutor);
+        }
+        return id;
+    }
+
+    private void switchSegment() {
+        long[] segment = null;
+        if (nextSegment != null) {
+            try {
+                segment = nextSegment.join();
+            } catch (Exception ex) {
+                log.warn("预取号段失败，改为同步申请", ex);
+            }
+            nextSegment = null;
+        }
+        if (segment == null) {
+            segment = loadSegment();
+        }
+        cursor = segment[0];
+        max = segment[1];
+    }
+
+    /**
+     * 申请号段
+     *
+     * @return 起始编号与结束编号（均包含）
+     */
+    private long[] loadSegment() {
+        String bizTag = shortCodeConfig.getBizTag();
+        int step = shortCodeConfig.getSegmentStep();
+        Long maxId = transactionTemplate.execute(status -> {
+            if (linkIdSegmentMapper.incrementMaxId(bizTag, step) == 0) {
+                return null;
+            }
+            return linkIdSegmentMapper.selectMaxId(bizTag);
+        });
+        if (maxId == null) {
+            throw new ServiceException(String.format("号段记录不存在：%s", bizTag));
+        }
+        log.info("申请号段：{}，范围：{}-{}", bizTag, maxId - step + 1, maxId);
+        return new long[]{maxId - step + 1, maxId};
+    }
+}
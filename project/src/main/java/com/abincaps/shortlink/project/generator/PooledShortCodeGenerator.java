@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.generator;
+
+import cn.hutool.core.lang.UUID;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.cache.GotoBloomFilterWriter;
+import com.abincaps.shortlink.project.config.ShortCodeConfig;
+import com.abincaps.shortlink.project.toolkit.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_CODE_RESERVE_KEY;
+
+/**
+ * 带本地后缀池的哈希后缀生成器
+ * 后台线程批量生成候选后缀，经布隆过滤器校验并在 Redis 中预留后放入本地池，创建短链接时直接从池中取出，
+ * 不再发起远程调用；池为空时回退到 {@link HashShortCodeGenerator} 同步生成
+ */
+@Slf4j
+@Primary
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${short-link.code.generator:hash}' == 'hash' && ${short-link.code.pool-enable:false}")
+public class PooledShortCodeGenerator implements ShortCodeGenerator, InitializingBean, DisposableBean {
+
+    private static final long REFILL_INTERVAL_MILLIS = 1000L;
+
+    private final ShortCodeConfig shortCodeConfig;
+    private final HashShortCodeGenerator hashShortCodeGenerator;
+    private final GotoBloomFilterWriter gotoBloomFilterWriter;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${short-link.domain}")
+    private String defaultDomain;
+
+    private BlockingQueue<PooledCode> pool;
+    private ScheduledExecutorService refillExecutor;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private String reserveOwner;
+    private Timer refillTimer;
+    private Counter missCounter;
+    private Counter expiredCounter;
+
+    @Override
+    public void afterPropertiesSet() {
+        pool = new ArrayBlockingQueue<>(shortCodeConfig.getPoolCapacity());
+        reserveOwner = ManagementFactory.getRuntimeMXBean().getName();
+        Gauge.builder("short-link.code.pool.depth", pool, BlockingQueue::size).register(meterRegistry);
+        refillTimer = meterRegistry.timer("short-link.code.pool.refill");
+        missCounter = meterRegistry.counter("short-link.code.pool.miss");
+        expiredCounter = meterRegistry.counter("short-link.code.pool.expired");
+        refillExecutor = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-code-pool-").setDaemon(true).build()
+        );
+        refillExecutor.scheduleWithFixedDelay(this::refill, 0L, REFILL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        refillExecutor.shutdownNow();
+    }
+
+    @Override
+    public String generate(String domain, String originUrl) {
+        if (Objects.equals(domain, defaultDomain)) {
+            long now = System.currentTimeMillis();
+            PooledCode pooledCode;
+            while ((pooledCode = pool.poll()) != null) {
+                if (pooledCode.reserveExpireAt() > now) {
+                    triggerRefillIfLow();
+                    return pooledCode.shortUri();
+                }
+                // 预留已过期，其他节点可能已生成相同后缀
+                expiredCounter.increment();
+            }
+            triggerRefillIfLow();
+        }
+        missCounter.increment();
+        return hashShortCodeGenerator.generate(domain, originUrl);
+    }
+
+    @Override
+    public List<String> generateBatch(String domain, int count) {
+        Set<String> result = new LinkedHashSet<>(count * 2);
+        if (Objects.equals(domain, defaultDomain)) {
+            long now = System.currentTimeMillis();
+            PooledCode pooledCode;
+            while (result.size() < count && (pooledCode = pool.poll()) != null) {
+                if (pooledCode.reserveExpireAt() > now) {
+                    result.add(pooledCode.shortUri());
+                } else {
+                    expiredCounter.increment();
+                }
+            }
+            triggerRefillIfLow();
+        }
+        if (result.size() < count) {
+            missCounter.increment(count - result.size());
+        }
+        // 池中后缀不足时由哈希生成补齐，重复的后缀跳过后继续补齐
+        while (result.size() < count) {
+            result.addAll(hashShortCodeGenerator.generateBatch(domain, count - result.size()));
+        }
+        return new ArrayList<>(result);
+    }
+
+    private void triggerRefillIfLow() {
+        if (pool.size() < shortCodeConfig.getPoolLowWaterMark() && !refilling.get()) {
+            refillExecutor.execute(this::refill);
+        }
+    }
+
+    /**
+     * 补充后缀池直到填满
+     */
+    private void refill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int batchSize = shortCodeConfig.getPoolRefillBatchSize();
+            while (pool.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                int count = Math.min(batchSize, pool.remainingCapacity());
+                long startNanos = System.nanoTime();
+                List<String> reserved = reserve(generateCandidates(count));
+                long reserveExpireAt = System.currentTimeMillis()
+                        + TimeUnit.SECONDS.toMillis(shortCodeConfig.getPoolReserveSeconds())
+                        - REFILL_INTERVAL_MILLIS;
+                for (String each : reserved) {
+                    if (!pool.offer(new PooledCode(each, reserveExpireAt))) {
+                        break;
+                    }
+                }
+                refillTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (Throwable ex) {
+            log.error("补充短链接后缀池失败", ex);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * 生成候选后缀，分段并行过滤布隆过滤器中已存在的后缀
+     */
+    private List<String> generateCandidates(int count) {
+        Set<String> candidates = new LinkedHashSet<>(count * 2);
+        while (candidates.size() < count) {
+            candidates.add(HashUtil.hashToBase62(UUID.fastUUID().toString()));
+        }
+        String prefix = defaultDomain + "/";
+        List<String> absent = gotoBloomFilterWriter.filterAbsent(candidates.stream().map(each -> prefix + each).toList());
+        return absent.stream().map(each -> each.substring(prefix.length())).toList();
+    }
+
+    /**
+     * 通过一次管道批量预留后缀，返回预留成功的后缀
+     */
+    private List<String> reserve(List<String> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Expiration expiration = Expiration.seconds(shortCodeConfig.getPoolReserveSeconds());
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (String each : candidates) {
+                stringRedisConnection.set(
+                        String.format(SHORT_LINK_CODE_RESERVE_KEY, defaultDomain + "/" + each),
+                        reserveOwner,
+                        expiration,
+                        RedisStringCommands.SetOption.ifAbsent()
+                );
+            }
+            return null;
+        });
+        List<String> reserved = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                reserved.add(candidates.get(i));
+            }
+        }
+        return reserved;
+    }
+
+    private record PooledCode(String shortUri, long reserveExpireAt) {
+    }
+}
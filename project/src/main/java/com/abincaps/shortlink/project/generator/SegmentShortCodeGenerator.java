@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.generator;
+
+import com.abincaps.shortlink.project.common.convention.exception.ServiceException;
+import com.abincaps.shortlink.project.config.ShortCodeConfig;
+import com.abincaps.shortlink.project.toolkit.ShuffledBase62;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于号段发号的后缀生成器
+ * 编号全局唯一，经打乱的定长 Base62 双射编码后同样唯一，生成时无需查询布隆过滤器
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.code.generator", havingValue = "segment")
+public class SegmentShortCodeGenerator implements ShortCodeGenerator, InitializingBean {
+
+    private final ShortCodeConfig shortCodeConfig;
+    private final IdSegmentAllocator idSegmentAllocator;
+
+    private ShuffledBase62 shuffledBase62;
+
+    @Override
+    public void afterPropertiesSet() {
+        shuffledBase62 = new ShuffledBase62(shortCodeConfig.getSecret(), shortCodeConfig.getCodeLength());
+    }
+
+    @Override
+    public String generate(String domain, String originUrl) {
+        long id = idSegmentAllocator.nextId();
+        if (id >= shuffledBase62.capacity()) {
+            throw new ServiceException("短链接编号已耗尽，请调大后缀长度");
+        }
+        return shuffledBase62.encode(id);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 短链接后缀生成器
+ */
+public interface ShortCodeGenerator {
+
+    /**
+     * 生成短链接后缀
+     *
+     * @param domain    短链接域名
+     * @param originUrl 原始链接
+     * @return 短链接后缀
+     */
+    String generate(String domain, String originUrl);
+
+    /**
+     * 批量生成互不相同的短链接后缀
+     *
+     * @param domain 短链接域名
+     * @param count  数量
+     * @return 短链接后缀集合
+     */
+    default List<String> generateBatch(String domain, int count) {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(generate(domain, null));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.locale;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.http.HttpUtil;
+import com.abincaps.shortlink.project.config.StatsLocaleConfig;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.abincaps.shortlink.project.common.constant.ShortLinkConstant.AMAP_REMOTE_URL;
+
+/**
+ * 基于高德 IP 定位接口的地区解析器，每次解析发起一次远程调用，仅在可访问公网的环境中使用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.stats.locale.type", havingValue = "amap", matchIfMissing = true)
+public class AmapIpLocaleResolver implements IpLocaleResolver {
+
+    private final StatsLocaleConfig statsLocaleConfig;
+
+    @Override
+    public IpLocale resolve(String ip) {
+        try {
+            Map<String, Object> localeParamMap = new HashMap<>();
+            localeParamMap.put("key", statsLocaleConfig.getAmapKey());
+            localeParamMap.put("ip", ip);
+            JSONObject localeResultObj = JSON.parseObject(HttpUtil.get(AMAP_REMOTE_URL, localeParamMap));
+            if (StrUtil.equals(localeResultObj.getString("infocode"), "10000")) {
+                String province = localeResultObj.getString("province");
+                if (!StrUtil.equals(province, "[]")) {
+                    return new IpLocale("中国", province, localeResultObj.getString("city"), localeResultObj.getString("adcode"));
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("查询 IP 所属地区失败：{}", ip, ex);
+        }
+        return IpLocale.UNKNOWN;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.locale;
+
+/**
+ * IP 所属地区
+ *
+ * @param country  国家
+ * @param province 省份
+ * @param city     城市
+ * @param adcode   行政区划代码
+ */
+public record IpLocale(String country, String province, String city, String adcode) {
+
+    /**
+     * 无法识别的地区
+     */
+    public static final IpLocale UNKNOWN = new IpLocale("中国", "未知", "未知", "未知");
+}
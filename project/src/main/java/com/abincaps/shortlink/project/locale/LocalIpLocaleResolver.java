@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.locale;
+
+import com.abincaps.shortlink.project.config.StatsLocaleConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于本地 IP 段库的地区解析器
+ * IP 段按起始地址排序后存放在基本类型数组中，通过二分查找定位；库文件变更后在后台重新加载并整体替换，
+ * 最近解析过的 IP 缓存在有界本地缓存中；库文件不存在时回退到高德 IP 定位接口，加载成功后切换为本地库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.stats.locale.type", havingValue = "local")
+public class LocalIpLocaleResolver implements IpLocaleResolver, InitializingBean {
+
+    private static final int FIELD_COUNT = 6;
+
+    private final StatsLocaleConfig statsLocaleConfig;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, IpLocale> cache;
+    private IpLocaleResolver fallbackResolver;
+    private volatile IpRangeTable table = IpRangeTable.EMPTY;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(statsLocaleConfig.getCacheMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "short-link-ip-locale");
+        fallbackResolver = new AmapIpLocaleResolver(statsLocaleConfig);
+        Gauge.builder("short-link.stats.locale.ranges", this, each -> each.table.size()).register(meterRegistry);
+        reloadIfModified();
+    }
+
+    @Override
+    public IpLocale resolve(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return IpLocale.UNKNOWN;
+        }
+        IpRangeTable current = table;
+        if (current == IpRangeTable.EMPTY) {
+            return cache.get(ip, fallbackResolver::resolve);
+        }
+        return cache.get(ip, key -> current.lookup(parseIpv4(key)));
+    }
+
+    /**
+     * 库文件修改时间或大小变化时重新加载，加载失败保留当前数据
+     */
+    @Scheduled(
+            initialDelayString = "${short-link.stats.locale.reload-interval-millis:60000}",
+            fixedDelayString = "${short-link.stats.locale.reload-interval-millis:60000}"
+    )
+    public void reloadIfModified() {
+        Path path = Paths.get(statsLocaleConfig.getDatabasePath());
+        try {
+            if (!Files.isRegularFile(path)) {
+                if (table == IpRangeTable.EMPTY) {
+                    log.warn("本地 IP 段库不存在，回退到高德 IP 定位接口：{}", path.toAbsolutePath());
+                }
+                return;
+            }
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            long size = Files.size(path);
+            IpRangeTable current = table;
+            if (current.lastModified() == lastModified && current.fileSize() == size) {
+                return;
+            }
+            IpRangeTable loaded = load(path, lastModified, size);
+            table = loaded;
+            cache.invalidateAll();
+            log.info("本地 IP 段库加载完成，IP 段数量：{}", loaded.size());
+        } catch (Exception ex) {
+            log.error("本地 IP 段库加载失败：{}", path.toAbsolutePath(), ex);
+        }
+    }
+
+    private IpRangeTable load(Path path, long lastModified, long size) throws IOException {
+        List<IpRange> ranges = new ArrayList<>();
+        // 相同地区共用一个实例
+        Map<IpLocale, IpLocale> localePool = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                long start = fields.length == FIELD_COUNT ? parseAddress(fields[0].trim()) : -1L;
+                long end = fields.length == FIELD_COUNT ? parseAddress(fields[1].trim()) : -1L;
+                if (start < 0 || end < start) {
+                    log.warn("本地 IP 段库第 {} 行格式错误，已忽略：{}", lineNumber, line);
+                    continue;
+                }
+                IpLocale locale = new IpLocale(fields[2].trim(), fields[3].trim(), fields[4].trim(), fields[5].trim());
+                ranges.add(new IpRange(start, end, localePool.computeIfAbsent(locale, each -> each)));
+            }
+        }
+        ranges.sort(Comparator.comparingLong(IpRange::start));
+
+        long[] starts = new long[ranges.size()];
+        long[] ends = new long[ranges.size()];
+        IpLocale[] locales = new IpLocale[ranges.size()];
+        int count = 0;
+        for (IpRange each : ranges) {
+            if (count > 0 && each.start() <= ends[count - 1]) {
+                log.warn("本地 IP 段库存在重叠 IP 段，已忽略：{}-{}", each.start(), each.end());
+                continue;
+            }
+            starts[count] = each.start();
+            ends[count] = each.end();
+            locales[count] = each.locale();
+            count++;
+        }
+        return new IpRangeTable(count, starts, ends, locales, lastModified, size);
+    }
+
+    /**
+     * 解析库文件中的地址，支持点分十进制与整数两种写法
+     */
+    private static long parseAddress(String address) {
+        if (address.indexOf('.') >= 0) {
+            return parseIpv4(address);
+        }
+        try {
+            long value = Long.parseLong(address);
+            return value <= 0xFFFFFFFFL ? value : -1L;
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    /**
+     * 将点分十进制 IPv4 地址转换为整数，多个地址以逗号分隔时取第一个，非 IPv4 地址返回 -1
+     */
+    static long parseIpv4(String ip) {
+        long result = 0L;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0, length = ip.length(); i < length; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1L;
+                }
+            } else if (c == '.') {
+                if (octet < 0 || dots == 3) {
+                    return -1L;
+                }
+                result = result << 8 | octet;
+                octet = -1;
+                dots++;
+            } else if (c == ',' || (c == ' ' && dots == 3 && octet >= 0)) {
+                break;
+            } else if (c != ' ' || dots > 0 || octet >= 0) {
+                // 仅允许地址前的空格
+                return -1L;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return -1L;
+        }
+        return result << 8 | octet;
+    }
+
+    private record IpRange(long start, long end, IpLocale locale) {
+    }
+
+    /**
+     * 只读 IP 段表，重新加载时整体替换
+     */
+    private record IpRangeTable(int size, long[] starts, long[] ends, IpLocale[] locales, long lastModified, long fileSize) {
+
+        static final IpRangeTable EMPTY = new IpRangeTable(0, new long[0], new long[0], new IpLocale[0], -1L, -1L);
+
+        IpLocale lookup(long ip) {
+            if (ip < 0) {
+                return IpLocale.UNKNOWN;
+            }
+            // 查找起始地址不大于目标地址的最后一个 IP 段
+            int low = 0;
+            int high = size - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= ip) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (found < 0 || ip > ends[found]) {
+                return IpLocale.UNKNOWN;
+            }
+            return locales[found];
+        }
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.mq.consumer;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.StrUtil;
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.config.StatsStreamConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+import com.abincaps.shortlink.project.dao.entity.ShortLinkGotoDO;
+import com.abincaps.shortlink.project.dao.mapper.ShortLinkGotoMapper;
+import com.abincaps.shortlink.project.dto.biz.ShortLinkStatsRecordDTO;
+import com.abincaps.shortlink.project.locale.IpLocale;
+import com.abincaps.shortlink.project.locale.IpLocaleResolver;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsFlusher;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsWindow;
+import com.abincaps.shortlink.project.stats.StatsEventDeduplicator;
+import com.abincaps.shortlink.project.toolkit.LinkUtil;
+import com.abincaps.shortlink.project.toolkit.UserAgentParser;
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.GOTO_LOCAL_CACHE_INVALIDATE_TOPIC;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_STREAM_DEAD_LETTER_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_STREAM_GROUP_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_STREAM_TOPIC_KEY;
+
+/**
+ * 短链接访问统计消费者
+ * 以消费者组方式读取 Redis Stream，合并到线程独占的聚合窗口，窗口落库成功后再确认消息；
+ * 定期转移失效消费者长时间未确认的消息，保证节点宕机时统计不丢失；多次投递仍无法落库的消息转入死信队列
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsSaveConsumer implements SmartLifecycle {
+
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final StatsStreamConfig statsStreamConfig;
+    private final ShortLinkStatsFlusher shortLinkStatsFlusher;
+    private final StatsEventDeduplicator statsEventDeduplicator;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ShortLinkGotoMapper shortLinkGotoMapper;
+    private final IpLocaleResolver ipLocaleResolver;
+    private final RedissonClient redissonClient;
+
+    /**
+     * 完整短链接与分组标识映射，跳转时不查询分组，由消费者补齐
+     * 短链接变更分组时随跳转缓存失效广播一并剔除
+     */
+    private final Cache<String, String> gidCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    private final AtomicLong streamLength = new AtomicLong();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${short-link.domain}")
+    private String defaultDomain;
+
+    private ExecutorService consumerExecutor;
+    private Counter persistedCounter;
+    private Counter failedCounter;
+    private Counter reclaimedCounter;
+    private Counter duplicateCounter;
+    private Counter deadLetterCounter;
+    private volatile boolean running;
+    private int gidInvalidateListenerId;
+
+    @Override
+    public void start() {
+        gidInvalidateListenerId = redissonClient.getTopic(GOTO_LOCAL_CACHE_INVALIDATE_TOPIC, StringCodec.INSTANCE)
+                .addListener(String.class, (channel, message) -> StrUtil.split(message, ',').forEach(each -> gidCache.invalidate(defaultDomain + "/" + each)));
+        persistedCounter = meterRegistry.counter("short-link.stats.persisted");
+        failedCounter = meterRegistry.counter("short-link.stats.persist.failed");
+        reclaimedCounter = meterRegistry.counter("short-link.stats.stream.reclaimed");
+        duplicateCounter = meterRegistry.counter("short-link.stats.stream.duplicate");
+        deadLetterCounter = meterRegistry.counter("short-link.stats.stream.dead-letter");
+        Gauge.builder("short-link.stats.stream.length", streamLength, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("short-link.stats.stream.pending", pendingCount, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("short-link.stats.stream.lag", lagMillis, AtomicLong::get).baseUnit("milliseconds").register(meterRegistry);
+        createGroupIfAbsent();
+        running = true;
+        int consumerThreads = statsStreamConfig.getConsumerThreads();
+        consumerExecutor = Executors.newFixedThreadPool(
+                consumerThreads,
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-stats-consumer-").setDaemon(true).build()
+        );
+        String consumerPrefix = applicationName + "-" + ManagementFactory.getRuntimeMXBean().getName() + "-";
+        for (int i = 0; i < consumerThreads; i++) {
+            Consumer consumer = Consumer.from(SHORT_LINK_STATS_STREAM_GROUP_KEY, consumerPrefix + i);
+            consumerExecutor.execute(() -> runConsumer(consumer));
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        redissonClient.getTopic(GOTO_LOCAL_CACHE_INVALIDATE_TOPIC, StringCodec.INSTANCE).removeListener(gidInvalidateListenerId);
+        consumerExecutor.shutdown();
+        try {
+            if (!consumerExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("短链接统计消费者线程未能在超时时间内退出");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 晚于生产者停止，确保生产者排空的消息已写入 Stream
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    private void createGroupIfAbsent() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands().xGroupCreate(
+                    RedisSerializer.string().serialize(SHORT_LINK_STATS_STREAM_TOPIC_KEY),
+                    SHORT_LINK_STATS_STREAM_GROUP_KEY,
+                    ReadOffset.from("0-0"),
+                    true
+            ));
+        } catch (DataAccessException ex) {
+            // 消费者组已存在
+            if (!StrUtil.contains(ex.getMessage(), "BUSYGROUP")) {
+                throw ex;
+            }
+        }
+    }
+
+    private void runConsumer(Consumer consumer) {
+        StreamReadOptions readOptions = StreamReadOptions.empty()
+                .count(statsStreamConfig.getReadCount())
+                .block(Duration.ofMillis(statsStreamConfig.getBlockMillis()));
+        StreamOffset<String> streamOffset = StreamOffset.create(SHORT_LINK_STATS_STREAM_TOPIC_KEY, ReadOffset.lastConsumed());
+        long windowMillis = TimeUnit.SECONDS.toMillis(statsPipelineConfig.getWindowSeconds());
+        long reclaimIntervalMillis = TimeUnit.SECONDS.toMillis(statsStreamConfig.getReclaimIntervalSeconds());
+        long lastReclaimMillis = System.currentTimeMillis();
+        ConsumedWindow consumedWindow = new ConsumedWindow();
+        while (running) {
+            try {
+                List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(consumer, readOptions, streamOffset);
+                addToWindow(consumedWindow, records, false);
+                if (System.currentTimeMillis() - lastReclaimMillis >= reclaimIntervalMillis) {
+                    flushReclaimed(reclaim(consumer));
+                    lastReclaimMillis = System.currentTimeMillis();
+                }
+                ShortLinkStatsWindow window = consumedWindow.window;
+                if (!consumedWindow.recordIds.isEmpty() && (window.keyCount() >= statsPipelineConfig.getWindowMaxKeys()
+                        || window.getAccessLogs().size() >= statsPipelineConfig.getWindowMaxAccessLogs()
+                        || System.currentTimeMillis() - window.getOpenedAtMillis() >= windowMillis)) {
+                    flushAndAcknowledge(consumedWindow);
+                }
+            } catch (Throwable ex) {
+                log.error("短链接统计消息消费异常", ex);
+            }
+        }
+        // 停止前落库已读取的消息，未读取的消息由其它节点或重启后继续消费
+        if (!consumedWindow.recordIds.isEmpty()) {
+            flushAndAcknowledge(consumedWindow);
+        }
+    }
+
+    /**
+     * 转移失效消费者长时间未确认的消息到当前消费者
+     * 按消息标识分页扫描待确认列表，直到收集到足够的空闲消息或扫描完毕；投递次数达到上限的消息转入死信队列并确认，不再转移
+     */
+    private List<MapRecord<String, Object, Object>> reclaim(Consumer consumer) {
+        Duration minIdle = Duration.ofSeconds(statsStreamConfig.getReclaimMinIdleSeconds());
+        int reclaimCount = statsStreamConfig.getReclaimCount();
+        List<RecordId> idleRecordIds = new ArrayList<>();
+        List<RecordId> deadRecordIds = new ArrayList<>();
+        String lastId = null;
+        while (idleRecordIds.size() + deadRecordIds.size() < reclaimCount) {
+            // 起始标识为闭区间，跳过上一页的最后一条
+            Range<String> range = lastId == null ? Range.unbounded() : Range.of(Range.Bound.inclusive(lastId), Range.Bound.unbounded());
+            PendingMessages pendingMessages = stringRedisTemplate.opsForStream().pending(
+                    SHORT_LINK_STATS_STREAM_TOPIC_KEY,
+                    SHORT_LINK_STATS_STREAM_GROUP_KEY,
+                    range,
+                    reclaimCount
+            );
+            for (PendingMessage each : pendingMessages) {
+                if (each.getIdAsString().equals(lastId) || each.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) {
+                    continue;
+                }
+                if (each.getTotalDeliveryCount() >= statsStreamConfig.getMaxDeliveryCount()) {
+                    deadRecordIds.add(each.getId());
+                } else {
+                    idleRecordIds.add(each.getId());
+                }
+                if (idleRecordIds.size() + deadRecordIds.size() >= reclaimCount) {
+                    break;
+                }
+            }
+            if (pendingMessages.size() < reclaimCount) {
+                break;
+            }
+            lastId = pendingMessages.get(pendingMessages.size() - 1).getIdAsString();
+        }
+        deadLetter(deadRecordIds);
+        if (idleRecordIds.isEmpty()) {
+            return List.of();
+        }
+        List<MapRecord<String, Object, Object>> claimed = stringRedisTemplate.opsForStream().claim(
+                SHORT_LINK_STATS_STREAM_TOPIC_KEY,
+                SHORT_LINK_STATS_STREAM_GROUP_KEY,
+                consumer.getName(),
+                minIdle,
+                idleRecordIds.toArray(RecordId[]::new)
+        );
+        reclaimedCounter.increment(claimed.size());
+        return claimed;
+    }
+
+    /**
+     * 将消息复制到死信队列后确认，消息已被裁剪时直接确认
+     */
+    private void deadLetter(List<RecordId> recordIds) {
+        if (recordIds.isEmpty()) {
+            return;
+        }
+        for (RecordId each : recordIds) {
+            stringRedisTemplate.opsForStream().range(SHORT_LINK_STATS_STREAM_TOPIC_KEY, Range.closed(each.getValue(), each.getValue())).forEach(record -> {
+                Map<Object, Object> deadLetterMap = new HashMap<>(record.getValue());
+                deadLetterMap.put("originId", record.getId().getValue());
+                stringRedisTemplate.opsForStream().add(StreamRecords.newRecord().in(SHORT_LINK_STATS_STREAM_DEAD_LETTER_KEY).ofMap(deadLetterMap));
+            });
+            log.error("短链接统计消息投递次数达到上限，已转入死信队列：{}", each);
+        }
+        stringRedisTemplate.opsForStream().acknowledge(SHORT_LINK_STATS_STREAM_TOPIC_KEY, SHORT_LINK_STATS_STREAM_GROUP_KEY, recordIds.toArray(RecordId[]::new));
+        stringRedisTemplate.opsForStream().trim(SHORT_LINK_STATS_STREAM_DEAD_LETTER_KEY, statsStreamConfig.getDeadLetterMaxLength(), true);
+        deadLetterCounter.increment(recordIds.size());
+    }
+
+    /**
+     * 转移的消息可能已落库，去重后单独落库，不与新读取的消息合并；整体落库失败时逐条落库，
+     * 无法落库的消息只影响自身，投递次数达到上限后转入死信队列
+     */
+    private void flushReclaimed(List<MapRecord<String, Object, Object>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        ConsumedWindow reclaimedWindow = new ConsumedWindow();
+        addToWindow(reclaimedWindow, records, true);
+        if (flushAndAcknowledge(reclaimedWindow) || records.size() == 1) {
+            return;
+        }
+        for (MapRecord<String, Object, Object> each : records) {
+            ConsumedWindow singleWindow = new ConsumedWindow();
+            addToWindow(singleWindow, List.of(each), true);
+            flushAndAcknowledge(singleWindow);
+        }
+    }
+
+    private void addToWindow(ConsumedWindow consumedWindow, List<MapRecord<String, Object, Object>> records, boolean redelivered) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        List<ShortLinkStatsRecordDTO> statsRecords = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> each : records) {
+            consumedWindow.recordIds.add(each.getId());
+            try {
+                Map<Object, Object> producerMap = each.getValue();
+                statsRecords.add(JSON.parseObject((String) producerMap.get("statsRecord"), ShortLinkStatsRecordDTO.class));
+            } catch (Throwable ex) {
+                // 无法解析的消息直接确认，避免反复投递
+                failedCounter.increment();
+                log.error("短链接统计消息解析失败：{}", each.getId(), ex);
+            }
+        }
+        Set<String> processed = redelivered
+                ? statsEventDeduplicator.findProcessed(statsRecords.stream().map(ShortLinkStatsRecordDTO::getKeys).filter(Objects::nonNull).toList())
+                : Set.of();
+        for (ShortLinkStatsRecordDTO each : statsRecords) {
+            String eventId = each.getKeys();
+            // 跳过已落库及窗口内重复的事件
+            if (eventId != null && (processed.contains(eventId) || !consumedWindow.eventIds.add(eventId))) {
+                duplicateCounter.increment();
+                continue;
+            }
+            try {
+                addToWindow(consumedWindow.window, each);
+            } catch (Throwable ex) {
+                failedCounter.increment();
+                log.error("短链接统计消息处理失败：{}", each.getFullShortUrl(), ex);
+            }
+        }
+    }
+
+    /**
+     * 落库窗口并确认消息
+     *
+     * @return 是否落库成功
+     */
+    private boolean flushAndAcknowledge(ConsumedWindow consumedWindow) {
+        ShortLinkStatsWindow window = consumedWindow.window;
+        int recordCount = window.getRecordCount();
+        try {
+            shortLinkStatsFlusher.flush(window);
+            persistedCounter.increment(recordCount);
+        } catch (Throwable ex) {
+            // 落库失败不确认消息，空闲超时后由消费者组重新转移处理
+            failedCounter.increment(recordCount);
+            log.error("短链接统计窗口落库失败，{} 条消息待重新投递", consumedWindow.recordIds.size(), ex);
+            consumedWindow.clear();
+            return false;
+        }
+        try {
+            // 先记录已落库事件再确认，确认失败被重新投递时可据此去重
+            String bucketKey = statsEventDeduplicator.markProcessed(consumedWindow.eventIds);
+            String[] eventIds = consumedWindow.eventIds.toArray(String[]::new);
+            RecordId[] recordIds = consumedWindow.recordIds.toArray(RecordId[]::new);
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                stringRedisConnection.xAck(SHORT_LINK_STATS_STREAM_TOPIC_KEY, SHORT_LINK_STATS_STREAM_GROUP_KEY, recordIds);
+                // 确认后事件不会再被投递，移除去重标识控制集合大小
+                if (eventIds.length > 0) {
+                    stringRedisConnection.sRem(bucketKey, eventIds);
+                }
+                return null;
+            });
+        } catch (Throwable ex) {
+            log.error("短链接统计消息确认失败，{} 条消息将被重新投递并去重", consumedWindow.recordIds.size(), ex);
+        } finally {
+            consumedWindow.clear();
+        }
+        return true;
+    }
+
+    /**
+     * 消费者线程独占的聚合窗口，以及窗口内包含的消息标识和事件标识
+     */
+    private static class ConsumedWindow {
+
+        private final ShortLinkStatsWindow window = new ShortLinkStatsWindow();
+        private final List<RecordId> recordIds = new ArrayList<>();
+        private final Set<String> eventIds = new HashSet<>();
+
+        private void clear() {
+            window.clear();
+            recordIds.clear();
+            eventIds.clear();
+        }
+    }
+
+    /**
+     * 刷新 Stream 长度、待确认数量及消费延迟指标
+     * 消费延迟为最新消息与消费者组最后投递消息之间的时间差
+     */
+    @Scheduled(fixedDelay = 10000L)
+    public void refreshLagMetrics() {
+        try {
+            StreamInfo.XInfoStream streamInfo = stringRedisTemplate.opsForStream().info(SHORT_LINK_STATS_STREAM_TOPIC_KEY);
+            streamLength.set(streamInfo.streamLength());
+            stringRedisTemplate.opsForStream().groups(SHORT_LINK_STATS_STREAM_TOPIC_KEY).stream()
+                    .filter(each -> SHORT_LINK_STATS_STREAM_GROUP_KEY.equals(each.groupName()))
+                    .findFirst()
+                    .ifPresent(each -> {
+                        pendingCount.set(each.pendingCount());
+                        long lastGenerated = RecordId.of(streamInfo.lastGeneratedId()).getTimestamp();
+                        long lastDelivered = RecordId.of(each.lastDeliveredId()).getTimestamp();
+                        lagMillis.set(Math.max(0L, lastGenerated - lastDelivered));
+                    });
+        } catch (Throwable ex) {
+            log.warn("刷新短链接统计 Stream 指标失败", ex);
+        }
+    }
+
+    /**
+     * 计算单条统计记录的全部维度并合并到聚合窗口
+     */
+    private void addToWindow(ShortLinkStatsWindow window, ShortLinkStatsRecordDTO statsRecord) {
+        String fullShortUrl = statsRecord.getFullShortUrl();
+        String gid = Optional.ofNullable(statsRecord.getGid()).orElseGet(() -> resolveGid(fullShortUrl));
+        if (gid == null) {
+            // 短链接已被删除
+            return;
+        }
+        enrichStatsRecord(statsRecord);
+
+        IpLocale locale = ipLocaleResolver.resolve(statsRecord.getRemoteAddr());
+        LinkAccessLogsDO linkAccessLogsDO = LinkAccessLogsDO.builder()
+                .user(statsRecord.getUv())
+                .ip(statsRecord.getRemoteAddr())
+                .browser(statsRecord.getBrowser())
+                .os(statsRecord.getOs())
+                .network(statsRecord.getNetwork())
+                .device(statsRecord.getDevice())
+                .locale(StrUtil.join("-", locale.country(), locale.province(), locale.city()))
+                .gid(gid)
+                .fullShortUrl(fullShortUrl)
+                .build();
+        window.add(linkAccessLogsDO, locale, statsRecord.getCurrentDate());
+    }
+
+    /**
+     * 补齐跳转线程未计算的统计维度
+     */
+    private void enrichStatsRecord(ShortLinkStatsRecordDTO statsRecord) {
+        String userAgent = statsRecord.getUserAgent();
+        UserAgentParser.UserAgentInfo userAgentInfo = UserAgentParser.parse(userAgent);
+        statsRecord.setOs(userAgentInfo.os().getName());
+        statsRecord.setBrowser(userAgentInfo.browser().getName());
+        statsRecord.setDevice(userAgent == null ? "Unknown" : userAgentInfo.device().getName());
+        statsRecord.setNetwork(LinkUtil.getNetwork(statsRecord.getRemoteAddr()));
+    }
+
+    private String resolveGid(String fullShortUrl) {
+        return gidCache.get(fullShortUrl, key -> {
+            ShortLinkGotoDO shortLinkGotoDO = shortLinkGotoMapper.selectOne(
+                    Wrappers.lambdaQuery(ShortLinkGotoDO.class).eq(ShortLinkGotoDO::getFullShortUrl, key)
+            );
+            return shortLinkGotoDO == null ? null : shortLinkGotoDO.getGid();
+        });
+    }
+}
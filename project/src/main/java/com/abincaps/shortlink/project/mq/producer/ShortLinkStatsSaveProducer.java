@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.mq.producer;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.config.StatsStreamConfig;
+import com.abincaps.shortlink.project.dto.biz.ShortLinkStatsRecordDTO;
+import com.abincaps.shortlink.project.mq.queue.ShortLinkStatsQueue;
+import com.alibaba.fastjson2.JSON;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.connection.stream.StringRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_STREAM_TOPIC_KEY;
+
+/**
+ * 短链接访问统计消息生产者
+ * 后台线程批量取出缓冲队列中的统计记录，通过管道一次往返写入 Redis Stream，
+ * 写入失败时按指数退避重试，重试耗尽后才丢弃并计入丢弃指标
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsSaveProducer implements SmartLifecycle {
+
+    private final ShortLinkStatsQueue shortLinkStatsQueue;
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final StatsStreamConfig statsStreamConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private ExecutorService workerExecutor;
+    private Counter producedCounter;
+    private Counter failedCounter;
+    private Counter droppedCounter;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        producedCounter = meterRegistry.counter("short-link.stats.stream.produced");
+        failedCounter = meterRegistry.counter("short-link.stats.stream.produce.failed");
+        droppedCounter = meterRegistry.counter("short-link.stats.stream.produce.dropped");
+        running = true;
+        int workerThreads = statsPipelineConfig.getWorkerThreads();
+        workerExecutor = Executors.newFixedThreadPool(
+                workerThreads,
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-stats-producer-").setDaemon(true).build()
+        );
+        for (int i = 0; i < workerThreads; i++) {
+            workerExecutor.execute(this::runWorker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workerExecutor.shutdown();
+        try {
+            if (!workerExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("短链接统计生产者线程未能在超时时间内退出");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWorker() {
+        int batchSize = statsPipelineConfig.getBatchSize();
+        long idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(statsPipelineConfig.getIdleWaitMillis());
+        List<ShortLinkStatsRecordDTO> batch = new ArrayList<>(batchSize);
+        while (true) {
+            if (shortLinkStatsQueue.drainTo(batch, batchSize) == 0) {
+                // 停止后排空缓冲区再退出
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleWaitNanos);
+                continue;
+            }
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 批量发送统计消息，失败时按指数退避重试
+     *
+     * @param statsRecords 短链接统计实体集合
+     */
+    public void send(List<ShortLinkStatsRecordDTO> statsRecords) {
+        int retryTimes = statsStreamConfig.getProduceRetryTimes();
+        long backoffMillis = statsStreamConfig.getProduceRetryBackoffMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                xAdd(statsRecords);
+                producedCounter.increment(statsRecords.size());
+                return;
+            } catch (Throwable ex) {
+                failedCounter.increment(statsRecords.size());
+                if (attempt >= retryTimes) {
+                    droppedCounter.increment(statsRecords.size());
+                    log.error("短链接统计消息发送失败，重试 {} 次后丢弃 {} 条记录", retryTimes, statsRecords.size(), ex);
+                    return;
+                }
+                log.warn("短链接统计消息发送失败，第 {} 次重试，记录数：{}", attempt + 1, statsRecords.size(), ex);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis << attempt));
+            }
+        }
+    }
+
+    private void xAdd(List<ShortLinkStatsRecordDTO> statsRecords) {
+        XAddOptions xAddOptions = XAddOptions.maxlen(statsStreamConfig.getMaxLength()).approximateTrimming(true);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (ShortLinkStatsRecordDTO each : statsRecords) {
+                Map<String, String> producerMap = new HashMap<>();
+                producerMap.put("fullShortUrl", each.getFullShortUrl());
+                producerMap.put("statsRecord", JSON.toJSONString(each));
+                StringRecord record = StreamRecords.string(producerMap).withStreamKey(SHORT_LINK_STATS_STREAM_TOPIC_KEY);
+                stringRedisConnection.xAdd(record, xAddOptions);
+            }
+            return null;
+        });
+    }
+}
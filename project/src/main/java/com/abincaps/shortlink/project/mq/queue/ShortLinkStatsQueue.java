@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.mq.queue;
+
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.dto.biz.ShortLinkStatsRecordDTO;
+import com.abincaps.shortlink.project.toolkit.BoundedRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 短链接访问统计缓冲队列
+ * 跳转线程只负责入队，缓冲区写满后按配置短暂等待，超时即丢弃并计数，保证跳转延迟不受统计落库影响
+ */
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsQueue implements InitializingBean {
+
+    private static final long OFFER_RETRY_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final MeterRegistry meterRegistry;
+
+    private BoundedRingBuffer<ShortLinkStatsRecordDTO> ringBuffer;
+    private Counter enqueuedCounter;
+    private Counter droppedCounter;
+
+    @Override
+    public void afterPropertiesSet() {
+        ringBuffer = new BoundedRingBuffer<>(statsPipelineConfig.getBufferCapacity());
+        enqueuedCounter = meterRegistry.counter("short-link.stats.queue.enqueued");
+        droppedCounter = meterRegistry.counter("short-link.stats.queue.dropped");
+        Gauge.builder("short-link.stats.queue.size", ringBuffer, BoundedRingBuffer::size).register(meterRegistry);
+        Gauge.builder("short-link.stats.queue.capacity", ringBuffer, BoundedRingBuffer::capacity).register(meterRegistry);
+    }
+
+    /**
+     * 统计记录入队
+     *
+     * @param statsRecord 短链接统计实体
+     * @return 入队失败（已丢弃）返回 false
+     */
+    public boolean offer(ShortLinkStatsRecordDTO statsRecord) {
+        if (ringBuffer.offer(statsRecord)) {
+            enqueuedCounter.increment();
+            return true;
+        }
+        // 背压：缓冲区已满时在超时时间内重试
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(statsPipelineConfig.getOfferTimeoutMillis());
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(OFFER_RETRY_INTERVAL_NANOS);
+            if (ringBuffer.offer(statsRecord)) {
+                enqueuedCounter.increment();
+                return true;
+            }
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    /**
+     * 批量取出统计记录
+     *
+     * @param target      目标集合
+     * @param maxElements 最多取出数量
+     * @return 实际取出数量
+     */
+    public int drainTo(Collection<ShortLinkStatsRecordDTO> target, int maxElements) {
+        return ringBuffer.drainTo(target, maxElements);
+    }
+}
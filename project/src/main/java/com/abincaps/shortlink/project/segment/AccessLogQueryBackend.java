@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.segment;
+
+import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 访问日志统计查询来源，返回结构与访问日志持久层对应查询一致
+ */
+public interface AccessLogQueryBackend {
+
+    /**
+     * 根据短链接获取指定日期内高频访问IP数据
+     */
+    List<HashMap<String, Object>> listTopIpByShortLink(ShortLinkStatsReqDTO requestParam);
+
+    /**
+     * 根据分组获取指定日期内高频访问IP数据
+     */
+    List<HashMap<String, Object>> listTopIpByGroup(ShortLinkGroupStatsReqDTO requestParam);
+
+    /**
+     * 根据短链接获取指定日期内PV、UV、UIP数据
+     */
+    LinkAccessStatsDO findPvUvUidStatsByShortLink(ShortLinkStatsReqDTO requestParam);
+
+    /**
+     * 根据分组获取指定日期内PV、UV、UIP数据
+     */
+    LinkAccessStatsDO findPvUvUidStatsByGroup(ShortLinkGroupStatsReqDTO requestParam);
+}
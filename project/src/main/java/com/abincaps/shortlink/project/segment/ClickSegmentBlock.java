@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.segment;
+
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 访问事件列式数据块
+ * 一次写入的访问事件编码为一个数据块，字符串列使用块内字典编码为整数，空值编码为 -1；
+ * 格式依次为：魔数、块长度、行数、各字符串列字典、各字符串列编码数组、访问时间数组
+ */
+final class ClickSegmentBlock {
+
+    static final int FULL_SHORT_URL = 0;
+    static final int GID = 1;
+    static final int USER = 2;
+    static final int IP = 3;
+    static final int BROWSER = 4;
+    static final int OS = 5;
+    static final int DEVICE = 6;
+    static final int NETWORK = 7;
+    static final int LOCALE = 8;
+
+    private static final int STRING_COLUMNS = 9;
+    private static final int MAGIC = 0x434C4B31;
+    private static final int HEADER_BYTES = 12;
+
+    private static final List<Function<LinkAccessLogsDO, String>> COLUMN_MAPPERS = List.of(
+            LinkAccessLogsDO::getFullShortUrl,
+            LinkAccessLogsDO::getGid,
+            LinkAccessLogsDO::getUser,
+            LinkAccessLogsDO::getIp,
+            LinkAccessLogsDO::getBrowser,
+            LinkAccessLogsDO::getOs,
+            LinkAccessLogsDO::getDevice,
+            LinkAccessLogsDO::getNetwork,
+            LinkAccessLogsDO::getLocale
+    );
+
+    private final ByteBuffer buffer;
+    private final int length;
+    private final int rowCount;
+    private final int[] dictionaryOffsets;
+    private final int[] dictionarySizes;
+    private final int codesOffset;
+    private final String[][] dictionaries = new String[STRING_COLUMNS][];
+
+    private ClickSegmentBlock(ByteBuffer buffer, int length, int rowCount, int[] dictionaryOffsets, int[] dictionarySizes, int codesOffset) {
+        this.buffer = buffer;
+        this.length = length;
+        this.rowCount = rowCount;
+        this.dictionaryOffsets = dictionaryOffsets;
+        this.dictionarySizes = dictionarySizes;
+        this.codesOffset = codesOffset;
+    }
+
+    /**
+     * 将访问事件编码为一个数据块
+     */
+    static ByteBuffer encode(List<LinkAccessLogsDO> rows) {
+        int rowCount = rows.size();
+        int length = HEADER_BYTES + STRING_COLUMNS * rowCount * Integer.BYTES + rowCount * Long.BYTES;
+        List<Map<String, Integer>> dictionaries = new ArrayList<>(STRING_COLUMNS);
+        int[][] codes = new int[STRING_COLUMNS][rowCount];
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            Function<LinkAccessLogsDO, String> mapper = COLUMN_MAPPERS.get(column);
+            for (int row = 0; row < rowCount; row++) {
+                String value = mapper.apply(rows.get(row));
+                codes[column][row] = value == null ? -1 : dictionary.computeIfAbsent(value, each -> dictionary.size());
+            }
+            dictionaries.add(dictionary);
+            length += Integer.BYTES;
+            for (String each : dictionary.keySet()) {
+                length += Integer.BYTES + each.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(MAGIC).putInt(length).putInt(rowCount);
+        for (Map<String, Integer> dictionary : dictionaries) {
+            buffer.putInt(dictionary.size());
+            for (String each : dictionary.keySet()) {
+                byte[] bytes = each.getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(bytes.length).put(bytes);
+            }
+        }
+        for (int[] columnCodes : codes) {
+            for (int each : columnCodes) {
+                buffer.putInt(each);
+            }
+        }
+        for (LinkAccessLogsDO each : rows) {
+            buffer.putLong(each.getCreateTime().getTime());
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * 读取指定位置的数据块
+     *
+     * @return 数据块，剩余字节不足一个完整数据块或格式错误时返回 null
+     */
+    static ClickSegmentBlock read(ByteBuffer buffer, int position) {
+        int limit = buffer.limit();
+        if (limit - position < HEADER_BYTES || buffer.getInt(position) != MAGIC) {
+            return null;
+        }
+        int length = buffer.getInt(position + Integer.BYTES);
+        int rowCount = buffer.getInt(position + 2 * Integer.BYTES);
+        if (length < HEADER_BYTES || rowCount < 0 || length > limit - position) {
+            return null;
+        }
+        int[] dictionaryOffsets = new int[STRING_COLUMNS];
+        int[] dictionarySizes = new int[STRING_COLUMNS];
+        int offset = position + HEADER_BYTES;
+        int end = position + length;
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            if (end - offset < Integer.BYTES) {
+                return null;
+            }
+            dictionarySizes[column] = buffer.getInt(offset);
+            offset += Integer.BYTES;
+            dictionaryOffsets[column] = offset;
+            for (int i = 0; i < dictionarySizes[column]; i++) {
+                if (end - offset < Integer.BYTES) {
+                    return null;
+                }
+                offset += Integer.BYTES + buffer.getInt(offset);
+            }
+        }
+        if ((long) offset + (long) rowCount * (STRING_COLUMNS * Integer.BYTES + Long.BYTES) != end) {
+            return null;
+        }
+        return new ClickSegmentBlock(buffer, length, rowCount, dictionaryOffsets, dictionarySizes, offset);
+    }
+
+    int length() {
+        return length;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 字符串列字典，首次访问时解码
+     */
+    String[] dictionary(int column) {
+        String[] dictionary = dictionaries[column];
+        if (dictionary == null) {
+            dictionary = new String[dictionarySizes[column]];
+            int offset = dictionaryOffsets[column];
+            for (int i = 0; i < dictionary.length; i++) {
+                int byteLength = buffer.getInt(offset);
+                byte[] bytes = new byte[byteLength];
+                buffer.get(offset + Integer.BYTES, bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+                offset += Integer.BYTES + byteLength;
+            }
+            dictionaries[column] = dictionary;
+        }
+        return dictionary;
+    }
+
+    /**
+     * 字符串值在字典中的编码
+     *
+     * @return 编码，数据块中不存在该值时返回 -1
+     */
+    int indexOf(int column, String value) {
+        String[] dictionary = dictionary(column);
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 字符串列编码数组
+     */
+    int[] codes(int column) {
+        int[] codes = new int[rowCount];
+        buffer.slice(codesOffset + column * rowCount * Integer.BYTES, rowCount * Integer.BYTES).asIntBuffer().get(codes);
+        return codes;
+    }
+
+    /**
+     * 访问时间数组，毫秒时间戳
+     */
+    long[] times() {
+        long[] times = new long[rowCount];
+        buffer.slice(codesOffset + STRING_COLUMNS * rowCount * Integer.BYTES, rowCount * Long.BYTES).asLongBuffer().get(times);
+        return times;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.segment;
+
+import cn.hutool.core.io.FileUtil;
+import com.abincaps.shortlink.project.config.ClickSegmentConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+import com.abincaps.shortlink.project.dao.sharding.LinkAccessLogsShardingAlgorithm;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * 访问事件本地列式存储
+ * 按访问日期建目录、按分组标识分片建文件，每次落库追加一个数据块；文件只追加不修改，读取时整体内存映射，
+ * 末尾未写完整的数据块在读取时跳过，并在本进程首次追加该文件前截断；
+ * 分片文件达到大小上限后滚动写入下一个序号的文件，单个文件不超过 int 可寻址范围
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClickSegmentStore {
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final ClickSegmentConfig clickSegmentConfig;
+    private final Set<Path> recoveredFiles = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(clickSegmentConfig.getEnable());
+    }
+
+    /**
+     * 追加访问事件，按日期与分片分组后每个分片写入一个数据块
+     */
+    public synchronized void append(List<LinkAccessLogsDO> accessLogs) {
+        if (accessLogs.isEmpty()) {
+            return;
+        }
+        Map<Shard, List<LinkAccessLogsDO>> accessLogsByShard = accessLogs.stream()
+                .collect(Collectors.groupingBy(each -> new Shard(toDay(each.getCreateTime().getTime()), bucket(each.getGid()))));
+        accessLogsByShard.forEach((shard, rows) -> {
+            try {
+                ByteBuffer block = ClickSegmentBlock.encode(rows);
+                Path file = writableFile(shard, block.remaining());
+                Files.createDirectories(file.getParent());
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    if (recoveredFiles.add(file)) {
+                        channel.truncate(validLength(channel));
+                    }
+                    long position = channel.size();
+                    while (block.hasRemaining()) {
+                        position += channel.write(block, position);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * 按日期顺序遍历指定分组所在分片的全部数据块
+     */
+    void forEachBlock(String gid, LocalDate startDay, LocalDate endDay, BiConsumer<LocalDate, ClickSegmentBlock> consumer) {
+        int bucket = bucket(gid);
+        for (LocalDate day = startDay; !day.isAfter(endDay); day = day.plusDays(1)) {
+            Path file;
+            for (int index = 0; Files.exists(file = segmentFile(day, bucket, index)); index++) {
+                ByteBuffer buffer = map(file);
+                int position = 0;
+                ClickSegmentBlock block;
+                while ((block = ClickSegmentBlock.read(buffer, position)) != null) {
+                    consumer.accept(day, block);
+                    position += block.length();
+                }
+            }
+        }
+    }
+
+    /**
+     * 最早保留日期
+     */
+    LocalDate earliestDay() {
+        return LocalDate.now().minusDays(clickSegmentConfig.getRetentionDays() - 1L);
+    }
+
+    LocalDate toDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    @Scheduled(cron = "${short-link.stats.segment.purge-cron:0 20 1 * * ?}")
+    public void purge() {
+        if (!isEnabled()) {
+            return;
+        }
+        File[] dayDirs = Paths.get(clickSegmentConfig.getDataDir()).toFile().listFiles(File::isDirectory);
+        if (dayDirs == null) {
+            return;
+        }
+        LocalDate earliestDay = earliestDay();
+        for (File each : dayDirs) {
+            try {
+                if (LocalDate.parse(each.getName(), DAY_FORMATTER).isBefore(earliestDay)) {
+                    FileUtil.del(each);
+                    log.info("访问事件本地存储过期目录已删除：{}", each.getName());
+                }
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+    }
+
+    private Path segmentFile(LocalDate day, int bucket, int index) {
+        return Paths.get(clickSegmentConfig.getDataDir(), day.format(DAY_FORMATTER), "shard-" + bucket + "-" + index + ".seg");
+    }
+
+    /**
+     * 分片当前写入的文件，追加后超过大小上限时滚动到下一个序号，空文件总是可以写入
+     */
+    private Path writableFile(Shard shard, int blockLength) throws IOException {
+        int index = 0;
+        while (Files.exists(segmentFile(shard.day(), shard.bucket(), index + 1))) {
+            index++;
+        }
+        Path file = segmentFile(shard.day(), shard.bucket(), index);
+        long maxFileBytes = Math.min(clickSegmentConfig.getMaxFileBytes(), Integer.MAX_VALUE);
+        if (Files.exists(file) && Files.size(file) > 0 && Files.size(file) + blockLength > maxFileBytes) {
+            file = segmentFile(shard.day(), shard.bucket(), index + 1);
+        }
+        return file;
+    }
+
+    private int bucket(String gid) {
+        return LinkAccessLogsShardingAlgorithm.bucket(gid, clickSegmentConfig.getShardingCount());
+    }
+
+    private ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * 文件中完整数据块的总长度，进程异常退出时末尾可能残留未写完整的数据块
+     */
+    private long validLength(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int position = 0;
+        ClickSegmentBlock block;
+        while ((block = ClickSegmentBlock.read(buffer, position)) != null) {
+            position += block.length();
+        }
+        if (position < channel.size()) {
+            log.warn("访问事件本地存储文件末尾数据块不完整，已截断：{}", channel.size() - position);
+        }
+        return position;
+    }
+
+    private record Shard(LocalDate day, int bucket) {
+    }
+}
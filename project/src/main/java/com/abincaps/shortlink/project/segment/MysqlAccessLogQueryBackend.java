@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.segment;
+
+import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessLogsMapper;
+import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 基于访问日志表的统计查询
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.stats.segment.query-backend", havingValue = "mysql", matchIfMissing = true)
+public class MysqlAccessLogQueryBackend implements AccessLogQueryBackend {
+
+    private final LinkAccessLogsMapper linkAccessLogsMapper;
+
+    @Override
+    public List<HashMap<String, Object>> listTopIpByShortLink(ShortLinkStatsReqDTO requestParam) {
+        return linkAccessLogsMapper.listTopIpByShortLink(requestParam);
+    }
+
+    @Override
+    public List<HashMap<String, Object>> listTopIpByGroup(ShortLinkGroupStatsReqDTO requestParam) {
+        return linkAccessLogsMapper.listTopIpByGroup(requestParam);
+    }
+
+    @Override
+    public LinkAccessStatsDO findPvUvUidStatsByShortLink(ShortLinkStatsReqDTO requestParam) {
+        return linkAccessLogsMapper.findPvUvUidStatsByShortLink(requestParam);
+    }
+
+    @Override
+    public LinkAccessStatsDO findPvUvUidStatsByGroup(ShortLinkGroupStatsReqDTO requestParam) {
+        return linkAccessLogsMapper.findPvUvUidStatsByGroup(requestParam);
+    }
+}
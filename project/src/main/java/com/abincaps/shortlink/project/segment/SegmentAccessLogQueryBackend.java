@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.segment;
+
+import cn.hutool.core.date.DateUtil;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于本地列式存储的统计查询
+ * 按日期定位文件、按分组标识定位分片，数据块字典中不含目标分组或短链接时整块跳过，其余数据块在编码数组上顺序扫描
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "short-link.stats.segment.query-backend", havingValue = "segment")
+public class SegmentAccessLogQueryBackend implements AccessLogQueryBackend {
+
+    private static final int TOP_IP_LIMIT = 5;
+
+    private final ClickSegmentStore clickSegmentStore;
+
+    @Override
+    public List<HashMap<String, Object>> listTopIpByShortLink(ShortLinkStatsReqDTO requestParam) {
+        return topIp(requestParam.getGid(), requestParam.getFullShortUrl(), requestParam.getStartDate(), requestParam.getEndDate());
+    }
+
+    @Override
+    public List<HashMap<String, Object>> listTopIpByGroup(ShortLinkGroupStatsReqDTO requestParam) {
+        return topIp(requestParam.getGid(), null, requestParam.getStartDate(), requestParam.getEndDate());
+    }
+
+    @Override
+    public LinkAccessStatsDO findPvUvUidStatsByShortLink(ShortLinkStatsReqDTO requestParam) {
+        return pvUvUip(requestParam.getGid(), requestParam.getFullShortUrl(), requestParam.getStartDate(), requestParam.getEndDate());
+    }
+
+    @Override
+    public LinkAccessStatsDO findPvUvUidStatsByGroup(ShortLinkGroupStatsReqDTO requestParam) {
+        return pvUvUip(requestParam.getGid(), null, requestParam.getStartDate(), requestParam.getEndDate());
+    }
+
+    private List<HashMap<String, Object>> topIp(String gid, String fullShortUrl, String startDate, String endDate) {
+        Map<String, Integer> ipCounts = new HashMap<>();
+        scan(gid, fullShortUrl, startDate, endDate, (block, selection) -> {
+            // 先在块内按编码计数，再按字典值合并
+            int[] ipCodes = block.codes(ClickSegmentBlock.IP);
+            int[] counts = new int[block.dictionary(ClickSegmentBlock.IP).length];
+            for (int row : selection) {
+                if (ipCodes[row] >= 0) {
+                    counts[ipCodes[row]]++;
+                }
+            }
+            String[] ips = block.dictionary(ClickSegmentBlock.IP);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    ipCounts.merge(ips[i], counts[i], Integer::sum);
+                }
+            }
+        });
+        return ipCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_IP_LIMIT)
+                .map(each -> {
+                    HashMap<String, Object> item = new HashMap<>();
+                    item.put("ip", each.getKey());
+                    item.put("count", each.getValue());
+                    return item;
+                })
+                .toList();
+    }
+
+    private LinkAccessStatsDO pvUvUip(String gid, String fullShortUrl, String startDate, String endDate) {
+        int[] pv = new int[1];
+        Set<String> users = new HashSet<>();
+        Set<String> ips = new HashSet<>();
+        scan(gid, fullShortUrl, startDate, endDate, (block, selection) -> {
+            int[] userCodes = block.codes(ClickSegmentBlock.USER);
+            int[] ipCodes = block.codes(ClickSegmentBlock.IP);
+            boolean[] userSeen = new boolean[block.dictionary(ClickSegmentBlock.USER).length];
+            boolean[] ipSeen = new boolean[block.dictionary(ClickSegmentBlock.IP).length];
+            for (int row : selection) {
+                if (userCodes[row] >= 0) {
+                    pv[0]++;
+                    userSeen[userCodes[row]] = true;
+                }
+                if (ipCodes[row] >= 0) {
+                    ipSeen[ipCodes[row]] = true;
+                }
+            }
+            collect(block.dictionary(ClickSegmentBlock.USER), userSeen, users);
+            collect(block.dictionary(ClickSegmentBlock.IP), ipSeen, ips);
+        });
+        return LinkAccessStatsDO.builder()
+                .pv(pv[0])
+                .uv(users.size())
+                .uip(ips.size())
+                .build();
+    }
+
+    private void scan(String gid, String fullShortUrl, String startDate, String endDate, SelectionConsumer consumer) {
+        long startMillis = DateUtil.beginOfDay(DateUtil.parse(startDate)).getTime();
+        long endMillis = DateUtil.endOfDay(DateUtil.parse(endDate)).getTime();
+        clickSegmentStore.forEachBlock(gid, clickSegmentStore.toDay(startMillis), clickSegmentStore.toDay(endMillis), (day, block) -> {
+            int[] selection = select(block, gid, fullShortUrl, startMillis, endMillis);
+            if (selection.length > 0) {
+                consumer.accept(block, selection);
+            }
+        });
+    }
+
+    /**
+     * 筛选数据块中属于目标分组、短链接且在时间范围内的行号
+     */
+    private static int[] select(ClickSegmentBlock block, String gid, String fullShortUrl, long startMillis, long endMillis) {
+        int gidCode = block.indexOf(ClickSegmentBlock.GID, gid);
+        int linkCode = fullShortUrl == null ? -1 : block.indexOf(ClickSegmentBlock.FULL_SHORT_URL, fullShortUrl);
+        if (gidCode < 0 || (fullShortUrl != null && linkCode < 0)) {
+            return new int[0];
+        }
+        int[] gidCodes = block.codes(ClickSegmentBlock.GID);
+        int[] linkCodes = fullShortUrl == null ? null : block.codes(ClickSegmentBlock.FULL_SHORT_URL);
+        long[] times = block.times();
+        int[] selection = new int[block.rowCount()];
+        int size = 0;
+        for (int row = 0; row < selection.length; row++) {
+            if (gidCodes[row] == gidCode && (linkCodes == null || linkCodes[row] == linkCode)
+                    && times[row] >= startMillis && times[row] <= endMillis) {
+                selection[size++] = row;
+            }
+        }
+        return Arrays.copyOf(selection, size);
+    }
+
+    private static void collect(String[] dictionary, boolean[] seen, Set<String> target) {
+        for (int i = 0; i < seen.length; i++) {
+            if (seen[i]) {
+                target.add(dictionary[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SelectionConsumer {
+
+        void accept(ClickSegmentBlock block, int[] selection);
+    }
+}
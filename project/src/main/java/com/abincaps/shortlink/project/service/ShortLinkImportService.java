@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.service;
+
+import com.abincaps.shortlink.project.dto.req.ShortLinkImportReqDTO;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 短链接流式导入接口层
+ */
+public interface ShortLinkImportService {
+
+    /**
+     * 逐行读取导入内容，按固定大小分块批量创建短链接，每个分块提交后立即输出一行 NDJSON 进度
+     *
+     * @param requestParam 导入参数
+     * @param inputStream  导入内容
+     * @param outputStream 进度输出
+     */
+    void importShortLinks(ShortLinkImportReqDTO requestParam, InputStream inputStream, OutputStream outputStream);
+}
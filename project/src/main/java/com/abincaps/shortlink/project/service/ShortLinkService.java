@@ -21,9 +21,11 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkDO;
 import com.abincaps.shortlink.project.dto.biz.ShortLinkStatsRecordDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkBatchCreateReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkCreateReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkPageReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkUpdateReqDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkBatchCreateRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkCreateRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkGroupCountQueryRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkPageRespDTO;
@@ -46,6 +48,14 @@ public interface ShortLinkService extends IService<ShortLinkDO> {
      */
     ShortLinkCreateRespDTO createShortLink(ShortLinkCreateReqDTO requestParam);
 
+    /**
+     * 批量创建短链接
+     *
+     * @param requestParam 批量创建短链接请求参数
+     * @return 批量创建短链接返回参数
+     */
+    ShortLinkBatchCreateRespDTO batchCreateShortLink(ShortLinkBatchCreateReqDTO requestParam);
+
     /**
      * 修改短链接
      *
@@ -87,4 +97,9 @@ public interface ShortLinkService extends IService<ShortLinkDO> {
      * @param shortLinkStatsRecord 短链接统计实体参数
      */
     void shortLinkStats(String fullShortUrl, String gid, ShortLinkStatsRecordDTO shortLinkStatsRecord);
+
+    /**
+     * 由跳转路由表重建短链接布隆过滤器，在后台异步执行
+     */
+    void rebuildBloomFilter();
 }
@@ -20,11 +20,15 @@ package com.abincaps.shortlink.project.service;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsAccessRecordExportReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsRollupBackfillReqDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsAccessRecordRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsRespDTO;
 
+import java.io.OutputStream;
+
 /**
  * 短链接监控接口层
 
@@ -62,4 +66,24 @@ public interface ShortLinkStatsService {
      * @return 分组访问记录监控数据
      */
     IPage<ShortLinkStatsAccessRecordRespDTO> groupShortLinkStatsAccessRecord(ShortLinkGroupStatsAccessRecordReqDTO requestParam);
+
+    /**
+     * 以 CSV 格式导出访问记录，逐行写入输出流
+     *
+     * @param requestParam 导出访问记录入参
+     * @param outputStream 输出流
+     */
+    void exportStatsAccessRecord(ShortLinkStatsAccessRecordExportReqDTO requestParam, OutputStream outputStream);
+
+    /**
+     * 补录日期范围内的访问统计汇总数据，在后台异步执行
+     *
+     * @param requestParam 补录汇总数据入参
+     */
+    void backfillStatsRollup(ShortLinkStatsRollupBackfillReqDTO requestParam);
+
+    /**
+     * 由保留期内的访问日志补录访客首次访问日期索引，在后台异步执行
+     */
+    void backfillVisitorFirstSeen();
 }
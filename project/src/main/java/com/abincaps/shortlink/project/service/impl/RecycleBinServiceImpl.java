@@ -18,22 +18,31 @@
 package com.abincaps.shortlink.project.service.impl;
 
 import com.abincaps.shortlink.common.constant.RedisKeyConstant;
+import com.abincaps.shortlink.project.cache.GotoLocalCache;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkDO;
 import com.abincaps.shortlink.project.dao.mapper.ShortLinkMapper;
 import com.abincaps.shortlink.project.dto.req.RecycleBinReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkRecycleBinPageReqDTO;
+import com.abincaps.shortlink.project.dto.resp.CursorPageRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkPageRespDTO;
 import com.abincaps.shortlink.project.service.RecycleBinService;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsCache;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsRanking;
+import com.abincaps.shortlink.project.toolkit.PageCursor;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.List;
+
 /**
  * 回收站管理接口实现层
 
@@ -42,7 +51,12 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class RecycleBinServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLinkDO> implements RecycleBinService {
 
+    private static final String UPDATE_TIME_SORT_TAG = "updateTime";
+
     private final StringRedisTemplate stringRedisTemplate;
+    private final GotoLocalCache gotoLocalCache;
+    private final ShortLinkStatsRanking shortLinkStatsRanking;
+    private final ShortLinkStatsCache shortLinkStatsCache;
 
     @Override
     public void saveRecycleBin(RecycleBinReqDTO recycleBinReqDTO) {
@@ -60,6 +74,9 @@ public class RecycleBinServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLin
 
         // 删除缓存
         stringRedisTemplate.delete(RedisKeyConstant.GOTO + recycleBinReqDTO.getShortUri());
+
+        // 失效各节点本地缓存
+        gotoLocalCache.invalidate(recycleBinReqDTO.getShortUri());
     }
 
     @Override
@@ -69,16 +86,44 @@ public class RecycleBinServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLin
                 .in(ShortLinkDO::getGid, requestParam.getGidList())
                 .eq(ShortLinkDO::getEnableStatus, 1)
                 .eq(ShortLinkDO::getDelFlag, 0)
-                .orderByDesc(ShortLinkDO::getUpdateTime);
+                .orderByDesc(ShortLinkDO::getUpdateTime)
+                .orderByDesc(ShortLinkDO::getId);
+
+        if (requestParam.getCursor() != null) {
+            return pageShortLinkByCursor(requestParam, queryWrapper);
+        }
 
         IPage<ShortLinkDO> resultPage = baseMapper.selectPage(requestParam, queryWrapper);
 
         // 类型转换
-        return resultPage.convert(each -> {
-            ShortLinkPageRespDTO shortLinkPageRespDTO = new ShortLinkPageRespDTO();
-            BeanUtils.copyProperties(each, shortLinkPageRespDTO);
-            return shortLinkPageRespDTO;
-        });
+        return resultPage.convert(this::toPageRespDTO);
+    }
+
+    /**
+     * 游标分页查询回收站短链接，按 (update_time, id) 从上一页最后一条记录之后读取，不执行 COUNT 查询
+     */
+    private IPage<ShortLinkPageRespDTO> pageShortLinkByCursor(ShortLinkRecycleBinPageReqDTO requestParam, LambdaQueryWrapper<ShortLinkDO> queryWrapper) {
+        PageCursor pageCursor = PageCursor.decode(requestParam.getCursor(), UPDATE_TIME_SORT_TAG);
+        if (pageCursor != null) {
+            Date cursorTime = new Date(pageCursor.value());
+            queryWrapper.and(wrapper -> wrapper
+                    .lt(ShortLinkDO::getUpdateTime, cursorTime)
+                    .or(each -> each.eq(ShortLinkDO::getUpdateTime, cursorTime).lt(ShortLinkDO::getId, pageCursor.id())));
+        }
+        List<ShortLinkDO> records = baseMapper.selectPage(new Page<>(1, requestParam.getSize(), false), queryWrapper).getRecords();
+
+        String nextCursor = null;
+        if (!records.isEmpty() && records.size() >= requestParam.getSize()) {
+            ShortLinkDO last = records.get(records.size() - 1);
+            nextCursor = new PageCursor(UPDATE_TIME_SORT_TAG, last.getUpdateTime().getTime(), last.getId()).encode();
+        }
+        return new CursorPageRespDTO<>(records.stream().map(this::toPageRespDTO).toList(), requestParam.getSize(), nextCursor);
+    }
+
+    private ShortLinkPageRespDTO toPageRespDTO(ShortLinkDO shortLinkDO) {
+        ShortLinkPageRespDTO shortLinkPageRespDTO = new ShortLinkPageRespDTO();
+        BeanUtils.copyProperties(shortLinkDO, shortLinkPageRespDTO);
+        return shortLinkPageRespDTO;
     }
 
     @Override
@@ -89,15 +134,30 @@ public class RecycleBinServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLin
                 .eq(ShortLinkDO::getEnableStatus, 1)
                 .eq(ShortLinkDO::getDelFlag, 0);
 
+        LambdaQueryWrapper<ShortLinkDO> queryWrapper = Wrappers.lambdaQuery(ShortLinkDO.class)
+                .select(ShortLinkDO::getGid)
+                .eq(ShortLinkDO::getShortUri, requestParam.getShortUri())
+                .eq(ShortLinkDO::getEnableStatus, 1)
+                .eq(ShortLinkDO::getDelFlag, 0);
+        List<ShortLinkDO> recoveredShortLinks = baseMapper.selectList(queryWrapper);
+
         ShortLinkDO shortLinkDO = ShortLinkDO.builder()
-                .enableStatus(1)
+                .enableStatus(0)
                 .build();
 
         baseMapper.update(shortLinkDO, updateWrapper);
 
+        // 恢复的短链接携带历史访问数据，重建所在分组的排行榜
+        recoveredShortLinks.stream()
+                .map(ShortLinkDO::getGid)
+                .distinct()
+                .forEach(shortLinkStatsRanking::invalidate);
+
         // 删除缓存中的失效标记
         stringRedisTemplate.delete(RedisKeyConstant.IS_NULL + requestParam.getShortUri());
 
+        // 失效各节点本地缓存中的空值标记
+        gotoLocalCache.invalidate(requestParam.getShortUri());
     }
 
     @Override
@@ -109,6 +169,14 @@ public class RecycleBinServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLin
                 .eq(ShortLinkDO::getDelTime, 0L)
                 .eq(ShortLinkDO::getDelFlag, 0);
 
+        LambdaQueryWrapper<ShortLinkDO> queryWrapper = Wrappers.lambdaQuery(ShortLinkDO.class)
+                .select(ShortLinkDO::getFullShortUrl, ShortLinkDO::getGid)
+                .eq(ShortLinkDO::getShortUri, requestParam.getShortUri())
+                .eq(ShortLinkDO::getEnableStatus, 1)
+                .eq(ShortLinkDO::getDelTime, 0L)
+                .eq(ShortLinkDO::getDelFlag, 0);
+        List<ShortLinkDO> removedShortLinks = baseMapper.selectList(queryWrapper);
+
         ShortLinkDO delShortLinkDO = ShortLinkDO.builder()
                 .delTime(System.currentTimeMillis())
                 .build();
@@ -117,10 +185,19 @@ public class RecycleBinServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLin
 
         baseMapper.update(delShortLinkDO, updateWrapper);
 
+        // 失效已删除短链接及所在分组的监控结果缓存
+        removedShortLinks.forEach(each -> {
+            shortLinkStatsCache.invalidate(ShortLinkStatsCache.linkTarget(each.getFullShortUrl()));
+            shortLinkStatsCache.invalidate(ShortLinkStatsCache.groupTarget(each.getGid()));
+        });
+
         // 删除缓存中的跳转链接
         stringRedisTemplate.delete(RedisKeyConstant.GOTO + requestParam.getShortUri());
 
         // 删除缓存中的失效标记
         stringRedisTemplate.delete(RedisKeyConstant.IS_NULL + requestParam.getShortUri());
+
+        // 失效各节点本地缓存
+        gotoLocalCache.invalidate(requestParam.getShortUri());
     }
 }
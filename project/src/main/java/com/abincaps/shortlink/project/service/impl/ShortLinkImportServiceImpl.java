@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.service.impl;
+
+import cn.hutool.core.text.csv.CsvParser;
+import cn.hutool.core.text.csv.CsvReadConfig;
+import cn.hutool.core.text.csv.CsvRow;
+import cn.hutool.core.util.StrUtil;
+import com.abincaps.shortlink.project.common.convention.exception.ClientException;
+import com.abincaps.shortlink.project.dto.req.ShortLinkBatchCreateReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkImportReqDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkBatchCreateRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkImportProgressRespDTO;
+import com.abincaps.shortlink.project.service.ShortLinkImportService;
+import com.abincaps.shortlink.project.service.ShortLinkService;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 短链接流式导入接口实现层
+ * 内存中最多保留一个分块的数据，与导入文件大小无关
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShortLinkImportServiceImpl implements ShortLinkImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int ORIGIN_URL_MAX_LENGTH = 1024;
+
+    private final ShortLinkService shortLinkService;
+
+    @SneakyThrows
+    @Override
+    public void importShortLinks(ShortLinkImportReqDTO requestParam, InputStream inputStream, OutputStream outputStream) {
+        if (!StrUtil.equalsAny(requestParam.getFormat(), "csv", "ndjson")) {
+            throw new ClientException("导入格式仅支持 csv、ndjson");
+        }
+        ImportProgress progress = new ImportProgress(requestParam, outputStream);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        if ("csv".equals(requestParam.getFormat())) {
+            CsvReadConfig csvReadConfig = CsvReadConfig.defaultConfig();
+            csvReadConfig.setContainsHeader(Boolean.TRUE.equals(requestParam.getContainsHeader()));
+            csvReadConfig.setSkipEmptyRows(true);
+            CsvParser csvParser = new CsvParser(reader, csvReadConfig);
+            CsvRow row;
+            while ((row = csvParser.nextRow()) != null) {
+                progress.add(row.isEmpty() ? null : row.get(0), row.size() > 1 ? row.get(1) : null);
+            }
+        } else {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StrUtil.isBlank(line)) {
+                    continue;
+                }
+                String originUrl = null;
+                String describe = null;
+                try {
+                    JSONObject lineObj = JSON.parseObject(line);
+                    originUrl = lineObj.getString("originUrl");
+                    describe = lineObj.getString("describe");
+                } catch (Exception ignored) {
+                    // 格式错误的行按失败计数
+                }
+                progress.add(originUrl, describe);
+            }
+        }
+        progress.finish();
+    }
+
+    /**
+     * 单次导入的分块缓冲及进度
+     */
+    private class ImportProgress {
+
+        private final ShortLinkImportReqDTO requestParam;
+        private final OutputStream outputStream;
+        private final List<String> originUrls = new ArrayList<>(CHUNK_SIZE);
+        private final List<String> describes = new ArrayList<>(CHUNK_SIZE);
+        private int chunk;
+        private long processed;
+        private long succeeded;
+        private long failed;
+
+        ImportProgress(ShortLinkImportReqDTO requestParam, OutputStream outputStream) {
+            this.requestParam = requestParam;
+            this.outputStream = outputStream;
+        }
+
+        void add(String originUrl, String describe) {
+            processed++;
+            originUrl = StrUtil.trim(originUrl);
+            if (StrUtil.isBlank(originUrl) || originUrl.length() > ORIGIN_URL_MAX_LENGTH) {
+                failed++;
+                return;
+            }
+            originUrls.add(originUrl);
+            describes.add(describe);
+            if (originUrls.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (!originUrls.isEmpty()) {
+                flush();
+            }
+            write(ShortLinkImportProgressRespDTO.builder()
+                    .chunk(0)
+                    .processed(processed)
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .finished(true)
+                    .build());
+        }
+
+        private void flush() {
+            chunk++;
+            ShortLinkBatchCreateReqDTO batchCreateReqDTO = new ShortLinkBatchCreateReqDTO();
+            batchCreateReqDTO.setOriginUrls(new ArrayList<>(originUrls));
+            batchCreateReqDTO.setDescribes(new ArrayList<>(describes));
+            batchCreateReqDTO.setGid(requestParam.getGid());
+            batchCreateReqDTO.setCreatedType(requestParam.getCreatedType());
+            batchCreateReqDTO.setValidDateType(requestParam.getValidDateType());
+            batchCreateReqDTO.setValidDate(requestParam.getValidDate());
+            int size = originUrls.size();
+            originUrls.clear();
+            describes.clear();
+
+            ShortLinkImportProgressRespDTO.ShortLinkImportProgressRespDTOBuilder builder = ShortLinkImportProgressRespDTO.builder().chunk(chunk);
+            try {
+                ShortLinkBatchCreateRespDTO batchCreateRespDTO = shortLinkService.batchCreateShortLink(batchCreateReqDTO);
+                succeeded += batchCreateRespDTO.getTotal();
+                builder.baseLinkInfos(batchCreateRespDTO.getBaseLinkInfos());
+            } catch (Exception ex) {
+                // 单个分块失败不影响后续分块
+                log.warn("短链接导入分块 {} 创建失败，数量：{}", chunk, size, ex);
+                failed += size;
+                builder.errorMessage(ex.getMessage());
+            }
+            write(builder.processed(processed).succeeded(succeeded).failed(failed).finished(false).build());
+        }
+
+        @SneakyThrows
+        private void write(ShortLinkImportProgressRespDTO progressRespDTO) {
+            outputStream.write(JSON.toJSONBytes(progressRespDTO));
+            outputStream.write('\n');
+            outputStream.flush();
+        }
+    }
+}
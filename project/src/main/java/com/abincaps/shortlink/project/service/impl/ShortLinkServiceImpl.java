@@ -18,43 +18,53 @@
 package com.abincaps.shortlink.project.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.lang.UUID;
 import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.StrUtil;
 import com.abincaps.shortlink.common.constant.RedisKeyConstant;
+import com.abincaps.shortlink.project.cache.GotoBloomFilterWriter;
+import com.abincaps.shortlink.project.cache.GotoCacheValue;
+import com.abincaps.shortlink.project.cache.GotoLocalCache;
+import com.abincaps.shortlink.project.cache.GotoRedisCache;
 import com.abincaps.shortlink.project.common.constant.RedisConstant;
-import com.alibaba.fastjson2.JSON;
+import com.abincaps.shortlink.project.common.constant.ShortLinkConstant;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.abincaps.shortlink.project.common.convention.exception.ClientException;
 import com.abincaps.shortlink.project.common.convention.exception.ServiceException;
+import com.abincaps.shortlink.project.dao.entity.LinkStatsTodayDO;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkDO;
 import com.abincaps.shortlink.project.dao.entity.ShortLinkGotoDO;
-import com.abincaps.shortlink.project.dao.mapper.LinkAccessLogsMapper;
-import com.abincaps.shortlink.project.dao.mapper.LinkAccessStatsMapper;
-import com.abincaps.shortlink.project.dao.mapper.LinkBrowserStatsMapper;
-import com.abincaps.shortlink.project.dao.mapper.LinkDeviceStatsMapper;
-import com.abincaps.shortlink.project.dao.mapper.LinkLocaleStatsMapper;
-import com.abincaps.shortlink.project.dao.mapper.LinkNetworkStatsMapper;
-import com.abincaps.shortlink.project.dao.mapper.LinkOsStatsMapper;
 import com.abincaps.shortlink.project.dao.mapper.LinkStatsTodayMapper;
 import com.abincaps.shortlink.project.dao.mapper.ShortLinkGotoMapper;
 import com.abincaps.shortlink.project.dao.mapper.ShortLinkMapper;
 import com.abincaps.shortlink.project.dto.biz.ShortLinkStatsRecordDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkBatchCreateReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkCreateReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkPageReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkUpdateReqDTO;
+import com.abincaps.shortlink.project.dto.resp.CursorPageRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkBaseInfoRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkBatchCreateRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkCreateRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkGroupCountQueryRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkPageRespDTO;
-import com.abincaps.shortlink.project.service.LinkStatsTodayService;
+import com.abincaps.shortlink.project.generator.ShortCodeGenerator;
+import com.abincaps.shortlink.project.mq.queue.ShortLinkStatsQueue;
 import com.abincaps.shortlink.project.service.ShortLinkService;
-import com.abincaps.shortlink.project.toolkit.HashUtil;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsCache;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsRanking;
 import com.abincaps.shortlink.project.toolkit.LinkUtil;
+import com.abincaps.shortlink.project.toolkit.PageCursor;
+import com.abincaps.shortlink.project.toolkit.SingleFlight;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.Cookie;
@@ -64,19 +74,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ObjectUtils;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 短链接接口实现层
@@ -86,19 +97,22 @@ import java.util.concurrent.atomic.AtomicReference;
 @RequiredArgsConstructor
 public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLinkDO> implements ShortLinkService {
 
+    private static final int BATCH_INSERT_ROWS = 500;
+
     private final RBloomFilter<String> shortUriCreateCachePenetrationBloomFilter;
     private final ShortLinkGotoMapper shortLinkGotoMapper;
     private final StringRedisTemplate stringRedisTemplate;
     private final RedissonClient redissonClient;
-    private final LinkAccessStatsMapper linkAccessStatsMapper;
-    private final LinkLocaleStatsMapper linkLocaleStatsMapper;
-    private final LinkOsStatsMapper linkOsStatsMapper;
-    private final LinkBrowserStatsMapper linkBrowserStatsMapper;
-    private final LinkAccessLogsMapper linkAccessLogsMapper;
-    private final LinkDeviceStatsMapper linkDeviceStatsMapper;
-    private final LinkNetworkStatsMapper linkNetworkStatsMapper;
+    private final ShortLinkStatsQueue shortLinkStatsQueue;
+    private final GotoLocalCache gotoLocalCache;
+    private final GotoRedisCache gotoRedisCache;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortLinkStatsRanking shortLinkStatsRanking;
+    private final ShortLinkStatsCache shortLinkStatsCache;
     private final LinkStatsTodayMapper linkStatsTodayMapper;
-    private final LinkStatsTodayService linkStatsTodayService;
+    private final GotoBloomFilterWriter gotoBloomFilterWriter;
+
+    private final SingleFlight<String, GotoCacheValue> gotoSingleFlight = new SingleFlight<>();
 
     @Value("${short-link.domain}")
     private String defaultDomain;
@@ -107,7 +121,7 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
     @Override
     public ShortLinkCreateRespDTO createShortLink(ShortLinkCreateReqDTO requestParam) {
 
-        String shortUri = generateShortLink(requestParam);
+        String shortUri = shortCodeGenerator.generate(defaultDomain, requestParam.getOriginUrl());
 
         String fullShortUrl = defaultDomain + "/" + shortUri;
 
@@ -119,6 +133,7 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
                 .validDate(requestParam.getValidDate())
                 .describe(requestParam.getDescribe())
                 .shortUri(shortUri)
+                .fullShortUrl(fullShortUrl)
                 .enableStatus(0)
                 .totalPv(0)
                 .totalUv(0)
@@ -134,11 +149,15 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
         try {
 
             baseMapper.insert(shortLinkDO);
+            shortLinkGotoMapper.insert(linkGotoDO);
 
         } catch (DuplicateKeyException ex) {
             throw new ServiceException(String.format("短链接：%s 生成重复", fullShortUrl));
         }
 
+        // 加入布隆过滤器，供生成去重及跳转防穿透使用
+        shortUriCreateCachePenetrationBloomFilter.add(fullShortUrl);
+
         // 设置缓存
         stringRedisTemplate.opsForValue().set(
                 RedisKeyConstant.GOTO + shortUri,
@@ -146,6 +165,12 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
                 LinkUtil.getLinkCacheValidTime(requestParam.getValidDate()), TimeUnit.MILLISECONDS
         );
 
+        // 清除各节点本地缓存中可能存在的空值标记
+        gotoLocalCache.invalidate(shortUri);
+
+        // 以零分加入分组排行榜
+        addToRanking(requestParam.getGid(), List.of(fullShortUrl));
+
         return ShortLinkCreateRespDTO.builder()
                 .fullShortUrl("http://" + fullShortUrl)
                 .originUrl(requestParam.getOriginUrl())
@@ -153,6 +178,113 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
                 .build();
     }
 
+    @Transactional(rollbackFor = Exception.class)
+    @Override
+    public ShortLinkBatchCreateRespDTO batchCreateShortLink(ShortLinkBatchCreateReqDTO requestParam) {
+        List<String> originUrls = requestParam.getOriginUrls();
+        if (CollUtil.isEmpty(originUrls)) {
+            throw new ClientException("原始链接不能为空");
+        }
+        List<String> describes = Optional.ofNullable(requestParam.getDescribes()).orElse(Collections.emptyList());
+        List<String> shortUris = shortCodeGenerator.generateBatch(defaultDomain, originUrls.size());
+
+        List<ShortLinkDO> shortLinkDOList = new ArrayList<>(originUrls.size());
+        List<ShortLinkGotoDO> linkGotoDOList = new ArrayList<>(originUrls.size());
+        List<ShortLinkBaseInfoRespDTO> baseLinkInfos = new ArrayList<>(originUrls.size());
+        for (int i = 0; i < originUrls.size(); i++) {
+            String shortUri = shortUris.get(i);
+            String fullShortUrl = defaultDomain + "/" + shortUri;
+            String describe = i < describes.size() ? describes.get(i) : null;
+            // 自定义 INSERT 不经过 MyBatis-Plus 主键填充
+            shortLinkDOList.add(ShortLinkDO.builder()
+                    .id(IdWorker.getId())
+                    .domain(defaultDomain)
+                    .originUrl(originUrls.get(i))
+                    .gid(requestParam.getGid())
+                    .validDateType(requestParam.getValidDateType())
+                    .validDate(requestParam.getValidDate())
+                    .describe(describe)
+                    .shortUri(shortUri)
+                    .fullShortUrl(fullShortUrl)
+                    .enableStatus(0)
+                    .build());
+            linkGotoDOList.add(ShortLinkGotoDO.builder()
+                    .id(IdWorker.getId())
+                    .fullShortUrl(fullShortUrl)
+                    .gid(requestParam.getGid())
+                    .build());
+            baseLinkInfos.add(ShortLinkBaseInfoRespDTO.builder()
+                    .fullShortUrl("http://" + fullShortUrl)
+                    .originUrl(originUrls.get(i))
+                    .describe(describe)
+                    .build());
+        }
+
+        try {
+            // 同一批次属于同一分组，多值插入只会路由到一张分表
+            for (List<ShortLinkDO> each : CollUtil.split(shortLinkDOList, BATCH_INSERT_ROWS)) {
+                baseMapper.insertBatch(each);
+            }
+            for (List<ShortLinkGotoDO> each : CollUtil.split(linkGotoDOList, BATCH_INSERT_ROWS)) {
+                shortLinkGotoMapper.insertBatch(each);
+            }
+        } catch (DuplicateKeyException ex) {
+            throw new ServiceException("批量生成短链接重复，请重试");
+        }
+
+        long validTime = LinkUtil.getLinkCacheValidTime(requestParam.getValidDate());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                warmUpBatchCreated(shortLinkDOList, validTime);
+            }
+        });
+
+        return ShortLinkBatchCreateRespDTO.builder()
+                .total(baseLinkInfos.size())
+                .baseLinkInfos(baseLinkInfos)
+                .build();
+    }
+
+    /**
+     * 批量创建提交后通过管道预热跳转缓存，清除本地空值标记并分段并行写入布隆过滤器，返回前全部写入完成
+     */
+    private void warmUpBatchCreated(List<ShortLinkDO> shortLinkDOList, long validTime) {
+        List<String> shortUris = shortLinkDOList.stream().map(ShortLinkDO::getShortUri).toList();
+        try {
+            for (List<ShortLinkDO> each : CollUtil.split(shortLinkDOList, BATCH_INSERT_ROWS)) {
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                    for (ShortLinkDO shortLinkDO : each) {
+                        stringRedisConnection.pSetEx(RedisKeyConstant.GOTO + shortLinkDO.getShortUri(), validTime, shortLinkDO.getOriginUrl());
+                    }
+                    return null;
+                });
+            }
+        } catch (Throwable ex) {
+            log.error("批量预热短链接跳转缓存失败，数量：{}", shortUris.size(), ex);
+        }
+        gotoLocalCache.invalidateAll(shortUris);
+        addToRanking(shortLinkDOList.get(0).getGid(), shortLinkDOList.stream().map(ShortLinkDO::getFullShortUrl).toList());
+        try {
+            gotoBloomFilterWriter.addAll(shortLinkDOList.stream().map(ShortLinkDO::getFullShortUrl).toList());
+        } catch (Throwable ex) {
+            log.error("批量写入短链接布隆过滤器失败，数量：{}，跳转时回源跳转路由表", shortUris.size(), ex);
+        }
+    }
+
+    /**
+     * 新建短链接加入分组排行榜，失败时由一致性校验补齐
+     */
+    private void addToRanking(String gid, List<String> fullShortUrls) {
+        try {
+            shortLinkStatsRanking.addLinks(gid, fullShortUrls);
+        } catch (Exception ex) {
+            log.warn("短链接加入分组排行榜失败，分组：{}", gid, ex);
+        }
+    }
+
     @Transactional(rollbackFor = Exception.class)
     @Override
     public void updateShortLink(ShortLinkUpdateReqDTO shortLinkUpdateReqDTO, String userId) {
@@ -184,17 +316,147 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
 
         baseMapper.update(shortLinkDO, updateWrapper);
 
-        // TODO 修改 Redis 中的有效期
+        // 分组变更时同步跳转路由表
+        if (!Objects.equals(shortLinkDO.getGid(), shortLinkUpdateReqDTO.getOriginGid())) {
+            String fullShortUrl = defaultDomain + "/" + shortLinkUpdateReqDTO.getShortUrl();
+            LambdaUpdateWrapper<ShortLinkGotoDO> gotoUpdateWrapper = Wrappers.lambdaUpdate(ShortLinkGotoDO.class)
+                    .eq(ShortLinkGotoDO::getFullShortUrl, fullShortUrl);
+            shortLinkGotoMapper.update(ShortLinkGotoDO.builder().gid(shortLinkUpdateReqDTO.getGid()).build(), gotoUpdateWrapper);
+            shortLinkStatsRanking.invalidate(shortLinkUpdateReqDTO.getOriginGid());
+            shortLinkStatsRanking.invalidate(shortLinkUpdateReqDTO.getGid());
+            shortLinkStatsCache.invalidate(ShortLinkStatsCache.linkTarget(fullShortUrl));
+            shortLinkStatsCache.invalidate(ShortLinkStatsCache.groupTarget(shortLinkUpdateReqDTO.getOriginGid()));
+            shortLinkStatsCache.invalidate(ShortLinkStatsCache.groupTarget(shortLinkUpdateReqDTO.getGid()));
+        }
+
+        // 提交后再更新缓存并广播失效，避免回滚后缓存中残留未生效的跳转链接
+        String shortUri = shortLinkUpdateReqDTO.getShortUrl();
+        long validTime = LinkUtil.getLinkCacheValidTime(shortLinkUpdateReqDTO.getValidDate());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                refreshGotoCache(shortUri, shortLinkUpdateReqDTO.getOriginUrl(), validTime);
+            }
+        });
+    }
+
+    /**
+     * 更新缓存中的跳转链接及有效期，删除空值标记并失效各节点本地缓存
+     */
+    private void refreshGotoCache(String shortUri, String originUrl, long validTime) {
+        try {
+            stringRedisTemplate.opsForValue().set(RedisKeyConstant.GOTO + shortUri, originUrl, validTime, TimeUnit.MILLISECONDS);
+            stringRedisTemplate.delete(RedisKeyConstant.IS_NULL + shortUri);
+        } catch (Throwable ex) {
+            log.error("更新短链接跳转缓存失败，shortUri：{}", shortUri, ex);
+        }
+        gotoLocalCache.invalidate(shortUri);
     }
 
     @Override
     public IPage<ShortLinkPageRespDTO> pageShortLink(ShortLinkPageReqDTO requestParam) {
+        if (requestParam.getCursor() != null) {
+            return pageShortLinkByCursor(requestParam);
+        }
+        if (shortLinkStatsRanking.supports(requestParam.getOrderTag())) {
+            return pageShortLinkByRanking(requestParam);
+        }
         IPage<ShortLinkDO> resultPage = baseMapper.pageLink(requestParam);
-        return resultPage.convert(each -> {
-            ShortLinkPageRespDTO result = BeanUtil.toBean(each, ShortLinkPageRespDTO.class);
-            result.setDomain("http://" + result.getDomain());
-            return result;
-        });
+        return resultPage.convert(this::toPageRespDTO);
+    }
+
+    /**
+     * 按今日或累计访问数据排序分页，排名及总数取自排行榜，当前页记录按完整短链接批量查询，无需关联今日统计表排序
+     */
+    private IPage<ShortLinkPageRespDTO> pageShortLinkByRanking(ShortLinkPageReqDTO requestParam) {
+        String gid = requestParam.getGid();
+        ShortLinkStatsRanking.RankingPage rankingPage;
+        try {
+            rankingPage = shortLinkStatsRanking.page(gid, requestParam.getOrderTag(), requestParam.getCurrent(), requestParam.getSize());
+        } catch (Exception ex) {
+            log.warn("查询短链接排行榜失败，回退到数据库排序，分组：{}", gid, ex);
+            return baseMapper.pageLink(requestParam).convert(this::toPageRespDTO);
+        }
+        Page<ShortLinkPageRespDTO> resultPage = new Page<>(requestParam.getCurrent(), requestParam.getSize(), rankingPage.total());
+        List<String> fullShortUrls = rankingPage.fullShortUrls();
+        if (fullShortUrls.isEmpty()) {
+            return resultPage;
+        }
+
+        LambdaQueryWrapper<ShortLinkDO> queryWrapper = Wrappers.lambdaQuery(ShortLinkDO.class)
+                .eq(ShortLinkDO::getGid, gid)
+                .in(ShortLinkDO::getFullShortUrl, fullShortUrls)
+                .eq(ShortLinkDO::getEnableStatus, 0)
+                .eq(ShortLinkDO::getDelFlag, 0);
+        Map<String, ShortLinkDO> shortLinkMap = new HashMap<>();
+        baseMapper.selectList(queryWrapper).forEach(each -> shortLinkMap.put(each.getFullShortUrl(), each));
+        LambdaQueryWrapper<LinkStatsTodayDO> todayQueryWrapper = Wrappers.lambdaQuery(LinkStatsTodayDO.class)
+                .eq(LinkStatsTodayDO::getGid, gid)
+                .eq(LinkStatsTodayDO::getDate, DateUtil.beginOfDay(new Date()))
+                .in(LinkStatsTodayDO::getFullShortUrl, fullShortUrls);
+        Map<String, LinkStatsTodayDO> todayStatsMap = new HashMap<>();
+        linkStatsTodayMapper.selectList(todayQueryWrapper).forEach(each -> todayStatsMap.put(each.getFullShortUrl(), each));
+
+        List<ShortLinkPageRespDTO> records = new ArrayList<>(fullShortUrls.size());
+        List<String> staleFullShortUrls = new ArrayList<>();
+        for (String each : fullShortUrls) {
+            ShortLinkDO shortLinkDO = shortLinkMap.get(each);
+            if (shortLinkDO == null) {
+                // 已移入回收站、删除或变更分组
+                staleFullShortUrls.add(each);
+                continue;
+            }
+            LinkStatsTodayDO linkStatsTodayDO = todayStatsMap.get(each);
+            shortLinkDO.setTodayPv(linkStatsTodayDO == null ? 0 : linkStatsTodayDO.getTodayPv());
+            shortLinkDO.setTodayUv(linkStatsTodayDO == null ? 0 : linkStatsTodayDO.getTodayUv());
+            shortLinkDO.setTodayUip(linkStatsTodayDO == null ? 0 : linkStatsTodayDO.getTodayUip());
+            records.add(toPageRespDTO(shortLinkDO));
+        }
+        if (!staleFullShortUrls.isEmpty()) {
+            shortLinkStatsRanking.removeLinks(gid, staleFullShortUrls);
+            resultPage.setTotal(Math.max(rankingPage.total() - staleFullShortUrls.size(), 0L));
+        }
+        resultPage.setRecords(records);
+        return resultPage;
+    }
+
+    /**
+     * 游标分页查询短链接，从上一页最后一条记录之后读取，不执行 COUNT 查询
+     */
+    private IPage<ShortLinkPageRespDTO> pageShortLinkByCursor(ShortLinkPageReqDTO requestParam) {
+        String sortTag = StrUtil.blankToDefault(requestParam.getOrderTag(), "createTime");
+        PageCursor pageCursor = PageCursor.decode(requestParam.getCursor(), sortTag);
+        if (pageCursor != null) {
+            requestParam.setCursorValue(pageCursor.value());
+            requestParam.setCursorTime(new Date(pageCursor.value()));
+            requestParam.setCursorId(pageCursor.id());
+        }
+        requestParam.setCurrent(1);
+        requestParam.setSearchCount(false);
+        List<ShortLinkDO> records = baseMapper.pageLink(requestParam).getRecords();
+
+        String nextCursor = null;
+        if (!records.isEmpty() && records.size() >= requestParam.getSize()) {
+            ShortLinkDO last = records.get(records.size() - 1);
+            long value = switch (sortTag) {
+                case "todayPv" -> last.getTodayPv();
+                case "todayUv" -> last.getTodayUv();
+                case "todayUip" -> last.getTodayUip();
+                case "totalPv" -> last.getTotalPv();
+                case "totalUv" -> last.getTotalUv();
+                case "totalUip" -> last.getTotalUip();
+                default -> last.getCreateTime().getTime();
+            };
+            nextCursor = new PageCursor(sortTag, value, last.getId()).encode();
+        }
+        return new CursorPageRespDTO<>(records.stream().map(this::toPageRespDTO).toList(), requestParam.getSize(), nextCursor);
+    }
+
+    private ShortLinkPageRespDTO toPageRespDTO(ShortLinkDO shortLinkDO) {
+        ShortLinkPageRespDTO result = BeanUtil.toBean(shortLinkDO, ShortLinkPageRespDTO.class);
+        result.setDomain("http://" + result.getDomain());
+        return result;
     }
 
     @Override
@@ -214,105 +476,165 @@ public class ShortLinkServiceImpl extends ServiceImpl<ShortLinkMapper, ShortLink
     @Override
     public void redirectUrl(String shortUri, HttpServletRequest request, HttpServletResponse response) {
 
-        // 检查缓存中是否标记 shortUri 失效
-        Boolean result = stringRedisTemplate.hasKey(RedisKeyConstant.IS_NULL + shortUri);
+        // 优先检查本地缓存
+        GotoCacheValue localValue = gotoLocalCache.get(shortUri);
 
-        if (ObjectUtils.nullSafeEquals(result, Boolean.TRUE)) {
-            response.sendRedirect("/notfound");
+        if (localValue != null) {
+            if (localValue.isNull()) {
+                response.sendRedirect("/notfound");
+                return;
+            }
+            redirectWithStats(shortUri, localValue.getOriginUrl(), request, response);
             return;
         }
 
-        // 检查缓存中是否有 shortUri 的跳转链接
-        String originalUrl = stringRedisTemplate.opsForValue().get(RedisKeyConstant.GOTO + shortUri);
+        // 一次往返读取 Redis 中的跳转链接及失效标记
+        GotoCacheValue redisValue = gotoRedisCache.lookup(shortUri);
+
+        if (redisValue == null) {
+            // 缓存未命中，同一短链接的并发请求合并为一次数据库查询
+            redisValue = gotoSingleFlight.execute(shortUri, () -> loadGotoFromDatabase(shortUri));
+        }
 
-        if (!StringUtils.hasLength(originalUrl)) {
+        if (redisValue.isNull()) {
+            gotoLocalCache.putNull(shortUri);
             response.sendRedirect("/notfound");
             return;
         }
 
-        // TODO 暂时下线统计功能
-//        if (StrUtil.isNotBlank(originalUrl)) {
-//            ShortLinkStatsRecordDTO statsRecord = buildLinkStatsRecordAndSetUser(fullShortUrl, request, response);
-//            shortLinkStats(fullShortUrl, null, statsRecord);
-//            ((HttpServletResponse) response).sendRedirect(originalUrl);
-//            return;
-//        }
+        // 本地缓存有效期不超过 Redis 中的剩余有效期
+        String originalUrl = redisValue.getOriginUrl();
+        gotoLocalCache.put(shortUri, originalUrl, TimeUnit.NANOSECONDS.toMillis(redisValue.getExpireNanos()));
+
+        redirectWithStats(shortUri, originalUrl, request, response);
+    }
+
+    /**
+     * 记录访问统计后跳转，本地缓存、Redis 及数据库命中的访问均需计入统计
+     */
+    @SneakyThrows
+    private void redirectWithStats(String shortUri, String originalUrl, HttpServletRequest request, HttpServletResponse response) {
+        // 统计记录异步处理，不阻塞跳转
+        String fullShortUrl = defaultDomain + "/" + shortUri;
+        shortLinkStats(fullShortUrl, null, buildLinkStatsRecordAndSetUser(fullShortUrl, request, response));
 
         response.sendRedirect(originalUrl);
     }
 
+    /**
+     * 缓存未命中时从数据库加载短链接跳转信息并回填缓存
+     * 通过分布式锁保证集群内同一短链接只有一个节点查询数据库
+     *
+     * @param shortUri 短链接后缀
+     * @return 跳转信息，短链接不存在或已失效时返回空值标记
+     */
+    private GotoCacheValue loadGotoFromDatabase(String shortUri) {
+        GotoCacheValue nullValue = new GotoCacheValue(null, 0L);
+        String fullShortUrl = defaultDomain + "/" + shortUri;
+
+        // 布隆过滤器可能缺少升级前创建或 Redis 数据丢失的短链接，判断不存在时回查跳转路由表唯一索引确认，
+        // 确认不存在后写入空值标记，重复访问由空值标记拦截，避免缓存穿透
+        if (!shortUriCreateCachePenetrationBloomFilter.contains(fullShortUrl)) {
+            boolean exists = shortLinkGotoMapper.selectCount(Wrappers.lambdaQuery(ShortLinkGotoDO.class)
+                    .eq(ShortLinkGotoDO::getFullShortUrl, fullShortUrl)) > 0;
+            if (!exists) {
+                stringRedisTemplate.opsForValue().set(
+                        RedisKeyConstant.IS_NULL + shortUri,
+                        "-",
+                        ShortLinkConstant.GOTO_IS_NULL_CACHE_VALID_TIME, TimeUnit.MILLISECONDS
+                );
+                return nullValue;
+            }
+            shortUriCreateCachePenetrationBloomFilter.add(fullShortUrl);
+        }
+
+        RLock lock = redissonClient.getLock(String.format(RedisConstant.LOCK_GOTO_SHORT_LINK_KEY, fullShortUrl));
+        lock.lock();
+
+        try {
+            // 双重检查，其它节点可能已完成加载
+            GotoCacheValue redisValue = gotoRedisCache.lookup(shortUri);
+            if (redisValue != null) {
+                return redisValue;
+            }
+
+            // 通过跳转路由表定位分组，避免全分片扫描
+            LambdaQueryWrapper<ShortLinkGotoDO> gotoQueryWrapper = Wrappers.lambdaQuery(ShortLinkGotoDO.class)
+                    .eq(ShortLinkGotoDO::getFullShortUrl, fullShortUrl);
+            ShortLinkGotoDO shortLinkGotoDO = shortLinkGotoMapper.selectOne(gotoQueryWrapper);
+
+            ShortLinkDO shortLinkDO = null;
+            if (shortLinkGotoDO != null) {
+                LambdaQueryWrapper<ShortLinkDO> queryWrapper = Wrappers.lambdaQuery(ShortLinkDO.class)
+                        .eq(ShortLinkDO::getGid, shortLinkGotoDO.getGid())
+                        .eq(ShortLinkDO::getShortUri, shortUri)
+                        .eq(ShortLinkDO::getEnableStatus, 0)
+                        .eq(ShortLinkDO::getDelFlag, 0);
+                shortLinkDO = baseMapper.selectOne(queryWrapper);
+            }
+
+            if (shortLinkDO == null || (shortLinkDO.getValidDate() != null && shortLinkDO.getValidDate().before(new Date()))) {
+                stringRedisTemplate.opsForValue().set(
+                        RedisKeyConstant.IS_NULL + shortUri,
+                        "-",
+                        ShortLinkConstant.GOTO_IS_NULL_CACHE_VALID_TIME, TimeUnit.MILLISECONDS
+                );
+                return nullValue;
+            }
+
+            long validTimeMill = LinkUtil.getLinkCacheValidTime(shortLinkDO.getValidDate());
+            stringRedisTemplate.opsForValue().set(
+                    RedisKeyConstant.GOTO + shortUri,
+                    shortLinkDO.getOriginUrl(),
+                    validTimeMill, TimeUnit.MILLISECONDS
+            );
+            return new GotoCacheValue(shortLinkDO.getOriginUrl(), TimeUnit.MILLISECONDS.toNanos(validTimeMill));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 构建统计记录，跳转线程只读取请求信息及设置用户标识 Cookie，其余统计维度由消费者计算
+     */
     private ShortLinkStatsRecordDTO buildLinkStatsRecordAndSetUser(String fullShortUrl, ServletRequest request, ServletResponse response) {
-        AtomicBoolean uvFirstFlag = new AtomicBoolean();
         Cookie[] cookies = ((HttpServletRequest) request).getCookies();
-        AtomicReference<String> uv = new AtomicReference<>();
-        Runnable addResponseCookieTask = () -> {
-            uv.set(UUID.fastUUID().toString());
-            Cookie uvCookie = new Cookie("uv", uv.get());
-            uvCookie.setMaxAge(60 * 60 * 24 * 30);
-            uvCookie.setPath(StrUtil.sub(fullShortUrl, fullShortUrl.indexOf("/"), fullShortUrl.length()));
-            ((HttpServletResponse) response).addCookie(uvCookie);
-            uvFirstFlag.set(Boolean.TRUE);
-            stringRedisTemplate.opsForSet().add(RedisConstant.SHORT_LINK_STATS_UV_KEY + fullShortUrl, uv.get());
-        };
+        String uv = null;
         if (ArrayUtil.isNotEmpty(cookies)) {
-            Arrays.stream(cookies)
+            uv = Arrays.stream(cookies)
                     .filter(each -> Objects.equals(each.getName(), "uv"))
                     .findFirst()
                     .map(Cookie::getValue)
-                    .ifPresentOrElse(each -> {
-                        uv.set(each);
-                        Long uvAdded = stringRedisTemplate.opsForSet().add(RedisConstant.SHORT_LINK_STATS_UV_KEY + fullShortUrl, each);
-                        uvFirstFlag.set(uvAdded != null && uvAdded > 0L);
-                    }, addResponseCookieTask);
-        } else {
-            addResponseCookieTask.run();
+                    .orElse(null);
+        }
+        if (uv == null) {
+            uv = UUID.fastUUID().toString();
+            Cookie uvCookie = new Cookie("uv", uv);
+            uvCookie.setMaxAge(60 * 60 * 24 * 30);
+            uvCookie.setPath(StrUtil.sub(fullShortUrl, fullShortUrl.indexOf("/"), fullShortUrl.length()));
+            ((HttpServletResponse) response).addCookie(uvCookie);
         }
-        String remoteAddr = LinkUtil.getActualIp(((HttpServletRequest) request));
-        String os = LinkUtil.getOs(((HttpServletRequest) request));
-        String browser = LinkUtil.getBrowser(((HttpServletRequest) request));
-        String device = LinkUtil.getDevice(((HttpServletRequest) request));
-        String network = LinkUtil.getNetwork(((HttpServletRequest) request));
-        Long uipAdded = stringRedisTemplate.opsForSet().add(RedisConstant.SHORT_LINK_STATS_UIP_KEY + fullShortUrl, remoteAddr);
-        boolean uipFirstFlag = uipAdded != null && uipAdded > 0L;
         return ShortLinkStatsRecordDTO.builder()
                 .fullShortUrl(fullShortUrl)
-                .uv(uv.get())
-                .uvFirstFlag(uvFirstFlag.get())
-                .uipFirstFlag(uipFirstFlag)
-                .remoteAddr(remoteAddr)
-                .os(os)
-                .browser(browser)
-                .device(device)
-                .network(network)
+                .uv(uv)
+                .remoteAddr(LinkUtil.getActualIp(((HttpServletRequest) request)))
+                .userAgent(((HttpServletRequest) request).getHeader("User-Agent"))
+                .currentDate(new Date())
+                .keys(UUID.fastUUID().toString(true))
                 .build();
     }
 
     @Override
     public void shortLinkStats(String fullShortUrl, String gid, ShortLinkStatsRecordDTO statsRecord) {
-        Map<String, String> producerMap = new HashMap<>();
-        producerMap.put("fullShortUrl", fullShortUrl);
-        producerMap.put("gid", gid);
-        producerMap.put("statsRecord", JSON.toJSONString(statsRecord));
-    }
-
-    /**
-     * 生成短链接
-     * @param requestParam
-     * @return
-     */
-
-    private String generateShortLink(ShortLinkCreateReqDTO requestParam) {
-
-        for (int i = 0; i < 3; i++) {
-            String shorUri = HashUtil.hashToBase62(requestParam.getOriginUrl() + java.util.UUID.randomUUID());
-
-            // 判断是否唯一
-            if (!shortUriCreateCachePenetrationBloomFilter.contains(defaultDomain + "/" + shorUri)) {
-                return shorUri;
-            }
-
+        statsRecord.setFullShortUrl(fullShortUrl);
+        statsRecord.setGid(gid);
+        if (!shortLinkStatsQueue.offer(statsRecord)) {
+            log.debug("短链接统计缓冲区已满，丢弃统计记录：{}", fullShortUrl);
         }
+    }
 
-        throw new ServiceException("生成短链接频繁");
+    @Override
+    public void rebuildBloomFilter() {
+        gotoBloomFilterWriter.rebuild();
     }
 }
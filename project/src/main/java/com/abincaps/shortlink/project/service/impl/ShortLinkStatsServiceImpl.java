@@ -20,10 +20,15 @@ package com.abincaps.shortlink.project.service.impl;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateField;
+import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.text.csv.CsvWriter;
+import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.abincaps.shortlink.project.common.convention.exception.ServiceException;
 import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
 import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
 import com.abincaps.shortlink.project.dao.entity.LinkDeviceStatsDO;
@@ -38,8 +43,11 @@ import com.abincaps.shortlink.project.dao.mapper.LinkNetworkStatsMapper;
 import com.abincaps.shortlink.project.dao.mapper.LinkOsStatsMapper;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkGroupStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsAccessRecordExportReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsAccessRecordReqDTO;
 import com.abincaps.shortlink.project.dto.req.ShortLinkStatsReqDTO;
+import com.abincaps.shortlink.project.dto.req.ShortLinkStatsRollupBackfillReqDTO;
+import com.abincaps.shortlink.project.dto.resp.CursorPageRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsAccessDailyRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsAccessRecordRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsBrowserRespDTO;
@@ -50,17 +58,42 @@ import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsOsRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsTopIpRespDTO;
 import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsUvRespDTO;
+import com.abincaps.shortlink.project.segment.AccessLogQueryBackend;
 import com.abincaps.shortlink.project.service.ShortLinkStatsService;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsCache;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsRespMerger;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsRollupJob;
+import com.abincaps.shortlink.project.stats.ShortLinkStatsRollupReader;
+import com.abincaps.shortlink.project.stats.ShortLinkTopIpSketch;
+import com.abincaps.shortlink.project.stats.StatsQueryExecutor;
+import com.abincaps.shortlink.project.stats.StatsRollupAccumulator;
+import com.abincaps.shortlink.project.stats.StatsUniqueCounter;
+import com.abincaps.shortlink.project.stats.VisitorFirstSeenBackfillJob;
+import com.abincaps.shortlink.project.stats.VisitorFirstSeenIndex;
+import com.abincaps.shortlink.project.toolkit.PageCursor;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * 短链接监控接口实现层
@@ -70,6 +103,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RequiredArgsConstructor
 public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
 
+    private static final int EXPORT_FETCH_ROWS = 5000;
+    private static final String CREATE_TIME_SORT_TAG = "createTime";
+    private static final int TOP_IP_LIMIT = 5;
+
     private final LinkAccessStatsMapper linkAccessStatsMapper;
     private final LinkLocaleStatsMapper linkLocaleStatsMapper;
     private final LinkAccessLogsMapper linkAccessLogsMapper;
@@ -77,15 +114,76 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
     private final LinkOsStatsMapper linkOsStatsMapper;
     private final LinkDeviceStatsMapper linkDeviceStatsMapper;
     private final LinkNetworkStatsMapper linkNetworkStatsMapper;
+    private final StatsUniqueCounter statsUniqueCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final ShortLinkStatsRollupReader shortLinkStatsRollupReader;
+    private final ShortLinkStatsRollupJob shortLinkStatsRollupJob;
+    private final StatsQueryExecutor statsQueryExecutor;
+    private final ShortLinkStatsCache shortLinkStatsCache;
+    private final AccessLogQueryBackend accessLogQueryBackend;
+    private final VisitorFirstSeenIndex visitorFirstSeenIndex;
+    private final VisitorFirstSeenBackfillJob visitorFirstSeenBackfillJob;
+    private final ShortLinkTopIpSketch shortLinkTopIpSketch;
 
     @Override
     public ShortLinkStatsRespDTO oneShortLinkStats(ShortLinkStatsReqDTO requestParam) {
-        List<LinkAccessStatsDO> listStatsByShortLink = linkAccessStatsMapper.listStatsByShortLink(requestParam);
+        return cachedStats(ShortLinkStatsCache.linkTarget(requestParam.getFullShortUrl()), requestParam.getGid(),
+                requestParam.getStartDate(), requestParam.getEndDate(),
+                (startDate, endDate) -> {
+                    ShortLinkStatsReqDTO segmentParam = BeanUtil.toBean(requestParam, ShortLinkStatsReqDTO.class);
+                    segmentParam.setStartDate(startDate);
+                    segmentParam.setEndDate(endDate);
+                    return computeOneShortLinkStats(segmentParam);
+                },
+                each -> StatsUniqueCounter.uvKey(requestParam.getFullShortUrl(), each),
+                each -> StatsUniqueCounter.uipKey(requestParam.getFullShortUrl(), each));
+    }
+
+    private ShortLinkStatsRespDTO computeOneShortLinkStats(ShortLinkStatsReqDTO requestParam) {
+        boolean uniqueRetained = statsUniqueCounter.isRetained(DateUtil.parse(requestParam.getStartDate()));
+        // 各统计项查询互不依赖，并发执行，耗时取决于最慢的一项
+        StatsQueryExecutor.FanOut fanOut = statsQueryExecutor.fanOut();
+        CompletableFuture<List<LinkAccessStatsDO>> dailyFuture = fanOut.submit("daily", () -> linkAccessStatsMapper.listStatsByShortLink(requestParam), null);
+        // 日期范围均已汇总时读取汇总数据，否则为 null
+        CompletableFuture<StatsRollupAccumulator> rollupFuture = fanOut.submit("rollup", () -> shortLinkStatsRollupReader.read(requestParam.getGid(), requestParam.getFullShortUrl(),
+                DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate())), null);
+        CompletableFuture<LinkAccessStatsDO> uniqueFuture = uniqueRetained
+                ? fanOut.submit("pvUvUip", () -> countUniqueStats(requestParam.getStartDate(), requestParam.getEndDate(),
+                each -> StatsUniqueCounter.uvKey(requestParam.getFullShortUrl(), each),
+                each -> StatsUniqueCounter.uipKey(requestParam.getFullShortUrl(), each)), new LinkAccessStatsDO())
+                : rollupFuture.thenCompose(rollup -> rollup != null
+                ? CompletableFuture.completedFuture(toPvUvUipStats(rollup))
+                : fanOut.submit("pvUvUip", () -> accessLogQueryBackend.findPvUvUidStatsByShortLink(requestParam), new LinkAccessStatsDO()));
+        CompletableFuture<List<LinkLocaleStatsDO>> localeFuture = fanOut.submit("locale", () -> linkLocaleStatsMapper.listLocaleByShortLink(requestParam), List.of());
+        CompletableFuture<List<LinkAccessStatsDO>> hourFuture = fanOut.submit("hour", () -> linkAccessStatsMapper.listHourStatsByShortLink(requestParam), List.of());
+        // 优先合并每日高频 IP 估计，范围早于首个完整估计日期或没有估计数据时回退到汇总数据或访问日志
+        CompletableFuture<List<HashMap<String, Object>>> topIpFuture = fanOut.submit("topIpSketch", () -> shortLinkTopIpSketch.topIp(requestParam.getGid(), requestParam.getFullShortUrl(),
+                        DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate()), TOP_IP_LIMIT), null)
+                .thenCompose(sketchTopIps -> sketchTopIps != null
+                        ? CompletableFuture.completedFuture(toTopIpStats(sketchTopIps))
+                        : rollupFuture.thenCompose(rollup -> rollup != null
+                        ? CompletableFuture.completedFuture(toTopIpStats(rollup.topIps(TOP_IP_LIMIT)))
+                        : fanOut.submit("topIp", () -> accessLogQueryBackend.listTopIpByShortLink(requestParam), List.of())));
+        CompletableFuture<List<LinkAccessStatsDO>> weekdayFuture = fanOut.submit("weekday", () -> linkAccessStatsMapper.listWeekdayStatsByShortLink(requestParam), List.of());
+        CompletableFuture<List<HashMap<String, Object>>> browserFuture = fanOut.submit("browser", () -> linkBrowserStatsMapper.listBrowserStatsByShortLink(requestParam), List.of());
+        CompletableFuture<List<HashMap<String, Object>>> osFuture = fanOut.submit("os", () -> linkOsStatsMapper.listOsStatsByShortLink(requestParam), List.of());
+        CompletableFuture<Integer> uvTypeFuture = fanOut.submit("uvType", () -> visitorFirstSeenIndex.countNewVisitors(requestParam.getGid(), requestParam.getFullShortUrl(),
+                DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate())), null);
+        CompletableFuture<List<LinkDeviceStatsDO>> deviceFuture = fanOut.submit("device", () -> linkDeviceStatsMapper.listDeviceStatsByShortLink(requestParam), List.of());
+        CompletableFuture<List<LinkNetworkStatsDO>> networkFuture = fanOut.submit("network", () -> linkNetworkStatsMapper.listNetworkStatsByShortLink(requestParam), List.of());
+
+        List<LinkAccessStatsDO> listStatsByShortLink = dailyFuture.join();
+        if (listStatsByShortLink == null) {
+            throw new ServiceException("短链接监控数据查询超时");
+        }
         if (CollUtil.isEmpty(listStatsByShortLink)) {
             return null;
         }
         // 基础访问数据
-        LinkAccessStatsDO pvUvUidStatsByShortLink = linkAccessLogsMapper.findPvUvUidStatsByShortLink(requestParam);
+        LinkAccessStatsDO pvUvUidStatsByShortLink = uniqueFuture.join();
+        if (uniqueRetained) {
+            pvUvUidStatsByShortLink.setPv(listStatsByShortLink.stream().mapToInt(LinkAccessStatsDO::getPv).sum());
+        }
         // 基础访问详情
         List<ShortLinkStatsAccessDailyRespDTO> daily = new ArrayList<>();
         List<String> rangeDates = DateUtil.rangeToList(DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate()), DateField.DAY_OF_MONTH).stream()
@@ -113,7 +211,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                 }));
         // 地区访问详情（仅国内）
         List<ShortLinkStatsLocaleCNRespDTO> localeCnStats = new ArrayList<>();
-        List<LinkLocaleStatsDO> listedLocaleByShortLink = linkLocaleStatsMapper.listLocaleByShortLink(requestParam);
+        List<LinkLocaleStatsDO> listedLocaleByShortLink = localeFuture.join();
         int localeCnSum = listedLocaleByShortLink.stream()
                 .mapToInt(LinkLocaleStatsDO::getCnt)
                 .sum();
@@ -129,7 +227,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 小时访问详情
         List<Integer> hourStats = new ArrayList<>();
-        List<LinkAccessStatsDO> listHourStatsByShortLink = linkAccessStatsMapper.listHourStatsByShortLink(requestParam);
+        List<LinkAccessStatsDO> listHourStatsByShortLink = hourFuture.join();
         for (int i = 0; i < 24; i++) {
             AtomicInteger hour = new AtomicInteger(i);
             int hourCnt = listHourStatsByShortLink.stream()
@@ -141,7 +239,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         }
         // 高频访问IP详情
         List<ShortLinkStatsTopIpRespDTO> topIpStats = new ArrayList<>();
-        List<HashMap<String, Object>> listTopIpByShortLink = linkAccessLogsMapper.listTopIpByShortLink(requestParam);
+        List<HashMap<String, Object>> listTopIpByShortLink = topIpFuture.join();
         listTopIpByShortLink.forEach(each -> {
             ShortLinkStatsTopIpRespDTO statsTopIpRespDTO = ShortLinkStatsTopIpRespDTO.builder()
                     .ip(each.get("ip").toString())
@@ -151,7 +249,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 一周访问详情
         List<Integer> weekdayStats = new ArrayList<>();
-        List<LinkAccessStatsDO> listWeekdayStatsByShortLink = linkAccessStatsMapper.listWeekdayStatsByShortLink(requestParam);
+        List<LinkAccessStatsDO> listWeekdayStatsByShortLink = weekdayFuture.join();
         for (int i = 1; i < 8; i++) {
             AtomicInteger weekday = new AtomicInteger(i);
             int weekdayCnt = listWeekdayStatsByShortLink.stream()
@@ -163,7 +261,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         }
         // 浏览器访问详情
         List<ShortLinkStatsBrowserRespDTO> browserStats = new ArrayList<>();
-        List<HashMap<String, Object>> listBrowserStatsByShortLink = linkBrowserStatsMapper.listBrowserStatsByShortLink(requestParam);
+        List<HashMap<String, Object>> listBrowserStatsByShortLink = browserFuture.join();
         int browserSum = listBrowserStatsByShortLink.stream()
                 .mapToInt(each -> Integer.parseInt(each.get("count").toString()))
                 .sum();
@@ -179,7 +277,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 操作系统访问详情
         List<ShortLinkStatsOsRespDTO> osStats = new ArrayList<>();
-        List<HashMap<String, Object>> listOsStatsByShortLink = linkOsStatsMapper.listOsStatsByShortLink(requestParam);
+        List<HashMap<String, Object>> listOsStatsByShortLink = osFuture.join();
         int osSum = listOsStatsByShortLink.stream()
                 .mapToInt(each -> Integer.parseInt(each.get("count").toString()))
                 .sum();
@@ -193,21 +291,11 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                     .build();
             osStats.add(osRespDTO);
         });
-        // 访客访问类型详情
+        // 访客访问类型详情，新访客为首次访问日期在范围内的访客，其余独立访客为老访客
         List<ShortLinkStatsUvRespDTO> uvTypeStats = new ArrayList<>();
-        HashMap<String, Object> findUvTypeByShortLink = linkAccessLogsMapper.findUvTypeCntByShortLink(requestParam);
-        int oldUserCnt = Integer.parseInt(
-                Optional.ofNullable(findUvTypeByShortLink)
-                        .map(each -> each.get("oldUserCnt"))
-                        .map(Object::toString)
-                        .orElse("0")
-        );
-        int newUserCnt = Integer.parseInt(
-                Optional.ofNullable(findUvTypeByShortLink)
-                        .map(each -> each.get("newUserCnt"))
-                        .map(Object::toString)
-                        .orElse("0")
-        );
+        Integer newVisitorCnt = uvTypeFuture.join();
+        int newUserCnt = Optional.ofNullable(newVisitorCnt).orElse(0);
+        int oldUserCnt = newVisitorCnt == null ? 0 : Math.max(Optional.ofNullable(pvUvUidStatsByShortLink.getUv()).orElse(0) - newUserCnt, 0);
         int uvSum = oldUserCnt + newUserCnt;
         double oldRatio = (double) oldUserCnt / uvSum;
         double actualOldRatio = Math.round(oldRatio * 100.0) / 100.0;
@@ -227,7 +315,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         uvTypeStats.add(oldUvRespDTO);
         // 访问设备类型详情
         List<ShortLinkStatsDeviceRespDTO> deviceStats = new ArrayList<>();
-        List<LinkDeviceStatsDO> listDeviceStatsByShortLink = linkDeviceStatsMapper.listDeviceStatsByShortLink(requestParam);
+        List<LinkDeviceStatsDO> listDeviceStatsByShortLink = deviceFuture.join();
         int deviceSum = listDeviceStatsByShortLink.stream()
                 .mapToInt(LinkDeviceStatsDO::getCnt)
                 .sum();
@@ -243,7 +331,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 访问网络类型详情
         List<ShortLinkStatsNetworkRespDTO> networkStats = new ArrayList<>();
-        List<LinkNetworkStatsDO> listNetworkStatsByShortLink = linkNetworkStatsMapper.listNetworkStatsByShortLink(requestParam);
+        List<LinkNetworkStatsDO> listNetworkStatsByShortLink = networkFuture.join();
         int networkSum = listNetworkStatsByShortLink.stream()
                 .mapToInt(LinkNetworkStatsDO::getCnt)
                 .sum();
@@ -271,17 +359,67 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                 .uvTypeStats(uvTypeStats)
                 .deviceStats(deviceStats)
                 .networkStats(networkStats)
+                .degradedSections(fanOut.degradedSections())
                 .build();
     }
 
     @Override
     public ShortLinkStatsRespDTO groupShortLinkStats(ShortLinkGroupStatsReqDTO requestParam) {
-        List<LinkAccessStatsDO> listStatsByGroup = linkAccessStatsMapper.listStatsByGroup(requestParam);
+        return cachedStats(ShortLinkStatsCache.groupTarget(requestParam.getGid()), requestParam.getGid(),
+                requestParam.getStartDate(), requestParam.getEndDate(),
+                (startDate, endDate) -> {
+                    ShortLinkGroupStatsReqDTO segmentParam = BeanUtil.toBean(requestParam, ShortLinkGroupStatsReqDTO.class);
+                    segmentParam.setStartDate(startDate);
+                    segmentParam.setEndDate(endDate);
+                    return computeGroupShortLinkStats(segmentParam);
+                },
+                each -> StatsUniqueCounter.groupUvKey(requestParam.getGid(), each),
+                each -> StatsUniqueCounter.groupUipKey(requestParam.getGid(), each));
+    }
+
+    private ShortLinkStatsRespDTO computeGroupShortLinkStats(ShortLinkGroupStatsReqDTO requestParam) {
+        boolean uniqueRetained = statsUniqueCounter.isRetained(DateUtil.parse(requestParam.getStartDate()));
+        // 各统计项查询互不依赖，并发执行，耗时取决于最慢的一项
+        StatsQueryExecutor.FanOut fanOut = statsQueryExecutor.fanOut();
+        CompletableFuture<List<LinkAccessStatsDO>> dailyFuture = fanOut.submit("daily", () -> linkAccessStatsMapper.listStatsByGroup(requestParam), null);
+        // 日期范围均已汇总时读取汇总数据，否则为 null
+        CompletableFuture<StatsRollupAccumulator> rollupFuture = fanOut.submit("rollup", () -> shortLinkStatsRollupReader.read(requestParam.getGid(), null,
+                DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate())), null);
+        CompletableFuture<LinkAccessStatsDO> uniqueFuture = uniqueRetained
+                ? fanOut.submit("pvUvUip", () -> countUniqueStats(requestParam.getStartDate(), requestParam.getEndDate(),
+                each -> StatsUniqueCounter.groupUvKey(requestParam.getGid(), each),
+                each -> StatsUniqueCounter.groupUipKey(requestParam.getGid(), each)), new LinkAccessStatsDO())
+                : rollupFuture.thenCompose(rollup -> rollup != null
+                ? CompletableFuture.completedFuture(toPvUvUipStats(rollup))
+                : fanOut.submit("pvUvUip", () -> accessLogQueryBackend.findPvUvUidStatsByGroup(requestParam), new LinkAccessStatsDO()));
+        CompletableFuture<List<LinkLocaleStatsDO>> localeFuture = fanOut.submit("locale", () -> linkLocaleStatsMapper.listLocaleByGroup(requestParam), List.of());
+        CompletableFuture<List<LinkAccessStatsDO>> hourFuture = fanOut.submit("hour", () -> linkAccessStatsMapper.listHourStatsByGroup(requestParam), List.of());
+        // 优先合并每日高频 IP 估计，范围早于首个完整估计日期或没有估计数据时回退到汇总数据或访问日志
+        CompletableFuture<List<HashMap<String, Object>>> topIpFuture = fanOut.submit("topIpSketch", () -> shortLinkTopIpSketch.topIp(requestParam.getGid(), null,
+                        DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate()), TOP_IP_LIMIT), null)
+                .thenCompose(sketchTopIps -> sketchTopIps != null
+                        ? CompletableFuture.completedFuture(toTopIpStats(sketchTopIps))
+                        : rollupFuture.thenCompose(rollup -> rollup != null
+                        ? CompletableFuture.completedFuture(toTopIpStats(rollup.topIps(TOP_IP_LIMIT)))
+                        : fanOut.submit("topIp", () -> accessLogQueryBackend.listTopIpByGroup(requestParam), List.of())));
+        CompletableFuture<List<LinkAccessStatsDO>> weekdayFuture = fanOut.submit("weekday", () -> linkAccessStatsMapper.listWeekdayStatsByGroup(requestParam), List.of());
+        CompletableFuture<List<HashMap<String, Object>>> browserFuture = fanOut.submit("browser", () -> linkBrowserStatsMapper.listBrowserStatsByGroup(requestParam), List.of());
+        CompletableFuture<List<HashMap<String, Object>>> osFuture = fanOut.submit("os", () -> linkOsStatsMapper.listOsStatsByGroup(requestParam), List.of());
+        CompletableFuture<List<LinkDeviceStatsDO>> deviceFuture = fanOut.submit("device", () -> linkDeviceStatsMapper.listDeviceStatsByGroup(requestParam), List.of());
+        CompletableFuture<List<LinkNetworkStatsDO>> networkFuture = fanOut.submit("network", () -> linkNetworkStatsMapper.listNetworkStatsByGroup(requestParam), List.of());
+
+        List<LinkAccessStatsDO> listStatsByGroup = dailyFuture.join();
+        if (listStatsByGroup == null) {
+            throw new ServiceException("短链接监控数据查询超时");
+        }
         if (CollUtil.isEmpty(listStatsByGroup)) {
             return null;
         }
         // 基础访问数据
-        LinkAccessStatsDO pvUvUidStatsByGroup = linkAccessLogsMapper.findPvUvUidStatsByGroup(requestParam);
+        LinkAccessStatsDO pvUvUidStatsByGroup = uniqueFuture.join();
+        if (uniqueRetained) {
+            pvUvUidStatsByGroup.setPv(listStatsByGroup.stream().mapToInt(LinkAccessStatsDO::getPv).sum());
+        }
         // 基础访问详情
         List<ShortLinkStatsAccessDailyRespDTO> daily = new ArrayList<>();
         List<String> rangeDates = DateUtil.rangeToList(DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate()), DateField.DAY_OF_MONTH).stream()
@@ -309,7 +447,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                 }));
         // 地区访问详情（仅国内）
         List<ShortLinkStatsLocaleCNRespDTO> localeCnStats = new ArrayList<>();
-        List<LinkLocaleStatsDO> listedLocaleByGroup = linkLocaleStatsMapper.listLocaleByGroup(requestParam);
+        List<LinkLocaleStatsDO> listedLocaleByGroup = localeFuture.join();
         int localeCnSum = listedLocaleByGroup.stream()
                 .mapToInt(LinkLocaleStatsDO::getCnt)
                 .sum();
@@ -325,7 +463,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 小时访问详情
         List<Integer> hourStats = new ArrayList<>();
-        List<LinkAccessStatsDO> listHourStatsByGroup = linkAccessStatsMapper.listHourStatsByGroup(requestParam);
+        List<LinkAccessStatsDO> listHourStatsByGroup = hourFuture.join();
         for (int i = 0; i < 24; i++) {
             AtomicInteger hour = new AtomicInteger(i);
             int hourCnt = listHourStatsByGroup.stream()
@@ -337,7 +475,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         }
         // 高频访问IP详情
         List<ShortLinkStatsTopIpRespDTO> topIpStats = new ArrayList<>();
-        List<HashMap<String, Object>> listTopIpByGroup = linkAccessLogsMapper.listTopIpByGroup(requestParam);
+        List<HashMap<String, Object>> listTopIpByGroup = topIpFuture.join();
         listTopIpByGroup.forEach(each -> {
             ShortLinkStatsTopIpRespDTO statsTopIpRespDTO = ShortLinkStatsTopIpRespDTO.builder()
                     .ip(each.get("ip").toString())
@@ -347,7 +485,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 一周访问详情
         List<Integer> weekdayStats = new ArrayList<>();
-        List<LinkAccessStatsDO> listWeekdayStatsByGroup = linkAccessStatsMapper.listWeekdayStatsByGroup(requestParam);
+        List<LinkAccessStatsDO> listWeekdayStatsByGroup = weekdayFuture.join();
         for (int i = 1; i < 8; i++) {
             AtomicInteger weekday = new AtomicInteger(i);
             int weekdayCnt = listWeekdayStatsByGroup.stream()
@@ -359,7 +497,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         }
         // 浏览器访问详情
         List<ShortLinkStatsBrowserRespDTO> browserStats = new ArrayList<>();
-        List<HashMap<String, Object>> listBrowserStatsByGroup = linkBrowserStatsMapper.listBrowserStatsByGroup(requestParam);
+        List<HashMap<String, Object>> listBrowserStatsByGroup = browserFuture.join();
         int browserSum = listBrowserStatsByGroup.stream()
                 .mapToInt(each -> Integer.parseInt(each.get("count").toString()))
                 .sum();
@@ -375,7 +513,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 操作系统访问详情
         List<ShortLinkStatsOsRespDTO> osStats = new ArrayList<>();
-        List<HashMap<String, Object>> listOsStatsByGroup = linkOsStatsMapper.listOsStatsByGroup(requestParam);
+        List<HashMap<String, Object>> listOsStatsByGroup = osFuture.join();
         int osSum = listOsStatsByGroup.stream()
                 .mapToInt(each -> Integer.parseInt(each.get("count").toString()))
                 .sum();
@@ -391,7 +529,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 访问设备类型详情
         List<ShortLinkStatsDeviceRespDTO> deviceStats = new ArrayList<>();
-        List<LinkDeviceStatsDO> listDeviceStatsByGroup = linkDeviceStatsMapper.listDeviceStatsByGroup(requestParam);
+        List<LinkDeviceStatsDO> listDeviceStatsByGroup = deviceFuture.join();
         int deviceSum = listDeviceStatsByGroup.stream()
                 .mapToInt(LinkDeviceStatsDO::getCnt)
                 .sum();
@@ -407,7 +545,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
         });
         // 访问网络类型详情
         List<ShortLinkStatsNetworkRespDTO> networkStats = new ArrayList<>();
-        List<LinkNetworkStatsDO> listNetworkStatsByGroup = linkNetworkStatsMapper.listNetworkStatsByGroup(requestParam);
+        List<LinkNetworkStatsDO> listNetworkStatsByGroup = networkFuture.join();
         int networkSum = listNetworkStatsByGroup.stream()
                 .mapToInt(LinkNetworkStatsDO::getCnt)
                 .sum();
@@ -434,6 +572,7 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                 .osStats(osStats)
                 .deviceStats(deviceStats)
                 .networkStats(networkStats)
+                .degradedSections(fanOut.degradedSections())
                 .build();
     }
 
@@ -444,28 +583,20 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                 .eq(LinkAccessLogsDO::getFullShortUrl, requestParam.getFullShortUrl())
                 .between(LinkAccessLogsDO::getCreateTime, requestParam.getStartDate(), requestParam.getEndDate())
                 .eq(LinkAccessLogsDO::getDelFlag, 0)
-                .orderByDesc(LinkAccessLogsDO::getCreateTime);
-        IPage<LinkAccessLogsDO> linkAccessLogsDOIPage = linkAccessLogsMapper.selectPage(requestParam, queryWrapper);
-        IPage<ShortLinkStatsAccessRecordRespDTO> actualResult = linkAccessLogsDOIPage.convert(each -> BeanUtil.toBean(each, ShortLinkStatsAccessRecordRespDTO.class));
+                .orderByDesc(LinkAccessLogsDO::getCreateTime)
+                .orderByDesc(LinkAccessLogsDO::getId);
+        IPage<ShortLinkStatsAccessRecordRespDTO> actualResult = selectAccessRecordPage(requestParam, requestParam.getCursor(), queryWrapper);
         List<String> userAccessLogsList = actualResult.getRecords().stream()
                 .map(ShortLinkStatsAccessRecordRespDTO::getUser)
                 .toList();
-        List<Map<String, Object>> uvTypeList = linkAccessLogsMapper.selectUvTypeByUsers(
+        Map<String, String> uvTypes = visitorFirstSeenIndex.uvTypes(
                 requestParam.getGid(),
                 requestParam.getFullShortUrl(),
-                requestParam.getStartDate(),
-                requestParam.getEndDate(),
+                DateUtil.parse(requestParam.getStartDate()),
+                DateUtil.parse(requestParam.getEndDate()),
                 userAccessLogsList
         );
-        actualResult.getRecords().forEach(each -> {
-            String uvType = uvTypeList.stream()
-                    .filter(item -> Objects.equals(each.getUser(), item.get("user")))
-                    .findFirst()
-                    .map(item -> item.get("uvType"))
-                    .map(Object::toString)
-                    .orElse("旧访客");
-            each.setUvType(uvType);
-        });
+        actualResult.getRecords().forEach(each -> each.setUvType(uvTypes.getOrDefault(each.getUser(), "旧访客")));
         return actualResult;
     }
 
@@ -475,27 +606,224 @@ public class ShortLinkStatsServiceImpl implements ShortLinkStatsService {
                 .eq(LinkAccessLogsDO::getGid, requestParam.getGid())
                 .between(LinkAccessLogsDO::getCreateTime, requestParam.getStartDate(), requestParam.getEndDate())
                 .eq(LinkAccessLogsDO::getDelFlag, 0)
-                .orderByDesc(LinkAccessLogsDO::getCreateTime);
-        IPage<LinkAccessLogsDO> linkAccessLogsDOIPage = linkAccessLogsMapper.selectPage(requestParam, queryWrapper);
-        IPage<ShortLinkStatsAccessRecordRespDTO> actualResult = linkAccessLogsDOIPage.convert(each -> BeanUtil.toBean(each, ShortLinkStatsAccessRecordRespDTO.class));
+                .orderByDesc(LinkAccessLogsDO::getCreateTime)
+                .orderByDesc(LinkAccessLogsDO::getId);
+        IPage<ShortLinkStatsAccessRecordRespDTO> actualResult = selectAccessRecordPage(requestParam, requestParam.getCursor(), queryWrapper);
         List<String> userAccessLogsList = actualResult.getRecords().stream()
                 .map(ShortLinkStatsAccessRecordRespDTO::getUser)
                 .toList();
-        List<Map<String, Object>> uvTypeList = linkAccessLogsMapper.selectGroupUvTypeByUsers(
+        Map<String, String> uvTypes = visitorFirstSeenIndex.uvTypes(
                 requestParam.getGid(),
-                requestParam.getStartDate(),
-                requestParam.getEndDate(),
+                null,
+                DateUtil.parse(requestParam.getStartDate()),
+                DateUtil.parse(requestParam.getEndDate()),
                 userAccessLogsList
         );
-        actualResult.getRecords().forEach(each -> {
-            String uvType = uvTypeList.stream()
-                    .filter(item -> Objects.equals(each.getUser(), item.get("user")))
-                    .findFirst()
-                    .map(item -> item.get("uvType"))
-                    .map(Object::toString)
-                    .orElse("旧访客");
-            each.setUvType(uvType);
-        });
+        actualResult.getRecords().forEach(each -> each.setUvType(uvTypes.getOrDefault(each.getUser(), "旧访客")));
         return actualResult;
     }
+
+    /**
+     * 分页查询访问记录，传入游标时按 (create_time, id) 从上一页最后一条记录之后读取，不执行 COUNT 查询
+     */
+    private IPage<ShortLinkStatsAccessRecordRespDTO> selectAccessRecordPage(IPage<LinkAccessLogsDO> page, String cursor, LambdaQueryWrapper<LinkAccessLogsDO> queryWrapper) {
+        if (cursor == null) {
+            return linkAccessLogsMapper.selectPage(page, queryWrapper)
+                    .convert(each -> BeanUtil.toBean(each, ShortLinkStatsAccessRecordRespDTO.class));
+        }
+        PageCursor pageCursor = PageCursor.decode(cursor, CREATE_TIME_SORT_TAG);
+        if (pageCursor != null) {
+            Date cursorTime = new Date(pageCursor.value());
+            queryWrapper.and(wrapper -> wrapper
+                    .lt(LinkAccessLogsDO::getCreateTime, cursorTime)
+                    .or(each -> each.eq(LinkAccessLogsDO::getCreateTime, cursorTime).lt(LinkAccessLogsDO::getId, pageCursor.id())));
+        }
+        List<LinkAccessLogsDO> records = linkAccessLogsMapper.selectPage(new Page<>(1, page.getSize(), false), queryWrapper).getRecords();
+
+        String nextCursor = null;
+        if (!records.isEmpty() && records.size() >= page.getSize()) {
+            LinkAccessLogsDO last = records.get(records.size() - 1);
+            nextCursor = new PageCursor(CREATE_TIME_SORT_TAG, last.getCreateTime().getTime(), last.getId()).encode();
+        }
+        List<ShortLinkStatsAccessRecordRespDTO> actualRecords = records.stream()
+                .map(each -> BeanUtil.toBean(each, ShortLinkStatsAccessRecordRespDTO.class))
+                .toList();
+        return new CursorPageRespDTO<>(actualRecords, page.getSize(), nextCursor);
+    }
+
+    @SneakyThrows
+    @Override
+    public void exportStatsAccessRecord(ShortLinkStatsAccessRecordExportReqDTO requestParam, OutputStream outputStream) {
+        String fullShortUrl = StrUtil.emptyToNull(requestParam.getFullShortUrl());
+        Date startTime = DateUtil.beginOfDay(DateUtil.parse(requestParam.getStartDate()));
+        Date endTime = DateUtil.endOfDay(DateUtil.parse(requestParam.getEndDate()));
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        // 写入 BOM，便于表格软件识别编码
+        writer.write('\uFEFF');
+        CsvWriter csvWriter = new CsvWriter(writer);
+        csvWriter.writeLine("访问时间", "完整短链接", "访客", "IP", "地区", "浏览器", "操作系统", "设备", "网络");
+
+        // 按 (create_time, id) 键集分批读取，每批在独立的只读游标中流式写出，不使用 OFFSET
+        LinkAccessLogsDO last = null;
+        int fetched;
+        do {
+            Date lastCreateTime = last == null ? null : last.getCreateTime();
+            Long lastId = last == null ? null : last.getId();
+            LinkAccessLogsDO[] batchLast = new LinkAccessLogsDO[1];
+            fetched = Optional.ofNullable(transactionTemplate.execute(status -> {
+                int count = 0;
+                try (Cursor<LinkAccessLogsDO> cursor = linkAccessLogsMapper.cursorAccessRecord(
+                        requestParam.getGid(), fullShortUrl, startTime, endTime, lastCreateTime, lastId, EXPORT_FETCH_ROWS)) {
+                    for (LinkAccessLogsDO each : cursor) {
+                        csvWriter.writeLine(
+                                DateUtil.formatDateTime(each.getCreateTime()),
+                                each.getFullShortUrl(),
+                                each.getUser(),
+                                each.getIp(),
+                                each.getLocale(),
+                                each.getBrowser(),
+                                each.getOs(),
+                                each.getDevice(),
+                                each.getNetwork()
+                        );
+                        batchLast[0] = each;
+                        count++;
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return count;
+            })).orElse(0);
+            last = batchLast[0];
+            csvWriter.flush();
+        } while (fetched == EXPORT_FETCH_ROWS);
+    }
+
+    /**
+     * 查询监控结果，已结束日期的结果读取缓存
+     * 日期范围包含今日时拆分为历史与今日两段，历史段读取缓存，今日段实时查询后合并，完整范围的 UV、UIP 由每日 HyperLogLog 合并计算
+     *
+     * @param target       缓存对象
+     * @param gid          分组标识
+     * @param startDate    开始日期
+     * @param endDate      结束日期
+     * @param loader       按日期范围查询监控结果
+     * @param uvKeyMapper  每日访问用户 HyperLogLog Key
+     * @param uipKeyMapper 每日访问 IP HyperLogLog Key
+     */
+    private ShortLinkStatsRespDTO cachedStats(String target, String gid, String startDate, String endDate,
+                                              BiFunction<String, String, ShortLinkStatsRespDTO> loader,
+                                              Function<Date, String> uvKeyMapper, Function<Date, String> uipKeyMapper) {
+        if (!shortLinkStatsCache.isEnabled()) {
+            return loader.apply(startDate, endDate);
+        }
+        Date start = DateUtil.parse(startDate);
+        Date liveStart = shortLinkStatsCache.liveStartDate();
+        if (DateUtil.parse(endDate).before(liveStart)) {
+            return historyStats(target, gid, startDate, endDate, loader);
+        }
+        // 超出 HyperLogLog 保留期时无法合并计算完整范围的 UV、UIP，不拆分
+        if (!start.before(liveStart) || !statsUniqueCounter.isRetained(start)) {
+            return loader.apply(startDate, endDate);
+        }
+        String historyEndDate = DateUtil.formatDate(DateUtil.offsetDay(liveStart, -1));
+        String liveStartDate = DateUtil.formatDate(liveStart);
+        ShortLinkStatsRespDTO history = historyStats(target, gid, startDate, historyEndDate, loader);
+        ShortLinkStatsRespDTO live = loader.apply(liveStartDate, endDate);
+        if (history == null && live == null) {
+            return null;
+        }
+        LinkAccessStatsDO unique = countUniqueStats(startDate, endDate, uvKeyMapper, uipKeyMapper);
+        return ShortLinkStatsRespMerger.merge(
+                Optional.ofNullable(history).orElseGet(() -> emptyStats(startDate, historyEndDate)),
+                Optional.ofNullable(live).orElseGet(() -> emptyStats(liveStartDate, endDate)),
+                unique.getUv(),
+                unique.getUip(),
+                TOP_IP_LIMIT
+        );
+    }
+
+    /**
+     * 查询已结束日期范围的监控结果，优先读取缓存，存在超时统计项的结果不缓存
+     */
+    private ShortLinkStatsRespDTO historyStats(String target, String gid, String startDate, String endDate,
+                                               BiFunction<String, String, ShortLinkStatsRespDTO> loader) {
+        String cacheKey = shortLinkStatsCache.cacheKey(target, gid, startDate, endDate);
+        ShortLinkStatsRespDTO cached = shortLinkStatsCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        ShortLinkStatsRespDTO result = loader.apply(startDate, endDate);
+        if (result != null && CollUtil.isEmpty(result.getDegradedSections())) {
+            shortLinkStatsCache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * 无访问数据的日期范围，每日访问数据均为 0
+     */
+    private static ShortLinkStatsRespDTO emptyStats(String startDate, String endDate) {
+        List<ShortLinkStatsAccessDailyRespDTO> daily = DateUtil.rangeToList(DateUtil.parse(startDate), DateUtil.parse(endDate), DateField.DAY_OF_MONTH).stream()
+                .map(each -> ShortLinkStatsAccessDailyRespDTO.builder()
+                        .date(DateUtil.formatDate(each))
+                        .pv(0)
+                        .uv(0)
+                        .uip(0)
+                        .build())
+                .toList();
+        return ShortLinkStatsRespDTO.builder()
+                .pv(0)
+                .daily(daily)
+                .build();
+    }
+
+    /**
+     * 统计日期范围内的 UV、UIP
+     * 由每日 HyperLogLog 合并计算，避免扫描访问日志，PV 由调用方取每日统计之和
+     */
+    private LinkAccessStatsDO countUniqueStats(String startDate, String endDate,
+                                               Function<Date, String> uvKeyMapper, Function<Date, String> uipKeyMapper) {
+        List<DateTime> rangeDates = DateUtil.rangeToList(DateUtil.parse(startDate), DateUtil.parse(endDate), DateField.DAY_OF_MONTH);
+        long[] unique = statsUniqueCounter.countRange(
+                rangeDates.stream().map(uvKeyMapper).toList(),
+                rangeDates.stream().map(uipKeyMapper).toList()
+        );
+        return LinkAccessStatsDO.builder()
+                .uv((int) unique[0])
+                .uip((int) unique[1])
+                .build();
+    }
+
+    @Override
+    public void backfillStatsRollup(ShortLinkStatsRollupBackfillReqDTO requestParam) {
+        shortLinkStatsRollupJob.backfill(DateUtil.parse(requestParam.getStartDate()), DateUtil.parse(requestParam.getEndDate()));
+    }
+
+    @Override
+    public void backfillVisitorFirstSeen() {
+        visitorFirstSeenBackfillJob.backfill();
+    }
+
+    private static LinkAccessStatsDO toPvUvUipStats(StatsRollupAccumulator rollup) {
+        return LinkAccessStatsDO.builder()
+                .pv((int) rollup.getPv())
+                .uv((int) rollup.getUv())
+                .uip((int) rollup.getUip())
+                .build();
+    }
+
+    /**
+     * 将汇总数据或估计中的高频 IP 转换为与明细查询相同的结构
+     */
+    private static List<HashMap<String, Object>> toTopIpStats(Map<String, Long> topIps) {
+        List<HashMap<String, Object>> result = new ArrayList<>();
+        topIps.forEach((ip, count) -> {
+            HashMap<String, Object> each = new HashMap<>();
+            each.put("ip", ip);
+            each.put("count", count);
+            result.add(each);
+        });
+        return result;
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.collection.ListUtil;
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessLogsMapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志批量写入器
+ * 聚合窗口内的访问日志按分表维度排序后分段执行多行 INSERT，与窗口内其他统计数据在同一事务内提交；
+ * 写入时机由聚合窗口的时长与访问日志数量上限决定
+ */
+@Component
+@RequiredArgsConstructor
+public class LinkAccessLogsBatchWriter implements InitializingBean {
+
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final LinkAccessLogsMapper linkAccessLogsMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Timer flushTimer;
+    private Counter rowsCounter;
+
+    @Override
+    public void afterPropertiesSet() {
+        flushTimer = meterRegistry.timer("short-link.stats.access-log.flush");
+        rowsCounter = Counter.builder("short-link.stats.access-log.rows").baseUnit("rows").register(meterRegistry);
+    }
+
+    /**
+     * 写入访问日志，需在调用方事务内执行
+     *
+     * @param accessLogs 访问日志
+     */
+    public void write(List<LinkAccessLogsDO> accessLogs) {
+        if (accessLogs.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<LinkAccessLogsDO> rows = new ArrayList<>(accessLogs);
+        // 同一实际表的行相邻，每条语句拆分到的实际表更少
+        rows.sort(Comparator.comparing(LinkAccessLogsDO::getGid).thenComparing(LinkAccessLogsDO::getCreateTime));
+        // 自定义 INSERT 不经过 MyBatis-Plus 主键填充
+        rows.forEach(each -> {
+            if (each.getId() == null) {
+                each.setId(IdWorker.getId());
+            }
+        });
+        ListUtil.partition(rows, statsPipelineConfig.getAccessLogBatchRows()).forEach(linkAccessLogsMapper::insertBatch);
+        flushTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rowsCounter.increment(rows.size());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DateUtil;
+import com.abincaps.shortlink.project.config.StatsCacheConfig;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsRespDTO;
+import com.alibaba.fastjson2.JSON;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_CACHE_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_CACHE_VERSION_KEY;
+
+/**
+ * 短链接监控结果缓存
+ * 仅缓存已结束日期的监控结果；缓存 Key 带有缓存对象的版本号，短链接变更分组或被删除时递增版本号，原有缓存随之失效并自然过期
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsCache {
+
+    private final StatsCacheConfig statsCacheConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 单个短链接的缓存对象
+     */
+    public static String linkTarget(String fullShortUrl) {
+        return "link:" + fullShortUrl;
+    }
+
+    /**
+     * 分组的缓存对象
+     */
+    public static String groupTarget(String gid) {
+        return "group:" + gid;
+    }
+
+    public boolean isEnabled() {
+        return statsCacheConfig.getEnable();
+    }
+
+    /**
+     * 实时查询的起始日期，此前的日期数据不再变化
+     */
+    public Date liveStartDate() {
+        return DateUtil.beginOfDay(DateUtil.offsetMinute(new Date(), -statsCacheConfig.getCloseDelayMinutes().intValue()));
+    }
+
+    /**
+     * 生成缓存 Key，读取与写入使用同一个 Key，计算期间缓存失效时结果写入旧版本 Key，不会被读到
+     *
+     * @return 缓存 Key，读取缓存版本失败时返回 null
+     */
+    public String cacheKey(String target, String gid, String startDate, String endDate) {
+        try {
+            String version = Optional.ofNullable(stringRedisTemplate.opsForValue().get(String.format(SHORT_LINK_STATS_CACHE_VERSION_KEY, target)))
+                    .orElse("0");
+            return String.format(SHORT_LINK_STATS_CACHE_KEY, target, version, gid, startDate, endDate);
+        } catch (Exception ex) {
+            log.warn("读取短链接监控结果缓存版本失败，缓存对象：{}", target, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 读取缓存的监控结果
+     *
+     * @return 监控结果，未缓存或读取失败时返回 null
+     */
+    public ShortLinkStatsRespDTO get(String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        try {
+            String value = stringRedisTemplate.opsForValue().get(cacheKey);
+            return value == null ? null : JSON.parseObject(value, ShortLinkStatsRespDTO.class);
+        } catch (Exception ex) {
+            log.warn("读取短链接监控结果缓存失败：{}", cacheKey, ex);
+            return null;
+        }
+    }
+
+    public void put(String cacheKey, ShortLinkStatsRespDTO value) {
+        if (cacheKey == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForValue().set(cacheKey, JSON.toJSONString(value), statsCacheConfig.getTtlHours(), TimeUnit.HOURS);
+        } catch (Exception ex) {
+            log.warn("写入短链接监控结果缓存失败：{}", cacheKey, ex);
+        }
+    }
+
+    /**
+     * 使缓存对象的全部监控结果失效
+     */
+    public void invalidate(String target) {
+        stringRedisTemplate.opsForValue().increment(String.format(SHORT_LINK_STATS_CACHE_VERSION_KEY, target));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.collection.ListUtil;
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkBrowserStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkDeviceStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkLocaleStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkNetworkStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkOsStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkStatsTodayMapper;
+import com.abincaps.shortlink.project.dao.entity.ShortLinkGotoDO;
+import com.abincaps.shortlink.project.dao.mapper.ShortLinkGotoMapper;
+import com.abincaps.shortlink.project.dao.mapper.ShortLinkMapper;
+import com.abincaps.shortlink.project.segment.ClickSegmentStore;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 短链接访问统计窗口刷新器
+ * 每张统计表按唯一键排序后分段执行多行 upsert，整个窗口在同一事务内提交
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsFlusher {
+
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final StatsUniqueCounter statsUniqueCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final ShortLinkMapper shortLinkMapper;
+    private final ShortLinkGotoMapper shortLinkGotoMapper;
+    private final LinkAccessStatsMapper linkAccessStatsMapper;
+    private final LinkLocaleStatsMapper linkLocaleStatsMapper;
+    private final LinkOsStatsMapper linkOsStatsMapper;
+    private final LinkBrowserStatsMapper linkBrowserStatsMapper;
+    private final LinkAccessLogsBatchWriter linkAccessLogsBatchWriter;
+    private final LinkDeviceStatsMapper linkDeviceStatsMapper;
+    private final LinkNetworkStatsMapper linkNetworkStatsMapper;
+    private final LinkStatsTodayMapper linkStatsTodayMapper;
+    private final ShortLinkStatsRanking shortLinkStatsRanking;
+    private final ClickSegmentStore clickSegmentStore;
+    private final VisitorFirstSeenIndex visitorFirstSeenIndex;
+    private final ShortLinkTopIpSketch shortLinkTopIpSketch;
+
+    /**
+     * 刷新窗口内的聚合数据
+     *
+     * @param window 聚合窗口
+     */
+    public void flush(ShortLinkStatsWindow window) {
+        if (window.isEmpty()) {
+            return;
+        }
+        List<StatsUniqueCounter.PendingMerge> pendingMerges = statsUniqueCounter.count(window);
+        try {
+            persist(window);
+        } catch (RuntimeException ex) {
+            try {
+                statsUniqueCounter.discard(pendingMerges);
+            } catch (Exception discardEx) {
+                log.warn("丢弃短链接每日 UV、UIP 临时 HyperLogLog 失败，过期后自动失效", discardEx);
+            }
+            throw ex;
+        }
+        try {
+            statsUniqueCounter.merge(pendingMerges);
+        } catch (Exception ex) {
+            log.warn("合并短链接每日 UV、UIP HyperLogLog 失败", ex);
+        }
+        try {
+            shortLinkStatsRanking.increment(window);
+        } catch (Exception ex) {
+            log.warn("更新短链接排行榜失败，偏差由一致性校验修正", ex);
+        }
+        if (clickSegmentStore.isEnabled()) {
+            try {
+                clickSegmentStore.append(window.getAccessLogs());
+            } catch (Exception ex) {
+                log.warn("访问事件写入本地列式存储失败", ex);
+            }
+        }
+    }
+
+    /**
+     * 在一个事务内写入聚合统计、访问日志及索引
+     */
+    private void persist(ShortLinkStatsWindow window) {
+        transactionTemplate.executeWithoutResult(status -> {
+            upsert(window.getAccessStats(), each -> each.getFullShortUrl() + each.getDate() + each.getHour(), linkAccessStatsMapper::shortLinkStatsBatch);
+            upsert(window.getLocaleStats(), each -> each.getFullShortUrl() + each.getDate() + each.getAdcode(), linkLocaleStatsMapper::shortLinkLocaleStateBatch);
+            upsert(window.getOsStats(), each -> each.getFullShortUrl() + each.getDate() + each.getOs(), linkOsStatsMapper::shortLinkOsStateBatch);
+            upsert(window.getBrowserStats(), each -> each.getFullShortUrl() + each.getDate() + each.getBrowser(), linkBrowserStatsMapper::shortLinkBrowserStateBatch);
+            upsert(window.getDeviceStats(), each -> each.getFullShortUrl() + each.getDate() + each.getDevice(), linkDeviceStatsMapper::shortLinkDeviceStateBatch);
+            upsert(window.getNetworkStats(), each -> each.getFullShortUrl() + each.getDate() + each.getNetwork(), linkNetworkStatsMapper::shortLinkNetworkStateBatch);
+            upsert(window.getTodayStats(), each -> each.getFullShortUrl() + each.getDate(), linkStatsTodayMapper::shortLinkTodayStateBatch);
+            window.forEachTotal(this::incrementStats);
+            linkAccessLogsBatchWriter.write(window.getAccessLogs());
+            visitorFirstSeenIndex.record(window);
+            shortLinkTopIpSketch.record(window);
+        });
+    }
+
+    /**
+     * 累加短链接总访问量，消费者缓存的分组已过期（短链接变更分组）时按跳转路由表重新解析分组后重试
+     */
+    private void incrementStats(String gid, String fullShortUrl, int[] total) {
+        if (shortLinkMapper.incrementStats(gid, fullShortUrl, total[0], total[1], total[2]) > 0) {
+            return;
+        }
+        ShortLinkGotoDO shortLinkGotoDO = shortLinkGotoMapper.selectOne(
+                Wrappers.lambdaQuery(ShortLinkGotoDO.class).eq(ShortLinkGotoDO::getFullShortUrl, fullShortUrl));
+        if (shortLinkGotoDO == null || Objects.equals(shortLinkGotoDO.getGid(), gid)) {
+            log.warn("短链接总访问量累加未命中记录，短链接：{}，分组：{}", fullShortUrl, gid);
+            return;
+        }
+        shortLinkMapper.incrementStats(shortLinkGotoDO.getGid(), fullShortUrl, total[0], total[1], total[2]);
+    }
+
+    /**
+     * 按唯一键排序后分段写入，多个处理线程以相同顺序加锁，避免行锁死锁
+     */
+    private <T> void upsert(Collection<T> rows, Function<T, String> sortKey, Consumer<List<T>> batchUpsert) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<T> sortedRows = new ArrayList<>(rows);
+        sortedRows.sort(Comparator.comparing(sortKey));
+        ListUtil.partition(sortedRows, statsPipelineConfig.getFlushBatchRows()).forEach(batchUpsert);
+    }
+}
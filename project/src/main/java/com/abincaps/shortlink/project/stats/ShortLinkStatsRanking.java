@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.lang.UUID;
+import com.abincaps.shortlink.project.config.StatsRankingConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkStatsTodayDO;
+import com.abincaps.shortlink.project.dao.entity.ShortLinkDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkStatsTodayMapper;
+import com.abincaps.shortlink.project.dao.mapper.ShortLinkMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.DefaultStringTuple;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.StringRedisConnection.StringTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_RANK_KEY;
+
+/**
+ * 短链接今日及累计访问排行榜
+ * 每个分组、统计周期、指标对应一个有序集合，成员为完整短链接，分值为 PV、UV 或 UIP；
+ * 排行榜首次查询时从数据库单表构建，之后由统计刷新器在落库后增量更新，按访问数据排序分页无需关联今日统计表。
+ * 同分时按完整短链接倒序排列
+ */
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsRanking {
+
+    /**
+     * 累计排行榜统计周期
+     */
+    public static final String TOTAL_PERIOD = "total";
+
+    private static final String[] TODAY_TAGS = {"todayPv", "todayUv", "todayUip"};
+    private static final String[] TOTAL_TAGS = {"totalPv", "totalUv", "totalUip"};
+
+    private static final long TODAY_TTL_SECONDS = TimeUnit.DAYS.toSeconds(2);
+    private static final long TEMP_KEY_TTL_SECONDS = 300L;
+    private static final int BATCH_SIZE = 500;
+
+    private static final String OP_INCR = "incr";
+    private static final String OP_SET = "set";
+    private static final String OP_REM = "rem";
+
+    private static final String RANK_UPDATE_LUA_SCRIPT_PATH = "lua/short_link_stats_rank_update.lua";
+
+    private static final DefaultRedisScript<Long> RANK_UPDATE_SCRIPT;
+
+    static {
+        RANK_UPDATE_SCRIPT = new DefaultRedisScript<>();
+        RANK_UPDATE_SCRIPT.setScriptSource(new ResourceScriptSource(new ClassPathResource(RANK_UPDATE_LUA_SCRIPT_PATH)));
+        RANK_UPDATE_SCRIPT.setResultType(Long.class);
+    }
+
+    private final StatsRankingConfig statsRankingConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ShortLinkMapper shortLinkMapper;
+    private final LinkStatsTodayMapper linkStatsTodayMapper;
+
+    /**
+     * 排行榜 Key
+     *
+     * @param gid      分组标识
+     * @param period   统计周期，今日为 yyyyMMdd，累计为 total
+     * @param orderTag 排序标识
+     */
+    public static String rankKey(String gid, String period, String orderTag) {
+        return String.format(SHORT_LINK_STATS_RANK_KEY, gid, period, orderTag);
+    }
+
+    /**
+     * 某日对应的统计周期
+     */
+    public static String datePeriod(Date date) {
+        return DateUtil.format(date, DatePattern.PURE_DATE_PATTERN);
+    }
+
+    /**
+     * 统计周期下的全部排序标识，顺序与 {@link #snapshot(String, String)} 中的指标顺序一致
+     */
+    public static String[] orderTags(String period) {
+        return TOTAL_PERIOD.equals(period) ? TOTAL_TAGS : TODAY_TAGS;
+    }
+
+    /**
+     * 排序标识是否由排行榜提供
+     */
+    public boolean supports(String orderTag) {
+        return statsRankingConfig.getEnable() && periodOf(orderTag) != null;
+    }
+
+    /**
+     * 分页查询排行榜，排行榜不存在时先从数据库构建
+     *
+     * @param gid      分组标识
+     * @param orderTag 排序标识
+     * @param current  当前页
+     * @param size     每页数量
+     * @return 排行榜总成员数及当前页完整短链接
+     */
+    public RankingPage page(String gid, String orderTag, long current, long size) {
+        String period = periodOf(orderTag);
+        String key = rankKey(gid, period, orderTag);
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            build(gid, period);
+        }
+        long start = (Math.max(current, 1L) - 1) * size;
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            stringRedisConnection.zCard(key);
+            stringRedisConnection.zRevRange(key, start, start + size - 1);
+            if (TOTAL_PERIOD.equals(period)) {
+                stringRedisConnection.expire(key, TimeUnit.HOURS.toSeconds(statsRankingConfig.getTotalTtlHours()));
+            }
+            return null;
+        });
+        long total = Optional.ofNullable((Long) results.get(0)).orElse(0L);
+        List<String> fullShortUrls = new ArrayList<>();
+        if (results.get(1) instanceof Collection<?> members) {
+            members.forEach(each -> fullShortUrls.add(each.toString()));
+        }
+        return new RankingPage(total, fullShortUrls);
+    }
+
+    /**
+     * 窗口落库后将今日及累计增量写入已存在的排行榜
+     *
+     * @param window 已落库的聚合窗口
+     */
+    public void increment(ShortLinkStatsWindow window) {
+        if (!statsRankingConfig.getEnable()) {
+            return;
+        }
+        List<RankUpdate> updates = new ArrayList<>();
+        window.getTodayStats().forEach(each -> {
+            String period = datePeriod(each.getDate());
+            addIfNotZero(updates, rankKey(each.getGid(), period, TODAY_TAGS[0]), each.getFullShortUrl(), each.getTodayPv());
+            addIfNotZero(updates, rankKey(each.getGid(), period, TODAY_TAGS[1]), each.getFullShortUrl(), each.getTodayUv());
+            addIfNotZero(updates, rankKey(each.getGid(), period, TODAY_TAGS[2]), each.getFullShortUrl(), each.getTodayUip());
+        });
+        window.forEachTotal((gid, fullShortUrl, total) -> {
+            for (int i = 0; i < TOTAL_TAGS.length; i++) {
+                addIfNotZero(updates, rankKey(gid, TOTAL_PERIOD, TOTAL_TAGS[i]), fullShortUrl, total[i]);
+            }
+        });
+        execute(OP_INCR, updates);
+    }
+
+    /**
+     * 新建短链接以零分加入分组已存在的排行榜
+     *
+     * @param gid           分组标识
+     * @param fullShortUrls 完整短链接
+     */
+    public void addLinks(String gid, Collection<String> fullShortUrls) {
+        if (!statsRankingConfig.getEnable()) {
+            return;
+        }
+        execute(OP_INCR, linkUpdates(gid, fullShortUrls));
+    }
+
+    /**
+     * 从分组已存在的排行榜中移除短链接
+     *
+     * @param gid           分组标识
+     * @param fullShortUrls 完整短链接
+     */
+    public void removeLinks(String gid, Collection<String> fullShortUrls) {
+        execute(OP_REM, linkUpdates(gid, fullShortUrls));
+    }
+
+    /**
+     * 删除分组的今日及累计排行榜，下次查询时重新构建
+     *
+     * @param gid 分组标识
+     */
+    public void invalidate(String gid) {
+        if (!statsRankingConfig.getEnable()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        String todayPeriod = datePeriod(new Date());
+        for (String each : TODAY_TAGS) {
+            keys.add(rankKey(gid, todayPeriod, each));
+        }
+        for (String each : TOTAL_TAGS) {
+            keys.add(rankKey(gid, TOTAL_PERIOD, each));
+        }
+        stringRedisTemplate.delete(keys);
+    }
+
+    /**
+     * 读取排行榜全部成员及分值，排行榜不存在时返回空集合
+     */
+    public Map<String, Long> scores(String key) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet().rangeWithScores(key, 0, -1);
+        Map<String, Long> scores = new HashMap<>();
+        if (tuples != null) {
+            tuples.forEach(each -> scores.put(each.getValue(), each.getScore() == null ? 0L : each.getScore().longValue()));
+        }
+        return scores;
+    }
+
+    /**
+     * 设置已存在排行榜中的成员分值
+     */
+    public void set(List<RankUpdate> updates) {
+        execute(OP_SET, updates);
+    }
+
+    /**
+     * 移除已存在排行榜中的成员
+     */
+    public void remove(List<RankUpdate> updates) {
+        execute(OP_REM, updates);
+    }
+
+    /**
+     * 从数据库读取分组有效短链接在统计周期内的 PV、UV、UIP，只查询单表
+     *
+     * @param gid    分组标识
+     * @param period 统计周期
+     * @return 完整短链接与 [pv, uv, uip] 的映射
+     */
+    public Map<String, long[]> snapshot(String gid, String period) {
+        boolean total = TOTAL_PERIOD.equals(period);
+        LambdaQueryWrapper<ShortLinkDO> queryWrapper = Wrappers.lambdaQuery(ShortLinkDO.class)
+                .select(ShortLinkDO::getDomain, ShortLinkDO::getShortUri, ShortLinkDO::getFullShortUrl, ShortLinkDO::getTotalPv, ShortLinkDO::getTotalUv, ShortLinkDO::getTotalUip)
+                .eq(ShortLinkDO::getGid, gid)
+                .eq(ShortLinkDO::getEnableStatus, 0)
+                .eq(ShortLinkDO::getDelFlag, 0);
+        Map<String, long[]> snapshot = new HashMap<>();
+        for (ShortLinkDO each : shortLinkMapper.selectList(queryWrapper)) {
+            // 未回填完整短链接的历史数据由域名与后缀拼接，无法拼接的跳过
+            String fullShortUrl = each.getFullShortUrl() != null ? each.getFullShortUrl()
+                    : each.getDomain() != null && each.getShortUri() != null ? each.getDomain() + "/" + each.getShortUri() : null;
+            if (fullShortUrl == null) {
+                continue;
+            }
+            snapshot.put(fullShortUrl, total
+                    ? new long[]{valueOf(each.getTotalPv()), valueOf(each.getTotalUv()), valueOf(each.getTotalUip())}
+                    : new long[3]);
+        }
+        if (total || snapshot.isEmpty()) {
+            return snapshot;
+        }
+        LambdaQueryWrapper<LinkStatsTodayDO> todayQueryWrapper = Wrappers.lambdaQuery(LinkStatsTodayDO.class)
+                .eq(LinkStatsTodayDO::getGid, gid)
+                .eq(LinkStatsTodayDO::getDate, DateUtil.parse(period, DatePattern.PURE_DATE_PATTERN));
+        for (LinkStatsTodayDO each : linkStatsTodayMapper.selectList(todayQueryWrapper)) {
+            long[] values = snapshot.get(each.getFullShortUrl());
+            if (values != null) {
+                values[0] = valueOf(each.getTodayPv());
+                values[1] = valueOf(each.getTodayUv());
+                values[2] = valueOf(each.getTodayUip());
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 从数据库构建统计周期下的全部排行榜
+     * 先写入临时 Key 再改名，并发构建时只保留先完成的结果，构建期间不存在只包含部分成员的排行榜
+     */
+    private void build(String gid, String period) {
+        Map<String, long[]> snapshot = snapshot(gid, period);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        String[] tags = orderTags(period);
+        String tempSuffix = ":tmp:" + UUID.fastUUID().toString(true);
+        long ttlSeconds = TOTAL_PERIOD.equals(period) ? TimeUnit.HOURS.toSeconds(statsRankingConfig.getTotalTtlHours()) : TODAY_TTL_SECONDS;
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(snapshot.entrySet());
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (int i = 0; i < tags.length; i++) {
+                String key = rankKey(gid, period, tags[i]);
+                String tempKey = key + tempSuffix;
+                for (List<Map.Entry<String, long[]>> each : CollUtil.split(entries, BATCH_SIZE)) {
+                    Set<StringTuple> tuples = new LinkedHashSet<>();
+                    for (Map.Entry<String, long[]> entry : each) {
+                        String member = entry.getKey();
+                        tuples.add(new DefaultStringTuple(member.getBytes(StandardCharsets.UTF_8), member, (double) entry.getValue()[i]));
+                    }
+                    stringRedisConnection.zAdd(tempKey, tuples);
+                }
+                stringRedisConnection.expire(tempKey, TEMP_KEY_TTL_SECONDS);
+                stringRedisConnection.renameNX(tempKey, key);
+                stringRedisConnection.del(tempKey);
+                stringRedisConnection.expire(key, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    private void execute(String op, List<RankUpdate> updates) {
+        for (List<RankUpdate> each : CollUtil.split(updates, BATCH_SIZE)) {
+            List<String> keys = new ArrayList<>(each.size());
+            Object[] args = new Object[each.size() * 2 + 1];
+            args[0] = op;
+            for (int i = 0; i < each.size(); i++) {
+                RankUpdate update = each.get(i);
+                keys.add(update.key());
+                args[i * 2 + 1] = update.member();
+                args[i * 2 + 2] = String.valueOf(update.score());
+            }
+            stringRedisTemplate.execute(RANK_UPDATE_SCRIPT, keys, args);
+        }
+    }
+
+    private static List<RankUpdate> linkUpdates(String gid, Collection<String> fullShortUrls) {
+        String todayPeriod = datePeriod(new Date());
+        List<RankUpdate> updates = new ArrayList<>(fullShortUrls.size() * (TODAY_TAGS.length + TOTAL_TAGS.length));
+        for (String fullShortUrl : fullShortUrls) {
+            for (String each : TODAY_TAGS) {
+                updates.add(new RankUpdate(rankKey(gid, todayPeriod, each), fullShortUrl, 0L));
+            }
+            for (String each : TOTAL_TAGS) {
+                updates.add(new RankUpdate(rankKey(gid, TOTAL_PERIOD, each), fullShortUrl, 0L));
+            }
+        }
+        return updates;
+    }
+
+    private static void addIfNotZero(List<RankUpdate> updates, String key, String member, Integer delta) {
+        if (delta != null && delta != 0) {
+            updates.add(new RankUpdate(key, member, delta));
+        }
+    }
+
+    private static String periodOf(String orderTag) {
+        for (String each : TODAY_TAGS) {
+            if (each.equals(orderTag)) {
+                return datePeriod(new Date());
+            }
+        }
+        for (String each : TOTAL_TAGS) {
+            if (each.equals(orderTag)) {
+                return TOTAL_PERIOD;
+            }
+        }
+        return null;
+    }
+
+    private static long valueOf(Integer value) {
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * 排行榜分页结果
+     *
+     * @param total         排行榜成员总数
+     * @param fullShortUrls 当前页完整短链接，按排名排列
+     */
+    public record RankingPage(long total, List<String> fullShortUrls) {
+    }
+
+    /**
+     * 排行榜成员更新
+     *
+     * @param key    排行榜 Key
+     * @param member 完整短链接
+     * @param score  分值或增量
+     */
+    public record RankUpdate(String key, String member, long score) {
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import com.abincaps.shortlink.project.config.StatsRankingConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.LOCK_STATS_RANK_CHECK_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_RANK_KEY;
+
+/**
+ * 短链接排行榜一致性校验
+ * 定期将已存在的今日、累计排行榜与数据库比对；刷新器先落库后更新排行榜，单次比对可能读到中间状态，
+ * 因此同一成员连续两轮出现相同偏差时才修正
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsRankingChecker implements InitializingBean {
+
+    private static final long SCAN_COUNT = 1000L;
+
+    private static final String RANK_KEY_PREFIX = SHORT_LINK_STATS_RANK_KEY.substring(0, SHORT_LINK_STATS_RANK_KEY.indexOf("%s"));
+
+    private final StatsRankingConfig statsRankingConfig;
+    private final ShortLinkStatsRanking shortLinkStatsRanking;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+
+    private Counter repairedCounter;
+
+    /**
+     * 上一轮发现的偏差，Key 为排行榜 Key 与成员，值为数据库值减排行榜值
+     */
+    private Map<String, Long> previousDeviations = new HashMap<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        repairedCounter = Counter.builder("short-link.stats.ranking.repaired").register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${short-link.stats.ranking.check-interval-millis:300000}",
+            fixedDelayString = "${short-link.stats.ranking.check-interval-millis:300000}"
+    )
+    public void check() {
+        if (!statsRankingConfig.getEnable()) {
+            return;
+        }
+        RLock lock = redissonClient.getLock(LOCK_STATS_RANK_CHECK_KEY);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            Map<String, Long> deviations = new HashMap<>();
+            int repaired = 0;
+            String todayPeriod = ShortLinkStatsRanking.datePeriod(new Date());
+            for (String[] each : scanGroupPeriods()) {
+                String period = each[1];
+                if (!ShortLinkStatsRanking.TOTAL_PERIOD.equals(period) && !todayPeriod.equals(period)) {
+                    // 历史日期的排行榜不再查询，等待自然过期
+                    continue;
+                }
+                try {
+                    repaired += check(each[0], period, deviations);
+                } catch (Exception ex) {
+                    log.warn("短链接排行榜一致性校验失败，分组：{}，统计周期：{}", each[0], period, ex);
+                }
+            }
+            previousDeviations = deviations;
+            if (repaired > 0) {
+                repairedCounter.increment(repaired);
+                log.info("短链接排行榜一致性校验完成，修正成员数：{}", repaired);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int check(String gid, String period, Map<String, Long> deviations) {
+        String[] orderTags = ShortLinkStatsRanking.orderTags(period);
+        // 先读取排行榜再读取数据库
+        List<Map<String, Long>> cachedScores = new ArrayList<>(orderTags.length);
+        for (String each : orderTags) {
+            cachedScores.add(shortLinkStatsRanking.scores(ShortLinkStatsRanking.rankKey(gid, period, each)));
+        }
+        Map<String, long[]> snapshot = shortLinkStatsRanking.snapshot(gid, period);
+
+        List<ShortLinkStatsRanking.RankUpdate> sets = new ArrayList<>();
+        List<ShortLinkStatsRanking.RankUpdate> removes = new ArrayList<>();
+        for (int i = 0; i < orderTags.length; i++) {
+            Map<String, Long> scores = cachedScores.get(i);
+            if (scores.isEmpty()) {
+                continue;
+            }
+            String key = ShortLinkStatsRanking.rankKey(gid, period, orderTags[i]);
+            for (Map.Entry<String, long[]> entry : snapshot.entrySet()) {
+                long expected = entry.getValue()[i];
+                Long actual = scores.get(entry.getKey());
+                long deviation = actual == null ? Long.MIN_VALUE : expected - actual;
+                if (deviation != 0 && confirm(key, entry.getKey(), deviation, deviations)) {
+                    sets.add(new ShortLinkStatsRanking.RankUpdate(key, entry.getKey(), expected));
+                }
+            }
+            for (String member : scores.keySet()) {
+                if (!snapshot.containsKey(member) && confirm(key, member, Long.MAX_VALUE, deviations)) {
+                    removes.add(new ShortLinkStatsRanking.RankUpdate(key, member, 0L));
+                }
+            }
+        }
+        shortLinkStatsRanking.set(sets);
+        shortLinkStatsRanking.remove(removes);
+        return sets.size() + removes.size();
+    }
+
+    /**
+     * 记录本轮偏差，与上一轮相同时确认需要修正
+     */
+    private boolean confirm(String key, String member, long deviation, Map<String, Long> deviations) {
+        String deviationKey = key + "|" + member;
+        deviations.put(deviationKey, deviation);
+        Long previous = previousDeviations.get(deviationKey);
+        return previous != null && previous == deviation;
+    }
+
+    /**
+     * 扫描已存在的排行榜，返回去重后的 [分组标识, 统计周期]
+     */
+    private List<String[]> scanGroupPeriods() {
+        Set<String> groupPeriods = new LinkedHashSet<>();
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            ScanOptions options = ScanOptions.scanOptions().match(RANK_KEY_PREFIX + "*").count(SCAN_COUNT).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    String[] parts = new String(cursor.next(), StandardCharsets.UTF_8).substring(RANK_KEY_PREFIX.length()).split(":");
+                    // 跳过构建中的临时 Key
+                    if (parts.length == 3) {
+                        groupPeriods.add(parts[0] + ":" + parts[1]);
+                    }
+                }
+            }
+            return null;
+        });
+        return groupPeriods.stream().map(each -> each.split(":")).toList();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsAccessDailyRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsBrowserRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsDeviceRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsLocaleCNRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsNetworkRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsOsRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsTopIpRespDTO;
+import com.abincaps.shortlink.project.dto.resp.ShortLinkStatsUvRespDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 合并相邻日期范围的短链接监控结果
+ * 访问量与各维度次数直接相加并重新计算占比；UV、UIP 不可相加，由调用方按完整日期范围计算后传入，老访客数随之按 UV 重新计算；
+ * 高频访问 IP 由两段各自的高频 IP 相加后重新排序，为近似结果
+ */
+public final class ShortLinkStatsRespMerger {
+
+    private static final String NEW_USER = "newUser";
+    private static final String OLD_USER = "oldUser";
+
+    private ShortLinkStatsRespMerger() {
+    }
+
+    /**
+     * 合并监控结果
+     *
+     * @param history    较早日期范围的监控结果
+     * @param live       紧随其后日期范围的监控结果
+     * @param uv         完整日期范围的独立访客数
+     * @param uip        完整日期范围的独立 IP 数
+     * @param topIpLimit 高频访问 IP 数量
+     * @return 完整日期范围的监控结果
+     */
+    public static ShortLinkStatsRespDTO merge(ShortLinkStatsRespDTO history, ShortLinkStatsRespDTO live, Integer uv, Integer uip, int topIpLimit) {
+        List<ShortLinkStatsAccessDailyRespDTO> daily = new ArrayList<>(orEmpty(history.getDaily()));
+        daily.addAll(orEmpty(live.getDaily()));
+        Set<String> degradedSections = new LinkedHashSet<>(orEmpty(history.getDegradedSections()));
+        degradedSections.addAll(orEmpty(live.getDegradedSections()));
+        return ShortLinkStatsRespDTO.builder()
+                .pv(orZero(history.getPv()) + orZero(live.getPv()))
+                .uv(uv)
+                .uip(uip)
+                .daily(daily)
+                .localeCnStats(mergeCnt(history.getLocaleCnStats(), live.getLocaleCnStats(),
+                        ShortLinkStatsLocaleCNRespDTO::getLocale, ShortLinkStatsLocaleCNRespDTO::getCnt,
+                        (key, cnt, ratio) -> ShortLinkStatsLocaleCNRespDTO.builder().locale(key).cnt(cnt).ratio(ratio).build()))
+                .hourStats(sumEach(history.getHourStats(), live.getHourStats()))
+                .topIpStats(mergeTopIp(history.getTopIpStats(), live.getTopIpStats(), topIpLimit))
+                .weekdayStats(sumEach(history.getWeekdayStats(), live.getWeekdayStats()))
+                .browserStats(mergeCnt(history.getBrowserStats(), live.getBrowserStats(),
+                        ShortLinkStatsBrowserRespDTO::getBrowser, ShortLinkStatsBrowserRespDTO::getCnt,
+                        (key, cnt, ratio) -> ShortLinkStatsBrowserRespDTO.builder().browser(key).cnt(cnt).ratio(ratio).build()))
+                .osStats(mergeCnt(history.getOsStats(), live.getOsStats(),
+                        ShortLinkStatsOsRespDTO::getOs, ShortLinkStatsOsRespDTO::getCnt,
+                        (key, cnt, ratio) -> ShortLinkStatsOsRespDTO.builder().os(key).cnt(cnt).ratio(ratio).build()))
+                .uvTypeStats(history.getUvTypeStats() == null && live.getUvTypeStats() == null ? null : mergeUvType(history.getUvTypeStats(), live.getUvTypeStats(), uv))
+                .deviceStats(mergeCnt(history.getDeviceStats(), live.getDeviceStats(),
+                        ShortLinkStatsDeviceRespDTO::getDevice, ShortLinkStatsDeviceRespDTO::getCnt,
+                        (key, cnt, ratio) -> ShortLinkStatsDeviceRespDTO.builder().device(key).cnt(cnt).ratio(ratio).build()))
+                .networkStats(mergeCnt(history.getNetworkStats(), live.getNetworkStats(),
+                        ShortLinkStatsNetworkRespDTO::getNetwork, ShortLinkStatsNetworkRespDTO::getCnt,
+                        (key, cnt, ratio) -> ShortLinkStatsNetworkRespDTO.builder().network(key).cnt(cnt).ratio(ratio).build()))
+                .degradedSections(new ArrayList<>(degradedSections))
+                .build();
+    }
+
+    /**
+     * 按维度值合并次数并重新计算占比，保持首次出现的顺序
+     */
+    private static <T> List<T> mergeCnt(List<T> first, List<T> second, Function<T, String> keyMapper,
+                                        Function<T, Integer> cntMapper, CntStatsFactory<T> factory) {
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        orEmpty(first).forEach(each -> merged.merge(keyMapper.apply(each), orZero(cntMapper.apply(each)), Integer::sum));
+        orEmpty(second).forEach(each -> merged.merge(keyMapper.apply(each), orZero(cntMapper.apply(each)), Integer::sum));
+        int sum = merged.values().stream().mapToInt(Integer::intValue).sum();
+        List<T> result = new ArrayList<>(merged.size());
+        merged.forEach((key, cnt) -> {
+            double ratio = (double) cnt / sum;
+            double actualRatio = Math.round(ratio * 100.0) / 100.0;
+            result.add(factory.create(key, cnt, actualRatio));
+        });
+        return result;
+    }
+
+    /**
+     * 合并新老访客，两段的新访客首次访问日期互不重叠可直接相加，完整日期范围内其余独立访客均为老访客
+     */
+    private static List<ShortLinkStatsUvRespDTO> mergeUvType(List<ShortLinkStatsUvRespDTO> first, List<ShortLinkStatsUvRespDTO> second, Integer uv) {
+        int newUserCnt = orEmpty(first).stream().filter(each -> Objects.equals(each.getUvType(), NEW_USER)).mapToInt(each -> orZero(each.getCnt())).sum()
+                + orEmpty(second).stream().filter(each -> Objects.equals(each.getUvType(), NEW_USER)).mapToInt(each -> orZero(each.getCnt())).sum();
+        int oldUserCnt = Math.max(orZero(uv) - newUserCnt, 0);
+        int uvSum = newUserCnt + oldUserCnt;
+        return List.of(
+                ShortLinkStatsUvRespDTO.builder().uvType(NEW_USER).cnt(newUserCnt).ratio(Math.round((double) newUserCnt / uvSum * 100.0) / 100.0).build(),
+                ShortLinkStatsUvRespDTO.builder().uvType(OLD_USER).cnt(oldUserCnt).ratio(Math.round((double) oldUserCnt / uvSum * 100.0) / 100.0).build()
+        );
+    }
+
+    private static List<ShortLinkStatsTopIpRespDTO> mergeTopIp(List<ShortLinkStatsTopIpRespDTO> first, List<ShortLinkStatsTopIpRespDTO> second, int limit) {
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        orEmpty(first).forEach(each -> merged.merge(each.getIp(), orZero(each.getCnt()), Integer::sum));
+        orEmpty(second).forEach(each -> merged.merge(each.getIp(), orZero(each.getCnt()), Integer::sum));
+        return merged.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(each -> ShortLinkStatsTopIpRespDTO.builder().ip(each.getKey()).cnt(each.getValue()).build())
+                .toList();
+    }
+
+    /**
+     * 按位置相加，用于小时、星期分布
+     */
+    private static List<Integer> sumEach(List<Integer> first, List<Integer> second) {
+        List<Integer> left = orEmpty(first);
+        List<Integer> right = orEmpty(second);
+        int size = Math.max(left.size(), right.size());
+        List<Integer> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add((i < left.size() ? orZero(left.get(i)) : 0) + (i < right.size() ? orZero(right.get(i)) : 0));
+        }
+        return result;
+    }
+
+    private static int orZero(Integer value) {
+        return Optional.ofNullable(value).orElse(0);
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return Objects.requireNonNullElse(list, List.of());
+    }
+
+    @FunctionalInterface
+    private interface CntStatsFactory<T> {
+
+        T create(String key, int cnt, double ratio);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DateUtil;
+import com.abincaps.shortlink.project.common.enums.StatsPeriodTypeEnum;
+import com.abincaps.shortlink.project.config.StatsRollupConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkStatsRollupDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessLogsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessStatsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkStatsRollupMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 短链接访问统计汇总构建
+ * 日汇总由当日访问明细逐个短链接流式计算，分组汇总由所属短链接合并得到；周、月汇总由日汇总合并得到，不再读取明细
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsRollupBuilder {
+
+    /**
+     * 分组汇总的短链接标识
+     */
+    public static final String GROUP_FULL_SHORT_URL = "";
+
+    private static final int SCAN_FETCH_ROWS = 5000;
+    private static final int ROLLUP_FETCH_ROWS = 1000;
+    private static final int UPSERT_BATCH_ROWS = 200;
+
+    private final StatsRollupConfig statsRollupConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final LinkAccessStatsMapper linkAccessStatsMapper;
+    private final LinkAccessLogsMapper linkAccessLogsMapper;
+    private final LinkStatsRollupMapper linkStatsRollupMapper;
+
+    /**
+     * 由访问明细构建某日全部短链接及分组的日汇总
+     *
+     * @param day 日期
+     */
+    public void buildDay(Date day) {
+        Date periodStart = DateUtil.beginOfDay(day);
+        Date periodEnd = DateUtil.endOfDay(day);
+        int topIpLimit = statsRollupConfig.getTopIpStoreSize();
+        int periodType = StatsPeriodTypeEnum.DAY.getType();
+
+        List<LinkStatsRollupDO> rows = new ArrayList<>();
+        String currentGid = null;
+        StatsRollupAccumulator groupAccumulator = null;
+        // 按分组顺序返回，同一分组的短链接连续处理
+        for (LinkAccessStatsDO each : linkAccessStatsMapper.listLinksByDate(periodStart)) {
+            if (!Objects.equals(each.getGid(), currentGid)) {
+                if (groupAccumulator != null) {
+                    rows.add(groupAccumulator.toRollup(GROUP_FULL_SHORT_URL, currentGid, periodType, periodStart, topIpLimit));
+                }
+                currentGid = each.getGid();
+                groupAccumulator = new StatsRollupAccumulator();
+            }
+            StatsRollupAccumulator linkAccumulator = scanAccessLogs(each.getGid(), each.getFullShortUrl(), periodStart, periodEnd);
+            rows.add(linkAccumulator.toRollup(each.getFullShortUrl(), each.getGid(), periodType, periodStart, topIpLimit));
+            groupAccumulator.merge(linkAccumulator);
+            upsertIfFull(rows);
+        }
+        if (groupAccumulator != null) {
+            rows.add(groupAccumulator.toRollup(GROUP_FULL_SHORT_URL, currentGid, periodType, periodStart, topIpLimit));
+        }
+        upsert(rows);
+        linkStatsRollupMapper.markRolledUp(periodType, periodStart);
+        log.info("短链接访问统计日汇总完成，日期：{}", DateUtil.formatDate(periodStart));
+    }
+
+    /**
+     * 由日汇总构建周或月汇总
+     *
+     * @param periodType  汇总周期类型，周或月
+     * @param periodStart 周期起始日期
+     */
+    public void buildPeriod(StatsPeriodTypeEnum periodType, Date periodStart) {
+        Date periodEnd = periodEnd(periodType, periodStart);
+        int topIpLimit = statsRollupConfig.getTopIpStoreSize();
+        List<LinkStatsRollupDO> rows = new ArrayList<>();
+        LinkStatsRollupDO current = null;
+        StatsRollupAccumulator accumulator = null;
+        List<LinkStatsRollupDO> batch;
+        // 按短链接、分组顺序分批读取，同一短链接的日汇总连续合并，累加器跨批次保留
+        do {
+            batch = linkStatsRollupMapper.listRollups(StatsPeriodTypeEnum.DAY.getType(), periodStart, periodEnd, current, ROLLUP_FETCH_ROWS);
+            for (LinkStatsRollupDO each : batch) {
+                if (current == null || !Objects.equals(current.getFullShortUrl(), each.getFullShortUrl()) || !Objects.equals(current.getGid(), each.getGid())) {
+                    if (accumulator != null) {
+                        rows.add(accumulator.toRollup(current.getFullShortUrl(), current.getGid(), periodType.getType(), periodStart, topIpLimit));
+                        upsertIfFull(rows);
+                    }
+                    accumulator = new StatsRollupAccumulator();
+                }
+                accumulator.merge(each);
+                current = each;
+            }
+        } while (batch.size() == ROLLUP_FETCH_ROWS);
+        if (accumulator != null) {
+            rows.add(accumulator.toRollup(current.getFullShortUrl(), current.getGid(), periodType.getType(), periodStart, topIpLimit));
+        }
+        upsert(rows);
+        linkStatsRollupMapper.markRolledUp(periodType.getType(), periodStart);
+        log.info("短链接访问统计{}汇总完成，起始日期：{}", periodType == StatsPeriodTypeEnum.WEEK ? "周" : "月", DateUtil.formatDate(periodStart));
+    }
+
+    /**
+     * 周期结束日期
+     */
+    public static Date periodEnd(StatsPeriodTypeEnum periodType, Date periodStart) {
+        return switch (periodType) {
+            case DAY -> DateUtil.beginOfDay(periodStart);
+            case WEEK -> DateUtil.beginOfDay(DateUtil.offsetDay(periodStart, 6));
+            case MONTH -> DateUtil.beginOfDay(DateUtil.endOfMonth(periodStart));
+        };
+    }
+
+    /**
+     * 按 (create_time, id) 键集分批流式读取短链接某日访问明细
+     */
+    private StatsRollupAccumulator scanAccessLogs(String gid, String fullShortUrl, Date startTime, Date endTime) {
+        StatsRollupAccumulator accumulator = new StatsRollupAccumulator();
+        LinkAccessLogsDO last = null;
+        int fetched;
+        do {
+            Date lastCreateTime = last == null ? null : last.getCreateTime();
+            Long lastId = last == null ? null : last.getId();
+            LinkAccessLogsDO[] batchLast = new LinkAccessLogsDO[1];
+            fetched = Optional.ofNullable(transactionTemplate.execute(status -> {
+                int count = 0;
+                try (Cursor<LinkAccessLogsDO> cursor = linkAccessLogsMapper.cursorAccessRecord(
+                        gid, fullShortUrl, startTime, endTime, lastCreateTime, lastId, SCAN_FETCH_ROWS)) {
+                    for (LinkAccessLogsDO each : cursor) {
+                        accumulator.add(each.getUser(), each.getIp());
+                        batchLast[0] = each;
+                        count++;
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return count;
+            })).orElse(0);
+            last = batchLast[0];
+        } while (fetched == SCAN_FETCH_ROWS);
+        return accumulator;
+    }
+
+    private void upsertIfFull(List<LinkStatsRollupDO> rows) {
+        if (rows.size() >= UPSERT_BATCH_ROWS) {
+            upsert(rows);
+        }
+    }
+
+    private void upsert(List<LinkStatsRollupDO> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        linkStatsRollupMapper.upsertBatch(rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.common.convention.exception.ClientException;
+import com.abincaps.shortlink.project.common.enums.StatsPeriodTypeEnum;
+import com.abincaps.shortlink.project.config.StatsRollupConfig;
+import com.abincaps.shortlink.project.dao.mapper.LinkStatsRollupMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.LOCK_STATS_ROLLUP_KEY;
+
+/**
+ * 短链接访问统计汇总任务
+ * 每日汇总前一日数据，随后构建其中已完整结束的周、月汇总；历史数据通过补录接口在后台按日汇总
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsRollupJob implements InitializingBean, DisposableBean {
+
+    private final StatsRollupConfig statsRollupConfig;
+    private final ShortLinkStatsRollupBuilder shortLinkStatsRollupBuilder;
+    private final LinkStatsRollupMapper linkStatsRollupMapper;
+    private final RedissonClient redissonClient;
+
+    private ExecutorService backfillExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        backfillExecutor = Executors.newSingleThreadExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-stats-rollup-").setDaemon(true).build()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        backfillExecutor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${short-link.stats.rollup.cron:0 30 0 * * ?}")
+    public void rollupYesterday() {
+        if (!statsRollupConfig.getEnable()) {
+            return;
+        }
+        Date yesterday = DateUtil.beginOfDay(DateUtil.yesterday());
+        rollup(yesterday, yesterday);
+    }
+
+    /**
+     * 在后台补录日期范围内的汇总数据，已汇总的日期重新计算
+     *
+     * @param startDate 开始日期
+     * @param endDate   结束日期，不能晚于昨日
+     */
+    public void backfill(Date startDate, Date endDate) {
+        Date start = DateUtil.beginOfDay(startDate);
+        Date end = DateUtil.beginOfDay(endDate);
+        if (start.after(end) || !end.before(DateUtil.beginOfDay(new Date()))) {
+            throw new ClientException("补录日期范围无效，结束日期不能早于开始日期且不能晚于昨日");
+        }
+        backfillExecutor.execute(() -> rollup(start, end));
+    }
+
+    private void rollup(Date start, Date end) {
+        RLock lock = redissonClient.getLock(LOCK_STATS_ROLLUP_KEY);
+        if (!lock.tryLock()) {
+            log.info("短链接访问统计汇总正在其他节点执行，本次跳过，日期范围：{} ~ {}", DateUtil.formatDate(start), DateUtil.formatDate(end));
+            return;
+        }
+        try {
+            Set<Date> weeks = new LinkedHashSet<>();
+            Set<Date> months = new LinkedHashSet<>();
+            for (Date day = start; !day.after(end); day = DateUtil.offsetDay(day, 1)) {
+                shortLinkStatsRollupBuilder.buildDay(day);
+                weeks.add(DateUtil.beginOfDay(DateUtil.beginOfWeek(day)));
+                months.add(DateUtil.beginOfDay(DateUtil.beginOfMonth(day)));
+            }
+            weeks.forEach(each -> buildPeriodIfComplete(StatsPeriodTypeEnum.WEEK, each));
+            months.forEach(each -> buildPeriodIfComplete(StatsPeriodTypeEnum.MONTH, each));
+        } catch (Exception ex) {
+            log.error("短链接访问统计汇总失败，日期范围：{} ~ {}", DateUtil.formatDate(start), DateUtil.formatDate(end), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 周期已结束且每一日都已汇总时构建周期汇总
+     */
+    private void buildPeriodIfComplete(StatsPeriodTypeEnum periodType, Date periodStart) {
+        Date periodEnd = ShortLinkStatsRollupBuilder.periodEnd(periodType, periodStart);
+        if (!periodEnd.before(DateUtil.beginOfDay(new Date()))) {
+            return;
+        }
+        long rolledUpDays = linkStatsRollupMapper.listRolledUpPeriods(periodStart, periodEnd).stream()
+                .filter(each -> StatsPeriodTypeEnum.DAY.getType() == each.getPeriodType())
+                .count();
+        if (rolledUpDays == DateUtil.betweenDay(periodStart, periodEnd, true) + 1) {
+            shortLinkStatsRollupBuilder.buildPeriod(periodType, periodStart);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.date.Week;
+import com.abincaps.shortlink.project.common.enums.StatsPeriodTypeEnum;
+import com.abincaps.shortlink.project.config.StatsRollupConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkStatsRollupDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkStatsRollupMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 短链接访问统计汇总查询
+ * 将日期范围拆分为尽量少的已汇总月、周、日周期，合并这些周期的汇总数据，读取行数与访问量无关
+ */
+@Component
+@RequiredArgsConstructor
+public class ShortLinkStatsRollupReader {
+
+    private final StatsRollupConfig statsRollupConfig;
+    private final LinkStatsRollupMapper linkStatsRollupMapper;
+
+    /**
+     * 查询短链接或分组在日期范围内的汇总数据
+     *
+     * @param gid          分组标识
+     * @param fullShortUrl 完整短链接，为 null 时查询分组汇总
+     * @param startDate    开始日期
+     * @param endDate      结束日期
+     * @return 合并后的汇总数据，范围包含今日或存在未汇总的日期时返回 null
+     */
+    public StatsRollupAccumulator read(String gid, String fullShortUrl, Date startDate, Date endDate) {
+        if (!statsRollupConfig.getEnable()) {
+            return null;
+        }
+        Date start = DateUtil.beginOfDay(startDate);
+        Date end = DateUtil.beginOfDay(endDate);
+        if (!end.before(DateUtil.beginOfDay(new Date())) || start.after(end)) {
+            return null;
+        }
+        List<Period> periods = cover(start, end);
+        if (periods == null) {
+            return null;
+        }
+        LambdaQueryWrapper<LinkStatsRollupDO> queryWrapper = Wrappers.lambdaQuery(LinkStatsRollupDO.class)
+                .eq(LinkStatsRollupDO::getGid, gid)
+                .eq(LinkStatsRollupDO::getFullShortUrl, fullShortUrl == null ? ShortLinkStatsRollupBuilder.GROUP_FULL_SHORT_URL : fullShortUrl)
+                .eq(LinkStatsRollupDO::getDelFlag, 0)
+                .and(wrapper -> periods.forEach(each -> wrapper.or(item -> item
+                        .eq(LinkStatsRollupDO::getPeriodType, each.type().getType())
+                        .eq(LinkStatsRollupDO::getPeriodStart, each.start()))));
+        StatsRollupAccumulator accumulator = new StatsRollupAccumulator();
+        linkStatsRollupMapper.selectList(queryWrapper).forEach(accumulator::merge);
+        return accumulator;
+    }
+
+    /**
+     * 从开始日期起依次优先使用完整的月、周汇总，其余日期使用日汇总
+     *
+     * @return 覆盖日期范围的周期，存在未汇总的日期时返回 null
+     */
+    private List<Period> cover(Date start, Date end) {
+        Set<String> rolledUp = new HashSet<>();
+        linkStatsRollupMapper.listRolledUpPeriods(start, end)
+                .forEach(each -> rolledUp.add(periodKey(each.getPeriodType(), each.getPeriodStart())));
+        List<Period> periods = new ArrayList<>();
+        Date current = start;
+        while (!current.after(end)) {
+            StatsPeriodTypeEnum type = StatsPeriodTypeEnum.DAY;
+            if (DateUtil.dayOfMonth(current) == 1 && usable(StatsPeriodTypeEnum.MONTH, current, end, rolledUp)) {
+                type = StatsPeriodTypeEnum.MONTH;
+            } else if (DateUtil.dayOfWeekEnum(current) == Week.MONDAY && usable(StatsPeriodTypeEnum.WEEK, current, end, rolledUp)) {
+                type = StatsPeriodTypeEnum.WEEK;
+            } else if (!rolledUp.contains(periodKey(StatsPeriodTypeEnum.DAY.getType(), current))) {
+                return null;
+            }
+            periods.add(new Period(type, current));
+            current = DateUtil.offsetDay(ShortLinkStatsRollupBuilder.periodEnd(type, current), 1);
+        }
+        return periods;
+    }
+
+    private static boolean usable(StatsPeriodTypeEnum type, Date periodStart, Date end, Set<String> rolledUp) {
+        return !ShortLinkStatsRollupBuilder.periodEnd(type, periodStart).after(end)
+                && rolledUp.contains(periodKey(type.getType(), periodStart));
+    }
+
+    private static String periodKey(Integer periodType, Date periodStart) {
+        return periodType + ":" + DateUtil.formatDate(periodStart);
+    }
+
+    private record Period(StatsPeriodTypeEnum type, Date start) {
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DateUtil;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkBrowserStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkDeviceStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkLocaleStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkNetworkStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkOsStatsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkStatsTodayDO;
+import com.abincaps.shortlink.project.locale.IpLocale;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 短链接访问统计聚合窗口
+ * 窗口内相同唯一键的访问在内存中合并为一行，刷新时每张表只需一次批量写入；非线程安全，由单个处理线程独占
+ */
+public class ShortLinkStatsWindow {
+
+    private final Map<AccessKey, LinkAccessStatsDO> accessStats = new HashMap<>();
+    private final Map<LocaleKey, LinkLocaleStatsDO> localeStats = new HashMap<>();
+    private final Map<DimensionKey, LinkOsStatsDO> osStats = new HashMap<>();
+    private final Map<DimensionKey, LinkBrowserStatsDO> browserStats = new HashMap<>();
+    private final Map<DimensionKey, LinkDeviceStatsDO> deviceStats = new HashMap<>();
+    private final Map<DimensionKey, LinkNetworkStatsDO> networkStats = new HashMap<>();
+    private final Map<DayKey, LinkStatsTodayDO> todayStats = new HashMap<>();
+    private final Map<LinkKey, int[]> totalStats = new HashMap<>();
+    private final Map<DayKey, UniqueMembers> linkUniqueMembers = new HashMap<>();
+    private final Map<GroupDayKey, UniqueMembers> groupUniqueMembers = new HashMap<>();
+
+    @Getter
+    private final List<LinkAccessLogsDO> accessLogs = new ArrayList<>();
+
+    /**
+     * 窗口内首条记录的时间，窗口为空时为 0
+     */
+    @Getter
+    private long openedAtMillis;
+
+    /**
+     * 窗口内已合并的访问次数
+     */
+    @Getter
+    private int recordCount;
+
+    /**
+     * 合并一次访问，UV、UIP 增量由 {@link StatsUniqueCounter} 在刷新前统一计算
+     *
+     * @param accessLog 访问日志，包含全部统计维度
+     * @param locale    IP 所属地区
+     * @param visitTime 访问时间
+     */
+    public void add(LinkAccessLogsDO accessLog, IpLocale locale, Date visitTime) {
+        if (recordCount++ == 0) {
+            openedAtMillis = System.currentTimeMillis();
+        }
+        // 访问日志按访问时间所在月份分表，写入时间不作为分表依据
+        if (accessLog.getCreateTime() == null) {
+            accessLog.setCreateTime(visitTime);
+        }
+        String fullShortUrl = accessLog.getFullShortUrl();
+        String gid = accessLog.getGid();
+        Date date = DateUtil.beginOfDay(visitTime);
+
+        int hour = DateUtil.hour(visitTime, true);
+        AccessKey accessKey = new AccessKey(fullShortUrl, gid, date, hour);
+        LinkAccessStatsDO linkAccessStatsDO = accessStats.computeIfAbsent(
+                accessKey,
+                key -> LinkAccessStatsDO.builder()
+                        .fullShortUrl(fullShortUrl)
+                        .gid(gid)
+                        .date(date)
+                        .hour(hour)
+                        .weekday(DateUtil.dayOfWeekEnum(visitTime).getIso8601Value())
+                        .pv(0)
+                        .uv(0)
+                        .uip(0)
+                        .build()
+        );
+        linkAccessStatsDO.setPv(linkAccessStatsDO.getPv() + 1);
+
+        LinkLocaleStatsDO linkLocaleStatsDO = localeStats.computeIfAbsent(
+                new LocaleKey(fullShortUrl, gid, date, locale),
+                key -> LinkLocaleStatsDO.builder()
+                        .fullShortUrl(fullShortUrl)
+                        .gid(gid)
+                        .date(date)
+                        .country(locale.country())
+                        .province(locale.province())
+                        .city(locale.city())
+                        .adcode(locale.adcode())
+                        .cnt(0)
+                        .build()
+        );
+        linkLocaleStatsDO.setCnt(linkLocaleStatsDO.getCnt() + 1);
+
+        LinkOsStatsDO linkOsStatsDO = osStats.computeIfAbsent(
+                new DimensionKey(fullShortUrl, gid, date, accessLog.getOs()),
+                key -> LinkOsStatsDO.builder().fullShortUrl(fullShortUrl).gid(gid).date(date).os(accessLog.getOs()).cnt(0).build()
+        );
+        linkOsStatsDO.setCnt(linkOsStatsDO.getCnt() + 1);
+
+        LinkBrowserStatsDO linkBrowserStatsDO = browserStats.computeIfAbsent(
+                new DimensionKey(fullShortUrl, gid, date, accessLog.getBrowser()),
+                key -> LinkBrowserStatsDO.builder().fullShortUrl(fullShortUrl).gid(gid).date(date).browser(accessLog.getBrowser()).cnt(0).build()
+        );
+        linkBrowserStatsDO.setCnt(linkBrowserStatsDO.getCnt() + 1);
+
+        LinkDeviceStatsDO linkDeviceStatsDO = deviceStats.computeIfAbsent(
+                new DimensionKey(fullShortUrl, gid, date, accessLog.getDevice()),
+                key -> LinkDeviceStatsDO.builder().fullShortUrl(fullShortUrl).gid(gid).date(date).device(accessLog.getDevice()).cnt(0).build()
+        );
+        linkDeviceStatsDO.setCnt(linkDeviceStatsDO.getCnt() + 1);
+
+        LinkNetworkStatsDO linkNetworkStatsDO = networkStats.computeIfAbsent(
+                new DimensionKey(fullShortUrl, gid, date, accessLog.getNetwork()),
+                key -> LinkNetworkStatsDO.builder().fullShortUrl(fullShortUrl).gid(gid).date(date).network(accessLog.getNetwork()).cnt(0).build()
+        );
+        linkNetworkStatsDO.setCnt(linkNetworkStatsDO.getCnt() + 1);
+
+        LinkStatsTodayDO linkStatsTodayDO = todayStats.computeIfAbsent(
+                new DayKey(fullShortUrl, gid, date),
+                key -> LinkStatsTodayDO.builder().fullShortUrl(fullShortUrl).gid(gid).date(date).todayPv(0).todayUv(0).todayUip(0).build()
+        );
+        linkStatsTodayDO.setTodayPv(linkStatsTodayDO.getTodayPv() + 1);
+
+        int[] total = totalStats.computeIfAbsent(new LinkKey(fullShortUrl, gid), key -> new int[3]);
+        total[0]++;
+
+        UniqueMembers linkMembers = linkUniqueMembers.computeIfAbsent(new DayKey(fullShortUrl, gid, date), key -> new UniqueMembers());
+        linkMembers.users.add(accessLog.getUser());
+        linkMembers.ips.add(accessLog.getIp());
+        linkMembers.latestAccessKey = accessKey;
+        UniqueMembers groupMembers = groupUniqueMembers.computeIfAbsent(new GroupDayKey(gid, date), key -> new UniqueMembers());
+        groupMembers.users.add(accessLog.getUser());
+        groupMembers.ips.add(accessLog.getIp());
+
+        accessLogs.add(accessLog);
+    }
+
+    /**
+     * 窗口是否为空
+     */
+    public boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    /**
+     * 窗口内聚合后的不同唯一键数量
+     */
+    public int keyCount() {
+        return accessStats.size() + localeStats.size() + osStats.size() + browserStats.size()
+                + deviceStats.size() + networkStats.size() + todayStats.size() + totalStats.size();
+    }
+
+    public Collection<LinkAccessStatsDO> getAccessStats() {
+        return accessStats.values();
+    }
+
+    public Collection<LinkLocaleStatsDO> getLocaleStats() {
+        return localeStats.values();
+    }
+
+    public Collection<LinkOsStatsDO> getOsStats() {
+        return osStats.values();
+    }
+
+    public Collection<LinkBrowserStatsDO> getBrowserStats() {
+        return browserStats.values();
+    }
+
+    public Collection<LinkDeviceStatsDO> getDeviceStats() {
+        return deviceStats.values();
+    }
+
+    public Collection<LinkNetworkStatsDO> getNetworkStats() {
+        return networkStats.values();
+    }
+
+    public Collection<LinkStatsTodayDO> getTodayStats() {
+        return todayStats.values();
+    }
+
+    /**
+     * 短链接累计 PV、UV、UIP 增量
+     *
+     * @param consumer 参数依次为分组标识、完整短链接、增量数组 [pv, uv, uip]
+     */
+    public void forEachTotal(TotalConsumer consumer) {
+        totalStats.forEach((key, value) -> consumer.accept(key.gid(), key.fullShortUrl(), value));
+    }
+
+    /**
+     * 遍历窗口内短链接每日访问用户及 IP
+     */
+    public void forEachLinkUnique(UniqueConsumer consumer) {
+        linkUniqueMembers.forEach((key, value) -> consumer.accept(key.fullShortUrl(), key.gid(), key.date(), value.users, value.ips));
+    }
+
+    /**
+     * 遍历窗口内分组每日访问用户及 IP
+     */
+    public void forEachGroupUnique(UniqueConsumer consumer) {
+        groupUniqueMembers.forEach((key, value) -> consumer.accept(null, key.gid(), key.date(), value.users, value.ips));
+    }
+
+    /**
+     * 写入短链接某日 UV、UIP 增量，小时维度计入该日窗口内最后访问的小时
+     */
+    public void applyUnique(String fullShortUrl, String gid, Date date, int uvDelta, int uipDelta) {
+        DayKey dayKey = new DayKey(fullShortUrl, gid, date);
+        UniqueMembers members = linkUniqueMembers.get(dayKey);
+        if (members == null) {
+            return;
+        }
+        LinkAccessStatsDO linkAccessStatsDO = accessStats.get(members.latestAccessKey);
+        linkAccessStatsDO.setUv(linkAccessStatsDO.getUv() + uvDelta);
+        linkAccessStatsDO.setUip(linkAccessStatsDO.getUip() + uipDelta);
+        LinkStatsTodayDO linkStatsTodayDO = todayStats.get(dayKey);
+        linkStatsTodayDO.setTodayUv(linkStatsTodayDO.getTodayUv() + uvDelta);
+        linkStatsTodayDO.setTodayUip(linkStatsTodayDO.getTodayUip() + uipDelta);
+        int[] total = totalStats.get(new LinkKey(fullShortUrl, gid));
+        total[1] += uvDelta;
+        total[2] += uipDelta;
+    }
+
+    /**
+     * 清空窗口
+     */
+    public void clear() {
+        accessStats.clear();
+        localeStats.clear();
+        osStats.clear();
+        browserStats.clear();
+        deviceStats.clear();
+        networkStats.clear();
+        todayStats.clear();
+        totalStats.clear();
+        linkUniqueMembers.clear();
+        groupUniqueMembers.clear();
+        accessLogs.clear();
+        openedAtMillis = 0L;
+        recordCount = 0;
+    }
+
+    @FunctionalInterface
+    public interface TotalConsumer {
+
+        void accept(String gid, String fullShortUrl, int[] total);
+    }
+
+    @FunctionalInterface
+    public interface UniqueConsumer {
+
+        void accept(String fullShortUrl, String gid, Date date, Set<String> users, Set<String> ips);
+    }
+
+    private static class UniqueMembers {
+
+        private final Set<String> users = new HashSet<>();
+        private final Set<String> ips = new HashSet<>();
+        private AccessKey latestAccessKey;
+    }
+
+    private record LinkKey(String fullShortUrl, String gid) {
+    }
+
+    private record DayKey(String fullShortUrl, String gid, Date date) {
+    }
+
+    private record GroupDayKey(String gid, Date date) {
+    }
+
+    private record AccessKey(String fullShortUrl, String gid, Date date, int hour) {
+    }
+
+    private record DimensionKey(String fullShortUrl, String gid, Date date, String value) {
+    }
+
+    private record LocaleKey(String fullShortUrl, String gid, Date date, IpLocale locale) {
+    }
+}
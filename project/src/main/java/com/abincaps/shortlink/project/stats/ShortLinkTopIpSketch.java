@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.date.DateUtil;
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.config.StatsTopIpConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessLogsDO;
+import com.abincaps.shortlink.project.dao.entity.LinkTopIpDailyDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkTopIpDailyMapper;
+import com.abincaps.shortlink.project.toolkit.SpaceSaving;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 短链接、分组每日高频访问 IP 估计
+ * 落库时将窗口内各 IP 次数合并到当日的 Space-Saving 估计，查询时合并日期范围内的每日估计，不再聚合访问日志；
+ * 单个估计值偏大且偏差不超过范围内访问次数除以计数器数量；
+ * 首个估计日期及之前的访问未完整记录，开始日期不晚于该日期的查询不使用估计
+ */
+@Component
+@RequiredArgsConstructor
+public class ShortLinkTopIpSketch {
+
+    private final StatsTopIpConfig statsTopIpConfig;
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final LinkTopIpDailyMapper linkTopIpDailyMapper;
+
+    /**
+     * 首个估计日期，写入后不再变化
+     */
+    private volatile Date firstSketchDate;
+
+    /**
+     * 合并窗口内的访问 IP，在统计事务内执行，按主键顺序加锁后读取、合并、写回
+     */
+    public void record(ShortLinkStatsWindow window) {
+        Map<SketchKey, Map<String, Long>> ipCounts = new HashMap<>();
+        for (LinkAccessLogsDO each : window.getAccessLogs()) {
+            if (each.getIp() == null) {
+                continue;
+            }
+            String date = DateUtil.formatDate(each.getCreateTime());
+            ipCounts.computeIfAbsent(new SketchKey(each.getGid(), each.getFullShortUrl(), date), key -> new HashMap<>())
+                    .merge(each.getIp(), 1L, Long::sum);
+            ipCounts.computeIfAbsent(new SketchKey(each.getGid(), ShortLinkStatsRollupBuilder.GROUP_FULL_SHORT_URL, date), key -> new HashMap<>())
+                    .merge(each.getIp(), 1L, Long::sum);
+        }
+        if (ipCounts.isEmpty()) {
+            return;
+        }
+        List<SketchKey> sortedKeys = ipCounts.keySet().stream()
+                .sorted(Comparator.comparing(SketchKey::gid).thenComparing(SketchKey::fullShortUrl).thenComparing(SketchKey::date))
+                .toList();
+        ListUtil.partition(sortedKeys, statsPipelineConfig.getFlushBatchRows()).forEach(batch -> {
+            List<LinkTopIpDailyDO> keyRows = batch.stream().map(SketchKey::toRow).toList();
+            linkTopIpDailyMapper.lockBatch(keyRows);
+            Map<SketchKey, LinkTopIpDailyDO> current = linkTopIpDailyMapper.listForUpdate(keyRows).stream()
+                    .collect(Collectors.toMap(SketchKey::of, Function.identity()));
+            List<LinkTopIpDailyDO> mergedRows = batch.stream()
+                    .map(key -> {
+                        SpaceSaving sketch = decode(current.get(key));
+                        // 按次数倒序加入，窗口内的高频 IP 优先占用计数器
+                        ipCounts.get(key).entrySet().stream()
+                                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                                .forEach(each -> sketch.offer(each.getKey(), each.getValue()));
+                        LinkTopIpDailyDO row = key.toRow();
+                        row.setTotal(sketch.total());
+                        row.setCounters(sketch.encode());
+                        return row;
+                    })
+                    .toList();
+            linkTopIpDailyMapper.upsertBatch(mergedRows);
+        });
+    }
+
+    /**
+     * 合并日期范围内的每日估计
+     *
+     * @param fullShortUrl 完整短链接，为 null 时查询分组
+     * @return 估计次数最多的若干个 IP，按次数倒序；范围早于完整估计的日期或范围内没有估计数据时返回 null
+     */
+    public Map<String, Long> topIp(String gid, String fullShortUrl, Date startDate, Date endDate, int limit) {
+        if (!isCovered(startDate)) {
+            return null;
+        }
+        List<LinkTopIpDailyDO> rows = linkTopIpDailyMapper.listByDateRange(gid,
+                fullShortUrl == null ? ShortLinkStatsRollupBuilder.GROUP_FULL_SHORT_URL : fullShortUrl,
+                DateUtil.beginOfDay(startDate), DateUtil.beginOfDay(endDate));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        SpaceSaving merged = new SpaceSaving(statsTopIpConfig.getCapacity());
+        rows.forEach(each -> merged.merge(decode(each)));
+        return merged.top(limit);
+    }
+
+    /**
+     * 开始日期是否晚于首个估计日期，首个估计日期当日只记录了启用后的访问
+     */
+    private boolean isCovered(Date startDate) {
+        if (firstSketchDate == null) {
+            firstSketchDate = linkTopIpDailyMapper.findFirstDate();
+        }
+        return firstSketchDate != null && DateUtil.beginOfDay(startDate).after(firstSketchDate);
+    }
+
+    private SpaceSaving decode(LinkTopIpDailyDO row) {
+        return row == null
+                ? new SpaceSaving(statsTopIpConfig.getCapacity())
+                : SpaceSaving.decode(statsTopIpConfig.getCapacity(), row.getTotal(), row.getCounters());
+    }
+
+    private record SketchKey(String gid, String fullShortUrl, String date) {
+
+        private static SketchKey of(LinkTopIpDailyDO row) {
+            return new SketchKey(row.getGid(), row.getFullShortUrl(), DateUtil.formatDate(row.getDate()));
+        }
+
+        private LinkTopIpDailyDO toRow() {
+            return LinkTopIpDailyDO.builder()
+                    .gid(gid)
+                    .fullShortUrl(fullShortUrl)
+                    .date(DateUtil.parseDate(date))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import com.abincaps.shortlink.project.config.StatsStreamConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_DEDUP_KEY;
+
+/**
+ * 短链接统计事件去重
+ * 窗口落库后、确认消息前记录事件标识，确认成功后移除；只有确认失败的事件会残留在集合中，
+ * 被重新投递时据此跳过。集合按处理时间分桶并设置过期时间，残留事件自动清理
+ */
+@Component
+@RequiredArgsConstructor
+public class StatsEventDeduplicator {
+
+    private final StatsStreamConfig statsStreamConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 当前时间所在分桶的去重集合 Key
+     */
+    public String currentBucketKey() {
+        return bucketKey(0);
+    }
+
+    /**
+     * 查询已落库的事件，检查当前及上一个分桶，一次往返完成
+     *
+     * @param eventIds 事件标识集合
+     * @return 已落库的事件标识
+     */
+    public Set<String> findProcessed(Collection<String> eventIds) {
+        Set<String> processed = new HashSet<>();
+        if (eventIds.isEmpty()) {
+            return processed;
+        }
+        String[] values = eventIds.toArray(String[]::new);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            stringRedisConnection.sMIsMember(bucketKey(0), values);
+            stringRedisConnection.sMIsMember(bucketKey(1), values);
+            return null;
+        });
+        for (Object each : results) {
+            List<?> members = (List<?>) each;
+            for (int i = 0; i < values.length; i++) {
+                if (Boolean.TRUE.equals(members.get(i))) {
+                    processed.add(values[i]);
+                }
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * 记录已落库的事件
+     *
+     * @param eventIds 事件标识集合
+     * @return 记录所在的去重集合 Key，用于确认后移除
+     */
+    public String markProcessed(Collection<String> eventIds) {
+        String bucketKey = currentBucketKey();
+        if (eventIds.isEmpty()) {
+            return bucketKey;
+        }
+        long ttlMinutes = statsStreamConfig.getDedupBucketMinutes() * 2L;
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            stringRedisConnection.sAdd(bucketKey, eventIds.toArray(String[]::new));
+            stringRedisConnection.expire(bucketKey, TimeUnit.MINUTES.toSeconds(ttlMinutes));
+            return null;
+        });
+        return bucketKey;
+    }
+
+    private String bucketKey(int bucketsAgo) {
+        long bucketMillis = TimeUnit.MINUTES.toMillis(statsStreamConfig.getDedupBucketMinutes());
+        long bucket = System.currentTimeMillis() / bucketMillis - bucketsAgo;
+        return String.format(SHORT_LINK_STATS_DEDUP_KEY, bucket);
+    }
+}
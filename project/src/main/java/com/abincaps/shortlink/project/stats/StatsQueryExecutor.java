@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.config.StatsQueryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 短链接监控查询执行器
+ * 同一次监控请求中互不依赖的查询在独立的有界线程池中并发执行，每项查询单独计时并限制超时，
+ * 超时、失败或线程池已满被拒绝的统计项以空数据返回，不影响其余统计项；
+ * 查询内执行的 SQL 同时设置 JDBC 语句超时，超时后数据库侧的查询一并取消
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsQueryExecutor implements InitializingBean, DisposableBean {
+
+    private static final String TIMER_NAME = "short-link.stats.query";
+
+    private final StatsQueryConfig statsQueryConfig;
+    private final MeterRegistry meterRegistry;
+
+    private ExecutorService queryExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        int threads = statsQueryConfig.getThreads();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(statsQueryConfig.getQueueCapacity()),
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-stats-query-").setDaemon(true).build(),
+                // 队列已满时直接拒绝，统计项以空数据返回，不在请求线程执行而绕过超时控制
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        queryExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "short-link-stats-query");
+    }
+
+    @Override
+    public void destroy() {
+        queryExecutor.shutdownNow();
+    }
+
+    /**
+     * 开始一次监控请求的并发查询
+     */
+    public FanOut fanOut() {
+        return new FanOut();
+    }
+
+    /**
+     * 一次监控请求内的并发查询，记录未按时返回的统计项
+     */
+    public class FanOut {
+
+        private final List<String> degradedSections = new CopyOnWriteArrayList<>();
+
+        /**
+         * 提交一项查询
+         *
+         * @param section  统计项名称，用于计时指标与降级记录
+         * @param query    查询逻辑
+         * @param fallback 查询超时或失败时的返回值
+         * @return 查询结果，始终正常完成
+         */
+        public <T> CompletableFuture<T> submit(String section, Supplier<T> query, T fallback) {
+            long startNanos = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> {
+                    T result = StatsQueryTimeoutInterceptor.withTimeout(statementTimeoutSeconds(), query);
+                    record(section, "success", startNanos);
+                    return result;
+                }, queryExecutor);
+            } catch (RejectedExecutionException ex) {
+                record(section, "rejected", startNanos);
+                log.warn("短链接监控查询线程池已满，统计项：{}", section);
+                degradedSections.add(section);
+                return CompletableFuture.completedFuture(fallback);
+            }
+            return future
+                    .orTimeout(statsQueryConfig.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                    .handle((result, ex) -> {
+                        if (ex == null) {
+                            return result;
+                        }
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        if (cause instanceof TimeoutException) {
+                            record(section, "timeout", startNanos);
+                            log.warn("短链接监控查询超时，统计项：{}", section);
+                        } else {
+                            record(section, "error", startNanos);
+                            log.error("短链接监控查询失败，统计项：{}", section, cause);
+                        }
+                        degradedSections.add(section);
+                        return fallback;
+                    });
+        }
+
+        /**
+         * 超时或失败、以空数据返回的统计项
+         */
+        public List<String> degradedSections() {
+            return List.copyOf(degradedSections);
+        }
+    }
+
+    /**
+     * JDBC 语句超时以秒为单位，向上取整且不小于 1 秒
+     */
+    private int statementTimeoutSeconds() {
+        return (int) Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(statsQueryConfig.getTimeoutMillis() + 999L));
+    }
+
+    private void record(String section, String outcome, long startNanos) {
+        Timer.builder(TIMER_NAME)
+                .tag("section", section)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.abincaps.shortlink.project.stats;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * 短链接监控查询语句超时
+ * 监控查询线程内执行的 SQL 设置 JDBC 语句超时，请求侧超时返回后数据库侧的慢查询同样被取消，不再占用连接
+ */
+@Component
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class StatsQueryTimeoutInterceptor implements Interceptor {
+
+    private static final ThreadLocal<Integer> TIMEOUT_SECONDS = new ThreadLocal<>();
+
+    /**
+     * 在语句超时范围内执行查询
+     *
+     * @param timeoutSeconds 语句超时秒数
+     * @param query          查询逻辑
+     * @return 查询结果
+     */
+    public static <T> T withTimeout(int timeoutSeconds, Supplier<T> query) {
+        TIMEOUT_SECONDS.set(timeoutSeconds);
+        try {
+            return query.get();
+        } finally {
+            TIMEOUT_SECONDS.remove();
+        }
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Integer timeoutSeconds = TIMEOUT_SECONDS.get();
+        if (timeoutSeconds != null && result instanceof Statement statement
+                && (statement.getQueryTimeout() == 0 || statement.getQueryTimeout() > timeoutSeconds)) {
+            statement.setQueryTimeout(timeoutSeconds);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.util.StrUtil;
+import com.abincaps.shortlink.project.dao.entity.LinkStatsRollupDO;
+import com.abincaps.shortlink.project.toolkit.HyperLogLog;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 访问统计汇总累加器
+ * 访问量直接求和，UV、UIP 通过 HyperLogLog 合并，高频 IP 按次数合并；
+ * 由已汇总数据合并时每个周期只保留了前若干个 IP，合并结果中的高频 IP 为近似值
+ */
+public class StatsRollupAccumulator {
+
+    private static final String IP_SEPARATOR = ",";
+    private static final String COUNT_SEPARATOR = "=";
+
+    private long pv;
+    private final HyperLogLog uvSketch = new HyperLogLog();
+    private final HyperLogLog uipSketch = new HyperLogLog();
+    private final Map<String, Long> ipCounts = new HashMap<>();
+
+    /**
+     * 加入一条访问记录
+     */
+    public void add(String user, String ip) {
+        pv++;
+        if (user != null) {
+            uvSketch.add(user);
+        }
+        if (ip != null) {
+            uipSketch.add(ip);
+            ipCounts.merge(ip, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 合并另一个累加器
+     */
+    public void merge(StatsRollupAccumulator other) {
+        pv += other.pv;
+        uvSketch.merge(other.uvSketch);
+        uipSketch.merge(other.uipSketch);
+        other.ipCounts.forEach((ip, count) -> ipCounts.merge(ip, count, Long::sum));
+    }
+
+    /**
+     * 合并一条已汇总数据
+     */
+    public void merge(LinkStatsRollupDO rollup) {
+        pv += rollup.getPv() == null ? 0 : rollup.getPv();
+        uvSketch.merge(HyperLogLog.fromBytes(rollup.getUvSketch()));
+        uipSketch.merge(HyperLogLog.fromBytes(rollup.getUipSketch()));
+        decodeTopIps(rollup.getTopIps()).forEach((ip, count) -> ipCounts.merge(ip, count, Long::sum));
+    }
+
+    public long getPv() {
+        return pv;
+    }
+
+    public long getUv() {
+        return uvSketch.cardinality();
+    }
+
+    public long getUip() {
+        return uipSketch.cardinality();
+    }
+
+    /**
+     * 访问次数最多的若干个 IP，按次数倒序
+     */
+    public Map<String, Long> topIps(int limit) {
+        return ipCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 转换为汇总数据
+     *
+     * @param fullShortUrl 完整短链接，分组汇总为空字符串
+     * @param gid          分组标识
+     * @param periodType   汇总周期类型
+     * @param periodStart  周期起始日期
+     * @param topIpLimit   保存的高频 IP 数量
+     */
+    public LinkStatsRollupDO toRollup(String fullShortUrl, String gid, int periodType, Date periodStart, int topIpLimit) {
+        return LinkStatsRollupDO.builder()
+                .fullShortUrl(fullShortUrl)
+                .gid(gid)
+                .periodType(periodType)
+                .periodStart(periodStart)
+                .pv((int) pv)
+                .uv((int) getUv())
+                .uip((int) getUip())
+                .uvSketch(uvSketch.toBytes())
+                .uipSketch(uipSketch.toBytes())
+                .topIps(encodeTopIps(topIps(topIpLimit)))
+                .build();
+    }
+
+    private static String encodeTopIps(Map<String, Long> topIps) {
+        return topIps.entrySet().stream()
+                .map(each -> each.getKey() + COUNT_SEPARATOR + each.getValue())
+                .collect(Collectors.joining(IP_SEPARATOR));
+    }
+
+    private static Map<String, Long> decodeTopIps(String topIps) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (StrUtil.isBlank(topIps)) {
+            return result;
+        }
+        for (String each : topIps.split(IP_SEPARATOR)) {
+            int index = each.lastIndexOf(COUNT_SEPARATOR);
+            if (index > 0) {
+                result.put(each.substring(0, index), Long.parseLong(each.substring(index + 1)));
+            }
+        }
+        return result;
+    }
+}
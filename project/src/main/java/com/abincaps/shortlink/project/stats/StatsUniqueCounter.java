@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.lang.UUID;
+import cn.hutool.core.util.StrUtil;
+import com.abincaps.shortlink.project.config.StatsUniqueConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_GROUP_UIP_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_GROUP_UV_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_UIP_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_UNIQUE_PENDING_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_UNIQUE_START_DATE_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_UNIQUE_TEMP_KEY;
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.SHORT_LINK_STATS_UV_KEY;
+
+/**
+ * 短链接 UV、UIP 去重计数
+ * 按短链接、分组每日一个 HyperLogLog 记录访问用户及 IP，内存占用与访客数量无关；
+ * 刷新前通过 Lua 脚本将窗口内成员写入本次刷新的临时 HyperLogLog，按每日 HyperLogLog 与其它未完成刷新的临时 HyperLogLog 之并计算增量，
+ * 多个处理线程并发刷新时同一访客只计入一次；落库成功后合并到每日 HyperLogLog，落库失败时丢弃临时 HyperLogLog，重新投递的访问仍能计入
+ * 分组 HyperLogLog 不需要增量，落库成功后直接写入
+ */
+@Component
+@RequiredArgsConstructor
+public class StatsUniqueCounter {
+
+    private static final long TEMP_KEY_TTL_SECONDS = 600L;
+
+    private static final String UNIQUE_RESERVE_LUA_SCRIPT_PATH = "lua/short_link_stats_unique_reserve.lua";
+    private static final String UNIQUE_COMMIT_LUA_SCRIPT_PATH = "lua/short_link_stats_unique_commit.lua";
+
+    private static final String UNIQUE_RESERVE_SCRIPT = loadScript(UNIQUE_RESERVE_LUA_SCRIPT_PATH);
+    private static final String UNIQUE_COMMIT_SCRIPT = loadScript(UNIQUE_COMMIT_LUA_SCRIPT_PATH);
+
+    private final StatsUniqueConfig statsUniqueConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 首次写入每日 HyperLogLog 的日期，写入后不再变化
+     */
+    private volatile Date uniqueStartDate;
+
+    /**
+     * 短链接某日访问用户 HyperLogLog Key
+     */
+    public static String uvKey(String fullShortUrl, Date date) {
+        return String.format(SHORT_LINK_STATS_UV_KEY, fullShortUrl, DateUtil.format(date, DatePattern.PURE_DATE_PATTERN));
+    }
+
+    /**
+     * 短链接某日访问 IP HyperLogLog Key
+     */
+    public static String uipKey(String fullShortUrl, Date date) {
+        return String.format(SHORT_LINK_STATS_UIP_KEY, fullShortUrl, DateUtil.format(date, DatePattern.PURE_DATE_PATTERN));
+    }
+
+    /**
+     * 分组某日访问用户 HyperLogLog Key
+     */
+    public static String groupUvKey(String gid, Date date) {
+        return String.format(SHORT_LINK_STATS_GROUP_UV_KEY, gid, DateUtil.format(date, DatePattern.PURE_DATE_PATTERN));
+    }
+
+    /**
+     * 分组某日访问 IP HyperLogLog Key
+     */
+    public static String groupUipKey(String gid, Date date) {
+        return String.format(SHORT_LINK_STATS_GROUP_UIP_KEY, gid, DateUtil.format(date, DatePattern.PURE_DATE_PATTERN));
+    }
+
+    /**
+     * 预占窗口内各短链接每日 UV、UIP 增量并写入窗口，一次往返完成
+     *
+     * @param window 聚合窗口
+     * @return 落库成功后合并、落库失败后丢弃的 HyperLogLog
+     */
+    public List<PendingMerge> count(ShortLinkStatsWindow window) {
+        List<PendingMerge> pendingMerges = new ArrayList<>();
+        List<LinkUnique> links = new ArrayList<>();
+        String flushId = UUID.fastUUID().toString(true);
+        window.forEachLinkUnique((fullShortUrl, gid, date, users, ips) -> {
+            PendingMerge uvMerge = new PendingMerge(uvKey(fullShortUrl, date), tempKey(uvKey(fullShortUrl, date), flushId), users);
+            PendingMerge uipMerge = new PendingMerge(uipKey(fullShortUrl, date), tempKey(uipKey(fullShortUrl, date), flushId), ips);
+            pendingMerges.add(uvMerge);
+            pendingMerges.add(uipMerge);
+            links.add(new LinkUnique(fullShortUrl, gid, date, uvMerge, uipMerge));
+        });
+        window.forEachGroupUnique((fullShortUrl, gid, date, users, ips) -> {
+            pendingMerges.add(new PendingMerge(groupUvKey(gid, date), null, users));
+            pendingMerges.add(new PendingMerge(groupUipKey(gid, date), null, ips));
+        });
+        if (links.isEmpty()) {
+            return pendingMerges;
+        }
+        String ttlSeconds = String.valueOf(TEMP_KEY_TTL_SECONDS);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            stringRedisConnection.setNX(SHORT_LINK_STATS_UNIQUE_START_DATE_KEY, DateUtil.format(new Date(), DatePattern.PURE_DATE_PATTERN));
+            for (LinkUnique each : links) {
+                stringRedisConnection.eval(UNIQUE_RESERVE_SCRIPT, ReturnType.INTEGER, 3, keysAndArgs(each.uvMerge(), ttlSeconds, each.uvMerge().members()));
+                stringRedisConnection.eval(UNIQUE_RESERVE_SCRIPT, ReturnType.INTEGER, 3, keysAndArgs(each.uipMerge(), ttlSeconds, each.uipMerge().members()));
+            }
+            return null;
+        });
+        // 第 1 条命令为记录首次写入日期，之后每个短链接对应 UV、UIP 两条脚本
+        for (int i = 0; i < links.size(); i++) {
+            LinkUnique link = links.get(i);
+            int uvDelta = ((Long) results.get(i * 2 + 1)).intValue();
+            int uipDelta = ((Long) results.get(i * 2 + 2)).intValue();
+            window.applyUnique(link.fullShortUrl(), link.gid(), link.date(), Math.max(uvDelta, 0), Math.max(uipDelta, 0));
+        }
+        return pendingMerges;
+    }
+
+    /**
+     * 落库成功后合并到每日 HyperLogLog 并刷新过期时间
+     *
+     * @param pendingMerges 待合并的 HyperLogLog
+     */
+    public void merge(Collection<PendingMerge> pendingMerges) {
+        if (pendingMerges.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = TimeUnit.DAYS.toSeconds(statsUniqueConfig.getTtlDays());
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (PendingMerge each : pendingMerges) {
+                if (each.tempKey() == null) {
+                    stringRedisConnection.pfAdd(each.key(), each.members().toArray(String[]::new));
+                    stringRedisConnection.expire(each.key(), ttlSeconds);
+                } else {
+                    stringRedisConnection.eval(UNIQUE_COMMIT_SCRIPT, ReturnType.INTEGER, 3,
+                            each.key(), pendingKey(each.key()), each.tempKey(), String.valueOf(ttlSeconds));
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 落库失败后丢弃本次刷新的临时 HyperLogLog，重新投递时按未计入处理；丢弃失败时临时 Key 过期后自动失效
+     *
+     * @param pendingMerges 待丢弃的 HyperLogLog
+     */
+    public void discard(Collection<PendingMerge> pendingMerges) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (PendingMerge each : pendingMerges) {
+                if (each.tempKey() != null) {
+                    stringRedisConnection.del(each.tempKey());
+                    stringRedisConnection.sRem(pendingKey(each.key()), each.tempKey());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 查询日期范围内去重后的访问用户数、访问 IP 数
+     * 多个每日 HyperLogLog 通过 PFCOUNT 在服务端临时合并计算，不写入合并结果
+     *
+     * @param uvKeys  每日访问用户 HyperLogLog Key
+     * @param uipKeys 每日访问 IP HyperLogLog Key
+     * @return [UV, UIP]
+     */
+    public long[] countRange(List<String> uvKeys, List<String> uipKeys) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            stringRedisConnection.pfCount(uvKeys.toArray(String[]::new));
+            stringRedisConnection.pfCount(uipKeys.toArray(String[]::new));
+            return null;
+        });
+        return new long[]{(Long) results.get(0), (Long) results.get(1)};
+    }
+
+    /**
+     * 日期是否仍在每日 HyperLogLog 保留范围内
+     * 首次写入当日之前的访问未写入 HyperLogLog，首次写入当日也可能只记录了部分访客，均需从数据库统计
+     */
+    public boolean isRetained(Date date) {
+        Date earliest = DateUtil.beginOfDay(DateUtil.offsetDay(new Date(), 1 - statsUniqueConfig.getTtlDays()));
+        if (date.before(earliest)) {
+            return false;
+        }
+        Date startDate = getUniqueStartDate();
+        return startDate != null && date.after(startDate);
+    }
+
+    private Date getUniqueStartDate() {
+        if (uniqueStartDate == null) {
+            String startDate = stringRedisTemplate.opsForValue().get(SHORT_LINK_STATS_UNIQUE_START_DATE_KEY);
+            if (StrUtil.isNotBlank(startDate)) {
+                uniqueStartDate = DateUtil.parse(startDate, DatePattern.PURE_DATE_PATTERN);
+            }
+        }
+        return uniqueStartDate;
+    }
+
+    private static String pendingKey(String key) {
+        return String.format(SHORT_LINK_STATS_UNIQUE_PENDING_KEY, key);
+    }
+
+    private static String tempKey(String key, String flushId) {
+        return String.format(SHORT_LINK_STATS_UNIQUE_TEMP_KEY, key, flushId);
+    }
+
+    private static String loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        return script.getScriptAsString();
+    }
+
+    private static String[] keysAndArgs(PendingMerge merge, String ttlSeconds, Collection<String> members) {
+        String[] keysAndArgs = new String[members.size() + 4];
+        keysAndArgs[0] = merge.key();
+        keysAndArgs[1] = pendingKey(merge.key());
+        keysAndArgs[2] = merge.tempKey();
+        keysAndArgs[3] = ttlSeconds;
+        int i = 4;
+        for (String each : members) {
+            keysAndArgs[i++] = each;
+        }
+        return keysAndArgs;
+    }
+
+    private record LinkUnique(String fullShortUrl, String gid, Date date, PendingMerge uvMerge, PendingMerge uipMerge) {
+    }
+
+    /**
+     * 待合并的 HyperLogLog，临时 Key 为空时直接写入成员
+     */
+    public record PendingMerge(String key, String tempKey, Collection<String> members) {
+    }
+}
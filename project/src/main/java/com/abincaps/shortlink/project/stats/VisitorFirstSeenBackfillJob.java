@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.abincaps.shortlink.project.config.StatsAccessLogConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkAccessStatsDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessLogsMapper;
+import com.abincaps.shortlink.project.dao.mapper.LinkAccessStatsMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.abincaps.shortlink.project.common.constant.RedisConstant.LOCK_STATS_FIRST_SEEN_BACKFILL_KEY;
+
+/**
+ * 访客首次访问日期索引补录任务
+ * 逐日读取保留期内有访问的短链接及其去重访客写入索引，索引冲突时保留较早日期，可与实时写入并行且重复执行结果不变
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VisitorFirstSeenBackfillJob implements InitializingBean, DisposableBean {
+
+    private final StatsAccessLogConfig statsAccessLogConfig;
+    private final LinkAccessStatsMapper linkAccessStatsMapper;
+    private final LinkAccessLogsMapper linkAccessLogsMapper;
+    private final VisitorFirstSeenIndex visitorFirstSeenIndex;
+    private final RedissonClient redissonClient;
+
+    private ExecutorService backfillExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        backfillExecutor = Executors.newSingleThreadExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("short-link-stats-first-seen-").setDaemon(true).build()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        backfillExecutor.shutdownNow();
+    }
+
+    /**
+     * 在后台由访问日志补录访客首次访问日期，范围为访问日志保留期首日至今日
+     */
+    public void backfill() {
+        Date start = DateUtil.beginOfDay(DateUtil.beginOfMonth(DateUtil.offsetMonth(new Date(), 1 - statsAccessLogConfig.getRetentionMonths())));
+        Date end = DateUtil.beginOfDay(new Date());
+        backfillExecutor.execute(() -> backfill(start, end));
+    }
+
+    private void backfill(Date start, Date end) {
+        RLock lock = redissonClient.getLock(LOCK_STATS_FIRST_SEEN_BACKFILL_KEY);
+        if (!lock.tryLock()) {
+            log.info("访客首次访问日期索引补录正在其他节点执行，本次跳过");
+            return;
+        }
+        try {
+            for (Date day = start; !day.after(end); day = DateUtil.offsetDay(day, 1)) {
+                Date dayEnd = DateUtil.endOfDay(day);
+                for (LinkAccessStatsDO each : linkAccessStatsMapper.listLinksByDate(day)) {
+                    List<String> users = linkAccessLogsMapper.listDistinctUsers(each.getGid(), each.getFullShortUrl(), day, dayEnd);
+                    visitorFirstSeenIndex.record(each.getGid(), each.getFullShortUrl(), day, users);
+                }
+                log.info("访客首次访问日期索引补录完成，日期：{}", DateUtil.formatDate(day));
+            }
+        } catch (Exception ex) {
+            log.error("访客首次访问日期索引补录失败，日期范围：{} ~ {}", DateUtil.formatDate(start), DateUtil.formatDate(end), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
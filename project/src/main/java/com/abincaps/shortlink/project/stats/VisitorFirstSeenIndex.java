@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.stats;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.abincaps.shortlink.project.config.StatsPipelineConfig;
+import com.abincaps.shortlink.project.dao.entity.LinkVisitorFirstSeenDO;
+import com.abincaps.shortlink.project.dao.mapper.LinkVisitorFirstSeenMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 访客首次访问日期索引
+ * 落库时按 (分组, 短链接, 访客哈希) 记录最早访问日期，新访客数与访问记录的新老访客类型均按索引查询，不再聚合全部历史访问日志；
+ * 已有部署升级后由 {@link VisitorFirstSeenBackfillJob} 从保留期内的访问日志补录
+ */
+@Component
+@RequiredArgsConstructor
+public class VisitorFirstSeenIndex {
+
+    public static final String NEW_VISITOR = "新访客";
+    public static final String OLD_VISITOR = "老访客";
+
+    private final StatsPipelineConfig statsPipelineConfig;
+    private final LinkVisitorFirstSeenMapper linkVisitorFirstSeenMapper;
+
+    /**
+     * 写入窗口内短链接及分组访客的访问日期，已记录的访客保留较早日期；在统计事务内执行
+     */
+    public void record(ShortLinkStatsWindow window) {
+        Map<FirstSeenKey, Date> firstSeen = new HashMap<>();
+        window.forEachLinkUnique((fullShortUrl, gid, date, users, ips) -> users.forEach(each -> putEarliest(firstSeen, gid, fullShortUrl, each, date)));
+        window.forEachGroupUnique((fullShortUrl, gid, date, users, ips) ->
+                users.forEach(each -> putEarliest(firstSeen, gid, ShortLinkStatsRollupBuilder.GROUP_FULL_SHORT_URL, each, date)));
+        write(firstSeen);
+    }
+
+    /**
+     * 写入短链接某日访客的访问日期，同时写入所属分组；用于由访问日志补录索引
+     */
+    public void record(String gid, String fullShortUrl, Date date, Collection<String> users) {
+        Map<FirstSeenKey, Date> firstSeen = new HashMap<>();
+        users.forEach(each -> {
+            putEarliest(firstSeen, gid, fullShortUrl, each, date);
+            putEarliest(firstSeen, gid, ShortLinkStatsRollupBuilder.GROUP_FULL_SHORT_URL, each, date);
+        });
+        write(firstSeen);
+    }
+
+    private void write(Map<FirstSeenKey, Date> firstSeen) {
+        if (firstSeen.isEmpty()) {
+            return;
+        }
+        // 按主键排序后分段写入，多个处理线程以相同顺序加锁
+        List<LinkVisitorFirstSeenDO> rows = firstSeen.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(FirstSeenKey::gid)
+                        .thenComparing(FirstSeenKey::fullShortUrl)
+                        .thenComparingLong(FirstSeenKey::visitorHash)))
+                .map(each -> LinkVisitorFirstSeenDO.builder()
+                        .gid(each.getKey().gid())
+                        .fullShortUrl(each.getKey().fullShortUrl())
+                        .visitorHash(each.getKey().visitorHash())
+                        .firstSeenDate(each.getValue())
+                        .build())
+                .toList();
+        ListUtil.partition(rows, statsPipelineConfig.getFlushBatchRows()).forEach(linkVisitorFirstSeenMapper::insertBatch);
+    }
+
+    /**
+     * 统计日期范围内的新访客数，即首次访问日期在范围内的访客
+     *
+     * @param fullShortUrl 完整短链接，为 null 时统计分组
+     */
+    public int countNewVisitors(String gid, String fullShortUrl, Date startDate, Date endDate) {
+        return linkVisitorFirstSeenMapper.countFirstSeen(gid, targetUrl(fullShortUrl), DateUtil.beginOfDay(startDate), DateUtil.beginOfDay(endDate));
+    }
+
+    /**
+     * 查询访客在日期范围内属于新访客还是老访客，索引中不存在的访客不返回
+     *
+     * @param fullShortUrl 完整短链接，为 null 时按分组判断
+     * @return 访客标识到访客类型的映射
+     */
+    public Map<String, String> uvTypes(String gid, String fullShortUrl, Date startDate, Date endDate, Collection<String> users) {
+        Map<Long, String> usersByHash = new HashMap<>();
+        users.stream().filter(Objects::nonNull).forEach(each -> usersByHash.put(visitorHash(each), each));
+        Map<String, String> result = new HashMap<>();
+        if (CollUtil.isEmpty(usersByHash)) {
+            return result;
+        }
+        long startMillis = DateUtil.beginOfDay(startDate).getTime();
+        long endMillis = DateUtil.beginOfDay(endDate).getTime();
+        linkVisitorFirstSeenMapper.listByVisitors(gid, targetUrl(fullShortUrl), List.copyOf(usersByHash.keySet())).forEach(each -> {
+            long firstSeenMillis = each.getFirstSeenDate().getTime();
+            boolean newVisitor = firstSeenMillis >= startMillis && firstSeenMillis <= endMillis;
+            result.put(usersByHash.get(each.getVisitorHash()), newVisitor ? NEW_VISITOR : OLD_VISITOR);
+        });
+        return result;
+    }
+
+    /**
+     * 访客标识哈希，64 位哈希在单个短链接的访客规模下冲突可忽略
+     */
+    public static long visitorHash(String user) {
+        return MurmurHash.hash64(user);
+    }
+
+    private static String targetUrl(String fullShortUrl) {
+        return fullShortUrl == null ? ShortLinkStatsRollupBuilder.GROUP_FULL_SHORT_URL : fullShortUrl;
+    }
+
+    private static void putEarliest(Map<FirstSeenKey, Date> firstSeen, String gid, String fullShortUrl, String user, Date date) {
+        if (user == null) {
+            return;
+        }
+        firstSeen.merge(new FirstSeenKey(gid, fullShortUrl, visitorHash(user)), date, (left, right) -> left.before(right) ? left : right);
+    }
+
+    private record FirstSeenKey(String gid, String fullShortUrl, long visitorHash) {
+    }
+}
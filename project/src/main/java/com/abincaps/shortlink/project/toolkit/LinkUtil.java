@@ -79,20 +79,17 @@ public class LinkUtil {
      * @return 访问操作系统
      */
     public static String getOs(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
-        if (userAgent.toLowerCase().contains("windows")) {
-            return "Windows";
-        } else if (userAgent.toLowerCase().contains("mac")) {
-            return "Mac OS";
-        } else if (userAgent.toLowerCase().contains("linux")) {
-            return "Linux";
-        } else if (userAgent.toLowerCase().contains("android")) {
-            return "Android";
-        } else if (userAgent.toLowerCase().contains("iphone") || userAgent.toLowerCase().contains("ipad")) {
-            return "iOS";
-        } else {
-            return "Unknown";
-        }
+        return getOs(request.getHeader("User-Agent"));
+    }
+
+    /**
+     * 根据 User-Agent 获取用户访问操作系统
+     *
+     * @param userAgent 请求头 User-Agent
+     * @return 访问操作系统
+     */
+    public static String getOs(String userAgent) {
+        return UserAgentParser.parse(userAgent).os().getName();
     }
 
     /**
@@ -102,22 +99,17 @@ public class LinkUtil {
      * @return 访问浏览器
      */
     public static String getBrowser(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
-        if (userAgent.toLowerCase().contains("edg")) {
-            return "Microsoft Edge";
-        } else if (userAgent.toLowerCase().contains("chrome")) {
-            return "Google Chrome";
-        } else if (userAgent.toLowerCase().contains("firefox")) {
-            return "Mozilla Firefox";
-        } else if (userAgent.toLowerCase().contains("safari")) {
-            return "Apple Safari";
-        } else if (userAgent.toLowerCase().contains("opera")) {
-            return "Opera";
-        } else if (userAgent.toLowerCase().contains("msie") || userAgent.toLowerCase().contains("trident")) {
-            return "Internet Explorer";
-        } else {
-            return "Unknown";
-        }
+        return getBrowser(request.getHeader("User-Agent"));
+    }
+
+    /**
+     * 根据 User-Agent 获取用户访问浏览器
+     *
+     * @param userAgent 请求头 User-Agent
+     * @return 访问浏览器
+     */
+    public static String getBrowser(String userAgent) {
+        return UserAgentParser.parse(userAgent).browser().getName();
     }
 
     /**
@@ -127,11 +119,20 @@ public class LinkUtil {
      * @return 访问设备
      */
     public static String getDevice(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
-        if (userAgent.toLowerCase().contains("mobile")) {
-            return "Mobile";
+        return getDevice(request.getHeader("User-Agent"));
+    }
+
+    /**
+     * 根据 User-Agent 获取用户访问设备
+     *
+     * @param userAgent 请求头 User-Agent
+     * @return 访问设备
+     */
+    public static String getDevice(String userAgent) {
+        if (userAgent == null) {
+            return "Unknown";
         }
-        return "PC";
+        return UserAgentParser.parse(userAgent).device().getName();
     }
 
     /**
@@ -141,7 +142,16 @@ public class LinkUtil {
      * @return 访问设备
      */
     public static String getNetwork(HttpServletRequest request) {
-        String actualIp = getActualIp(request);
+        return getNetwork(getActualIp(request));
+    }
+
+    /**
+     * 根据用户真实IP获取用户访问网络
+     *
+     * @param actualIp 用户真实IP
+     * @return 访问网络
+     */
+    public static String getNetwork(String actualIp) {
         // 这里简单判断IP地址范围，您可能需要更复杂的逻辑
         // 例如，通过调用IP地址库或调用第三方服务来判断网络类型
         return actualIp.startsWith("192.168.") || actualIp.startsWith("10.") ? "WIFI" : "Mobile";
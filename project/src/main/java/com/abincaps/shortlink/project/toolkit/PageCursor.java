@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.toolkit;
+
+import com.abincaps.shortlink.project.common.convention.exception.ClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 键集分页游标，记录上一页最后一条记录的排序值及主键，对调用方不透明
+ *
+ * @param sortTag 排序标识，游标只能用于生成它的排序方式
+ * @param value   排序值，时间类型为毫秒时间戳
+ * @param id      主键
+ */
+public record PageCursor(String sortTag, long value, long id) {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * 编码为 URL 安全的字符串
+     */
+    public String encode() {
+        String raw = sortTag + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor  游标字符串
+     * @param sortTag 当前请求的排序标识
+     * @return 游标，首页传入空字符串时返回 null
+     */
+    public static PageCursor decode(String cursor, String sortTag) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR);
+            if (parts.length == 3 && parts[0].equals(sortTag)) {
+                return new PageCursor(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // 按无效游标处理
+        }
+        throw new ClientException("分页游标无效");
+    }
+}
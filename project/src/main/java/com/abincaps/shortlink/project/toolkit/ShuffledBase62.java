@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.toolkit;
+
+import java.util.Random;
+
+/**
+ * 打乱的定长 Base62 编码
+ * 编号先经过以密钥为轮密钥的 Feistel 置换打散，再用打乱顺序的字符表编码为定长字符串；
+ * 置换与编码均为双射，不同编号一定得到不同结果，相邻编号的结果之间没有规律
+ */
+public final class ShuffledBase62 {
+
+    private static final char[] CHARS = new char[]{
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+            'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z'
+    };
+    private static final int SIZE = CHARS.length;
+    private static final int ROUNDS = 4;
+
+    private final char[] alphabet;
+    private final int length;
+
+    /**
+     * 可编码的编号数量，即 62 的 length 次方
+     */
+    private final long capacity;
+
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param secret 密钥，决定字符表顺序及置换方式
+     * @param length 编码长度，取值 1 到 10
+     */
+    public ShuffledBase62(long secret, int length) {
+        if (length < 1 || length > 10) {
+            throw new IllegalArgumentException("编码长度需在 1 到 10 之间：" + length);
+        }
+        this.length = length;
+        long value = 1L;
+        for (int i = 0; i < length; i++) {
+            value *= SIZE;
+        }
+        this.capacity = value;
+
+        Random random = new Random(secret);
+        alphabet = CHARS.clone();
+        for (int i = alphabet.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char temp = alphabet[i];
+            alphabet[i] = alphabet[j];
+            alphabet[j] = temp;
+        }
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = random.nextLong();
+        }
+        // Feistel 置换作用在不小于 capacity 的偶数位宽上，超出 capacity 的结果继续置换直到落回范围内
+        int bits = 64 - Long.numberOfLeadingZeros(capacity - 1);
+        halfBits = (bits + 1) / 2;
+        halfMask = (1L << halfBits) - 1;
+    }
+
+    /**
+     * 可编码的编号数量
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * 编码
+     *
+     * @param id 编号，取值 0 到 capacity - 1
+     * @return 定长编码
+     */
+    public String encode(long id) {
+        if (id < 0 || id >= capacity) {
+            throw new IllegalArgumentException("编号超出可编码范围：" + id);
+        }
+        long value = id;
+        do {
+            value = permute(value);
+        } while (value >= capacity);
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = alphabet[(int) (value % SIZE)];
+            value /= SIZE;
+        }
+        return new String(chars);
+    }
+
+    private long permute(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long temp = right;
+            right = left ^ (round(right, roundKey) & halfMask);
+            left = temp;
+        }
+        return left << halfBits | right;
+    }
+
+    private static long round(long value, long roundKey) {
+        long x = (value ^ roundKey) * 0x9E3779B97F4A7C15L;
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        return x;
+    }
+}
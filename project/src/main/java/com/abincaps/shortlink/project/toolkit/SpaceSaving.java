@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.toolkit;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Space-Saving 高频元素估计
+ * 最多保留 capacity 个计数器，计数器已满时新元素替换计数最小的元素并继承其计数；
+ * 设总次数为 N，每个估计值偏大且偏差不超过 N / capacity，真实次数超过 N / capacity 的元素一定被保留；
+ * 按 Mergeable Summaries 的方式合并后误差上界仍为合并后总次数的 1 / capacity
+ */
+public final class SpaceSaving {
+
+    private static final String ITEM_SEPARATOR = ",";
+    private static final String FIELD_SEPARATOR = "=";
+
+    private final int capacity;
+    private final Map<String, long[]> counters;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * 加入元素若干次
+     */
+    public void offer(String item, long count) {
+        total += count;
+        long[] counter = counters.get(item);
+        if (counter != null) {
+            counter[0] += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(item, new long[]{count, 0L});
+            return;
+        }
+        Map.Entry<String, long[]> min = minEntry();
+        long minCount = min.getValue()[0];
+        counters.remove(min.getKey());
+        counters.put(item, new long[]{minCount + count, minCount});
+    }
+
+    /**
+     * 合并另一个估计，一方未保留的元素按该方最小计数补足，再保留计数最大的 capacity 个元素
+     */
+    public void merge(SpaceSaving other) {
+        long thisMin = minCount();
+        long otherMin = other.minCount();
+        Map<String, long[]> merged = new HashMap<>(counters.size() + other.counters.size());
+        counters.forEach((item, counter) -> {
+            long[] otherCounter = other.counters.get(item);
+            merged.put(item, otherCounter == null
+                    ? new long[]{counter[0] + otherMin, counter[1] + otherMin}
+                    : new long[]{counter[0] + otherCounter[0], counter[1] + otherCounter[1]});
+        });
+        other.counters.forEach((item, counter) -> {
+            if (!counters.containsKey(item)) {
+                merged.put(item, new long[]{counter[0] + thisMin, counter[1] + thisMin});
+            }
+        });
+        counters.clear();
+        merged.entrySet().stream()
+                .sorted(Map.Entry.<String, long[]>comparingByValue(Comparator.comparingLong(each -> -each[0])).thenComparing(Map.Entry.comparingByKey()))
+                .limit(capacity)
+                .forEach(each -> counters.put(each.getKey(), each.getValue()));
+        total += other.total;
+    }
+
+    /**
+     * 估计次数最多的若干个元素，按估计次数倒序
+     */
+    public Map<String, Long> top(int limit) {
+        return counters.entrySet().stream()
+                .sorted(Map.Entry.<String, long[]>comparingByValue(Comparator.comparingLong(each -> -each[0])).thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, each -> each.getValue()[0], (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 已加入的总次数
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * 单个估计值的最大偏差
+     */
+    public long maxError() {
+        return total / capacity;
+    }
+
+    /**
+     * 序列化计数器，格式 元素=估计次数=最大偏差,...
+     */
+    public String encode() {
+        return counters.entrySet().stream()
+                .map(each -> each.getKey() + FIELD_SEPARATOR + each.getValue()[0] + FIELD_SEPARATOR + each.getValue()[1])
+                .collect(Collectors.joining(ITEM_SEPARATOR));
+    }
+
+    /**
+     * 反序列化计数器，超出容量时保留估计次数最大的元素
+     */
+    public static SpaceSaving decode(int capacity, long total, String encoded) {
+        SpaceSaving result = new SpaceSaving(capacity);
+        result.total = total;
+        if (StrUtil.isBlank(encoded)) {
+            return result;
+        }
+        Map<String, long[]> decoded = new HashMap<>();
+        for (String each : encoded.split(ITEM_SEPARATOR)) {
+            String[] fields = each.split(FIELD_SEPARATOR);
+            if (fields.length == 3) {
+                decoded.put(fields[0], new long[]{Long.parseLong(fields[1]), Long.parseLong(fields[2])});
+            }
+        }
+        decoded.entrySet().stream()
+                .sorted(Map.Entry.<String, long[]>comparingByValue(Comparator.comparingLong(each -> -each[0])).thenComparing(Map.Entry.comparingByKey()))
+                .limit(capacity)
+                .forEach(each -> result.counters.put(each.getKey(), each.getValue()));
+        return result;
+    }
+
+    private long minCount() {
+        return counters.size() < capacity ? 0L : minEntry().getValue()[0];
+    }
+
+    private Map.Entry<String, long[]> minEntry() {
+        Map.Entry<String, long[]> min = null;
+        for (Map.Entry<String, long[]> each : counters.entrySet()) {
+            if (min == null || each.getValue()[0] < min.getValue()[0]) {
+                min = each;
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.abincaps.shortlink.project.toolkit;
+
+import com.abincaps.shortlink.project.common.enums.BrowserTypeEnum;
+import com.abincaps.shortlink.project.common.enums.DeviceTypeEnum;
+import com.abincaps.shortlink.project.common.enums.OsTypeEnum;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * User-Agent 解析器
+ * 基于 Aho-Corasick 自动机对原始请求头做一次忽略大小写的扫描，同时识别操作系统、浏览器及设备，
+ * 扫描过程不产生小写副本等临时对象；解析结果为预先创建的共享实例，最近解析过的 User-Agent 缓存在有界本地缓存中
+ */
+public final class UserAgentParser {
+
+    /**
+     * 关键字按识别优先级排列，同一类别中越靠前优先级越高，与原有 contains 判断顺序保持一致
+     */
+    private static final String[] OS_KEYWORDS = {"windows", "mac", "linux", "android", "iphone", "ipad"};
+    private static final OsTypeEnum[] OS_TYPES = {OsTypeEnum.WINDOWS, OsTypeEnum.MAC_OS, OsTypeEnum.LINUX, OsTypeEnum.ANDROID, OsTypeEnum.IOS, OsTypeEnum.IOS};
+
+    private static final String[] BROWSER_KEYWORDS = {"edg", "chrome", "firefox", "safari", "opera", "msie", "trident"};
+    private static final BrowserTypeEnum[] BROWSER_TYPES = {BrowserTypeEnum.EDGE, BrowserTypeEnum.CHROME, BrowserTypeEnum.FIREFOX, BrowserTypeEnum.SAFARI,
+            BrowserTypeEnum.OPERA, BrowserTypeEnum.INTERNET_EXPLORER, BrowserTypeEnum.INTERNET_EXPLORER};
+
+    private static final String[] DEVICE_KEYWORDS = {"mobile"};
+
+    private static final int ALPHABET_SIZE = 128;
+    private static final int OS_OFFSET = 0;
+    private static final int BROWSER_OFFSET = OS_OFFSET + OS_KEYWORDS.length;
+    private static final int DEVICE_OFFSET = BROWSER_OFFSET + BROWSER_KEYWORDS.length;
+    private static final long OS_MASK = ((1L << OS_KEYWORDS.length) - 1) << OS_OFFSET;
+    private static final long BROWSER_MASK = ((1L << BROWSER_KEYWORDS.length) - 1) << BROWSER_OFFSET;
+    private static final long DEVICE_MASK = ((1L << DEVICE_KEYWORDS.length) - 1) << DEVICE_OFFSET;
+
+    private static final int CACHE_MAXIMUM_SIZE = 4096;
+
+    /**
+     * 状态转移表，transitions[state * ALPHABET_SIZE + char] 为下一状态
+     */
+    private static final int[] TRANSITIONS;
+
+    /**
+     * 到达各状态时命中的关键字位图，已合并失败链上的输出
+     */
+    private static final long[] OUTPUTS;
+
+    /**
+     * 全部解析结果组合，按 [操作系统][浏览器][设备] 预先创建
+     */
+    private static final UserAgentInfo[][][] RESULTS;
+
+    private static final UserAgentInfo UNKNOWN_RESULT;
+
+    private static final Cache<String, UserAgentInfo> CACHE = Caffeine.newBuilder()
+            .maximumSize(CACHE_MAXIMUM_SIZE)
+            .build();
+
+    static {
+        String[] keywords = new String[DEVICE_OFFSET + DEVICE_KEYWORDS.length];
+        System.arraycopy(OS_KEYWORDS, 0, keywords, OS_OFFSET, OS_KEYWORDS.length);
+        System.arraycopy(BROWSER_KEYWORDS, 0, keywords, BROWSER_OFFSET, BROWSER_KEYWORDS.length);
+        System.arraycopy(DEVICE_KEYWORDS, 0, keywords, DEVICE_OFFSET, DEVICE_KEYWORDS.length);
+
+        // 构建字典树
+        int maxStates = Arrays.stream(keywords).mapToInt(String::length).sum() + 1;
+        int[] trie = new int[maxStates * ALPHABET_SIZE];
+        Arrays.fill(trie, -1);
+        long[] outputs = new long[maxStates];
+        int stateCount = 1;
+        for (int i = 0; i < keywords.length; i++) {
+            int state = 0;
+            for (int j = 0; j < keywords[i].length(); j++) {
+                int index = state * ALPHABET_SIZE + keywords[i].charAt(j);
+                if (trie[index] < 0) {
+                    trie[index] = stateCount++;
+                }
+                state = trie[index];
+            }
+            outputs[state] |= 1L << i;
+        }
+
+        // 广度优先计算失败链，并将缺失的转移补全为确定性自动机
+        int[] fail = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET_SIZE; c++) {
+            if (trie[c] < 0) {
+                trie[c] = 0;
+            } else {
+                fail[trie[c]] = 0;
+                queue.add(trie[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[fail[state]];
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                int index = state * ALPHABET_SIZE + c;
+                int next = trie[index];
+                if (next < 0) {
+                    trie[index] = trie[fail[state] * ALPHABET_SIZE + c];
+                } else {
+                    fail[next] = trie[fail[state] * ALPHABET_SIZE + c];
+                    queue.add(next);
+                }
+            }
+        }
+        TRANSITIONS = Arrays.copyOf(trie, stateCount * ALPHABET_SIZE);
+        OUTPUTS = Arrays.copyOf(outputs, stateCount);
+
+        OsTypeEnum[] osTypes = OsTypeEnum.values();
+        BrowserTypeEnum[] browserTypes = BrowserTypeEnum.values();
+        DeviceTypeEnum[] deviceTypes = DeviceTypeEnum.values();
+        RESULTS = new UserAgentInfo[osTypes.length][browserTypes.length][deviceTypes.length];
+        for (OsTypeEnum os : osTypes) {
+            for (BrowserTypeEnum browser : browserTypes) {
+                for (DeviceTypeEnum device : deviceTypes) {
+                    RESULTS[os.ordinal()][browser.ordinal()][device.ordinal()] = new UserAgentInfo(os, browser, device);
+                }
+            }
+        }
+        UNKNOWN_RESULT = RESULTS[OsTypeEnum.UNKNOWN.ordinal()][BrowserTypeEnum.UNKNOWN.ordinal()][DeviceTypeEnum.PC.ordinal()];
+    }
+
+    private UserAgentParser() {
+    }
+
+    /**
+     * 解析 User-Agent
+     *
+     * @param userAgent 请求头 User-Agent
+     * @return 解析结果
+     */
+    public static UserAgentInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isEmpty()) {
+            return UNKNOWN_RESULT;
+        }
+        UserAgentInfo cached = CACHE.getIfPresent(userAgent);
+        if (cached != null) {
+            return cached;
+        }
+        UserAgentInfo result = scan(userAgent);
+        CACHE.put(userAgent, result);
+        return result;
+    }
+
+    /**
+     * 一次扫描识别全部关键字，不经过缓存
+     */
+    static UserAgentInfo scan(CharSequence userAgent) {
+        long matched = 0L;
+        int state = 0;
+        for (int i = 0, length = userAgent.length(); i < length; i++) {
+            char c = userAgent.charAt(i);
+            if (c >= ALPHABET_SIZE) {
+                // 关键字均为 ASCII，非 ASCII 字符直接回到初始状态
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            state = TRANSITIONS[state * ALPHABET_SIZE + c];
+            matched |= OUTPUTS[state];
+        }
+        OsTypeEnum os = OsTypeEnum.UNKNOWN;
+        long osMatched = (matched & OS_MASK) >>> OS_OFFSET;
+        if (osMatched != 0) {
+            os = OS_TYPES[Long.numberOfTrailingZeros(osMatched)];
+        }
+        BrowserTypeEnum browser = BrowserTypeEnum.UNKNOWN;
+        long browserMatched = (matched & BROWSER_MASK) >>> BROWSER_OFFSET;
+        if (browserMatched != 0) {
+            browser = BROWSER_TYPES[Long.numberOfTrailingZeros(browserMatched)];
+        }
+        DeviceTypeEnum device = (matched & DEVICE_MASK) != 0 ? DeviceTypeEnum.MOBILE : DeviceTypeEnum.PC;
+        return RESULTS[os.ordinal()][browser.ordinal()][device.ordinal()];
+    }
+
+    /**
+     * User-Agent 解析结果
+     *
+     * @param os      操作系统
+     * @param browser 浏览器
+     * @param device  设备
+     */
+    public record UserAgentInfo(OsTypeEnum os, BrowserTypeEnum browser, DeviceTypeEnum device) {
+    }
+}
@@ -0,0 +1,11 @@
+-- 一次往返完成短链接跳转缓存查询
+-- KEYS[1]: 跳转链接 Key  KEYS[2]: 空值标记 Key
+-- 返回 {'1', 原始链接, 剩余有效期毫秒} / {'0'} 空值标记 / {} 未命中
+local originUrl = redis.call('GET', KEYS[1])
+if originUrl then
+    return {'1', originUrl, tostring(redis.call('PTTL', KEYS[1]))}
+end
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return {'0'}
+end
+return {}
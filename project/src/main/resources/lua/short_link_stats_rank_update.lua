@@ -0,0 +1,18 @@
+-- 更新短链接排行榜，排行榜不存在时跳过，避免生成只包含部分短链接的排行榜
+-- KEYS: 排行榜 Key，可重复
+-- ARGV[1]: 操作类型 incr 增加分值 / set 设置分值 / rem 移除成员
+-- ARGV[i * 2], ARGV[i * 2 + 1]: KEYS[i] 对应的成员及分值
+local op = ARGV[1]
+for i, key in ipairs(KEYS) do
+    if redis.call('EXISTS', key) == 1 then
+        local member = ARGV[i * 2]
+        if op == 'incr' then
+            redis.call('ZINCRBY', key, ARGV[i * 2 + 1], member)
+        elseif op == 'set' then
+            redis.call('ZADD', key, ARGV[i * 2 + 1], member)
+        else
+            redis.call('ZREM', key, member)
+        end
+    end
+end
+return 0
@@ -0,0 +1,12 @@
+-- 落库成功后将本次刷新的临时 HyperLogLog 合并到短链接每日 HyperLogLog，并从未完成刷新集合中移除
+-- KEYS[1]: 每日 HyperLogLog Key
+-- KEYS[2]: 未完成刷新的临时 Key 集合
+-- KEYS[3]: 本次刷新的临时 HyperLogLog Key
+-- ARGV[1]: 每日 HyperLogLog 过期时间（秒）
+if redis.call('EXISTS', KEYS[3]) == 1 then
+    redis.call('PFMERGE', KEYS[1], KEYS[1], KEYS[3])
+    redis.call('DEL', KEYS[3])
+end
+redis.call('SREM', KEYS[2], KEYS[3])
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 0
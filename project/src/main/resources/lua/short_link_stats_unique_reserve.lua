@@ -0,0 +1,32 @@
+-- 预占短链接每日 HyperLogLog 增量，成员写入本次刷新的临时 HyperLogLog，落库成功后才合并到每日 HyperLogLog
+-- 增量按每日 HyperLogLog 与其它未完成刷新的临时 HyperLogLog 之并计算，并发刷新不会重复计入同一访客
+-- KEYS[1]: 每日 HyperLogLog Key
+-- KEYS[2]: 未完成刷新的临时 Key 集合
+-- KEYS[3]: 本次刷新的临时 HyperLogLog Key
+-- ARGV[1]: 临时 Key 过期时间（秒）
+-- ARGV[2..n]: 窗口内成员
+local others = {}
+for _, each in ipairs(redis.call('SMEMBERS', KEYS[2])) do
+    if redis.call('EXISTS', each) == 1 then
+        others[#others + 1] = each
+    else
+        redis.call('SREM', KEYS[2], each)
+    end
+end
+local before = redis.call('PFCOUNT', KEYS[1], unpack(others))
+redis.call('PFADD', KEYS[3])
+local batch = {}
+for i = 2, #ARGV do
+    batch[#batch + 1] = ARGV[i]
+    if #batch == 1000 then
+        redis.call('PFADD', KEYS[3], unpack(batch))
+        batch = {}
+    end
+end
+if #batch > 0 then
+    redis.call('PFADD', KEYS[3], unpack(batch))
+end
+redis.call('EXPIRE', KEYS[3], ARGV[1])
+redis.call('SADD', KEYS[2], KEYS[3])
+redis.call('EXPIRE', KEYS[2], ARGV[1])
+return redis.call('PFCOUNT', KEYS[1], KEYS[3], unpack(others)) - before
@@ -0,0 +1,153 @@
+-- 已有部署升级脚本，新部署直接执行 short-link.sql 即可
+
+-- 短链接表新增完整短链接列，回填已有数据后再建立唯一索引
+ALTER TABLE `t_link_0` ADD COLUMN `full_short_url` varchar(128) DEFAULT NULL COMMENT '完整短链接' AFTER `short_uri`;
+ALTER TABLE `t_link_1` ADD COLUMN `full_short_url` varchar(128) DEFAULT NULL COMMENT '完整短链接' AFTER `short_uri`;
+UPDATE `t_link_0` SET `full_short_url` = CONCAT(`domain`, '/', `short_uri`) WHERE `full_short_url` IS NULL;
+UPDATE `t_link_1` SET `full_short_url` = CONCAT(`domain`, '/', `short_uri`) WHERE `full_short_url` IS NULL;
+ALTER TABLE `t_link_0` ADD UNIQUE KEY `idx_unique_full_short_url` (`full_short_url`) USING BTREE;
+ALTER TABLE `t_link_1` ADD UNIQUE KEY `idx_unique_full_short_url` (`full_short_url`) USING BTREE;
+
+-- 跳转路由表，按完整短链接定位分组
+CREATE TABLE IF NOT EXISTS `t_link_goto`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `gid`            varchar(32) DEFAULT 'default' COMMENT '分组标识',
+    `full_short_url` varchar(128) DEFAULT NULL COMMENT '完整短链接',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `idx_unique_full_short_url` (`full_short_url`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+INSERT IGNORE INTO `t_link_goto` (`gid`, `full_short_url`) SELECT `gid`, `full_short_url` FROM `t_link_0` WHERE `del_flag` = 0;
+INSERT IGNORE INTO `t_link_goto` (`gid`, `full_short_url`) SELECT `gid`, `full_short_url` FROM `t_link_1` WHERE `del_flag` = 0;
+-- 跳转路由表回填后调用 POST /api/short-link/v1/bloom-filter/rebuild 将已有短链接写入布隆过滤器，Redis 数据丢失后同样需要重建
+
+-- 访客首次访问日期索引，访客哈希由应用计算，建表后调用 POST /api/short-link/v1/stats/first-seen/backfill 由访问日志补录
+CREATE TABLE IF NOT EXISTS `t_link_visitor_first_seen`
+(
+    `gid`             varchar(32)  NOT NULL DEFAULT 'default' COMMENT '分组标识',
+    `full_short_url`  varchar(128) NOT NULL DEFAULT '' COMMENT '完整短链接，分组访客为空字符串',
+    `visitor_hash`    bigint(20) NOT NULL COMMENT '访客标识哈希',
+    `first_seen_date` date         NOT NULL COMMENT '首次访问日期',
+    PRIMARY KEY (`gid`, `full_short_url`, `visitor_hash`),
+    KEY `idx_first_seen` (`gid`, `full_short_url`, `first_seen_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 每日高频访问 IP 估计，只记录建表后的访问，更早日期的查询回退到汇总数据或访问日志
+CREATE TABLE IF NOT EXISTS `t_link_top_ip_daily`
+(
+    `gid`            varchar(32)  NOT NULL DEFAULT 'default' COMMENT '分组标识',
+    `full_short_url` varchar(128) NOT NULL DEFAULT '' COMMENT '完整短链接，分组为空字符串',
+    `date`           date         NOT NULL COMMENT '日期',
+    `total`          bigint(20) NOT NULL DEFAULT 0 COMMENT '访问次数',
+    `counters`       text COMMENT 'Space-Saving 计数器，格式 ip=估计次数=最大偏差,ip=估计次数=最大偏差',
+    PRIMARY KEY (`gid`, `full_short_url`, `date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 访问日志按月份与分组标识分表，实际表由 LinkAccessLogsPartitionManager 以模板表创建
+CREATE TABLE IF NOT EXISTS `t_link_access_logs_template`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `full_short_url` varchar(128) DEFAULT NULL COMMENT '完整短链接',
+    `gid`            varchar(32)  DEFAULT 'default' COMMENT '分组标识',
+    `user`           varchar(64)  DEFAULT NULL COMMENT '用户信息',
+    `ip`             varchar(64)  DEFAULT NULL COMMENT 'IP',
+    `browser`        varchar(64)  DEFAULT NULL COMMENT '浏览器',
+    `os`             varchar(64)  DEFAULT NULL COMMENT '操作系统',
+    `network`        varchar(64)  DEFAULT NULL COMMENT '访问网络',
+    `device`         varchar(64)  DEFAULT NULL COMMENT '访问设备',
+    `locale`         varchar(256) DEFAULT NULL COMMENT '地区',
+    `create_time`    datetime     DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime     DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
+    PRIMARY KEY (`id`),
+    KEY `idx_link_create_time` (`full_short_url`, `gid`, `create_time`, `ip`, `user`) USING BTREE,
+    KEY `idx_gid_create_time` (`gid`, `create_time`, `ip`, `user`) USING BTREE,
+    KEY `idx_link_user` (`full_short_url`, `gid`, `user`, `create_time`) USING BTREE,
+    KEY `idx_gid_user` (`gid`, `user`, `create_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 将原访问日志表中保留期内的数据迁移到按月份与分片拆分的实际表，保留月数、分片数需与 short-link.stats.access-log 配置一致；
+-- 分片号与 LinkAccessLogsShardingAlgorithm.bucket 相同，即 Math.abs(gid.hashCode() % 分片数)，分组标识为 ASCII 字符
+DROP FUNCTION IF EXISTS `tmp_java_string_hash`;
+DROP PROCEDURE IF EXISTS `tmp_migrate_link_access_logs`;
+DELIMITER $$
+CREATE FUNCTION `tmp_java_string_hash`(str VARCHAR(255)) RETURNS BIGINT DETERMINISTIC
+BEGIN
+    DECLARE h BIGINT DEFAULT 0;
+    DECLARE i INT DEFAULT 1;
+    WHILE i <= CHAR_LENGTH(str) DO
+        SET h = (h * 31 + ORD(SUBSTRING(str, i, 1))) % 4294967296;
+        SET i = i + 1;
+    END WHILE;
+    RETURN IF(h >= 2147483648, h - 4294967296, h);
+END$$
+CREATE PROCEDURE `tmp_migrate_link_access_logs`(IN retention_months INT, IN sharding_count INT)
+BEGIN
+    DECLARE month_start DATE DEFAULT DATE_FORMAT(DATE_SUB(CURDATE(), INTERVAL retention_months - 1 MONTH), '%Y-%m-01');
+    DECLARE bucket INT;
+    DECLARE actual_table VARCHAR(64);
+    WHILE month_start <= CURDATE() DO
+        SET bucket = 0;
+        WHILE bucket < sharding_count DO
+            SET actual_table = CONCAT('t_link_access_logs_', DATE_FORMAT(month_start, '%Y%m'), '_', bucket);
+            SET @ddl = CONCAT('CREATE TABLE IF NOT EXISTS `', actual_table, '` LIKE `t_link_access_logs_template`');
+            PREPARE stmt FROM @ddl;
+            EXECUTE stmt;
+            DEALLOCATE PREPARE stmt;
+            SET @dml = CONCAT('INSERT IGNORE INTO `', actual_table, '` SELECT * FROM `t_link_access_logs` ',
+                              'WHERE create_time >= ''', month_start, ''' AND create_time < ''', DATE_ADD(month_start, INTERVAL 1 MONTH), ''' ',
+                              'AND ABS(tmp_java_string_hash(gid) % ', sharding_count, ') = ', bucket);
+            PREPARE stmt FROM @dml;
+            EXECUTE stmt;
+            DEALLOCATE PREPARE stmt;
+            SET bucket = bucket + 1;
+        END WHILE;
+        SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+    END WHILE;
+END$$
+DELIMITER ;
+CALL `tmp_migrate_link_access_logs`(6, 2);
+DROP PROCEDURE `tmp_migrate_link_access_logs`;
+DROP FUNCTION `tmp_java_string_hash`;
+-- 原表与逻辑表同名，迁移后改名，确认数据无误后可删除
+RENAME TABLE `t_link_access_logs` TO `t_link_access_logs_legacy`;
+
+-- 访问统计汇总，日汇总任务按日期扫描访问统计表
+ALTER TABLE `t_link_access_stats` ADD KEY `idx_date` (`date`);
+CREATE TABLE IF NOT EXISTS `t_link_stats_rollup`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `full_short_url` varchar(128) NOT NULL DEFAULT '' COMMENT '完整短链接，分组汇总为空字符串',
+    `gid`            varchar(32)  NOT NULL DEFAULT 'default' COMMENT '分组标识',
+    `period_type`    tinyint(1) NOT NULL COMMENT '汇总周期 0：日 1：周 2：月',
+    `period_start`   date         NOT NULL COMMENT '周期起始日期',
+    `pv`             int(11) DEFAULT NULL COMMENT '访问量',
+    `uv`             int(11) DEFAULT NULL COMMENT '独立访客数',
+    `uip`            int(11) DEFAULT NULL COMMENT '独立IP数',
+    `uv_sketch`      varbinary(4097) DEFAULT NULL COMMENT '访客 HyperLogLog',
+    `uip_sketch`     varbinary(4097) DEFAULT NULL COMMENT 'IP HyperLogLog',
+    `top_ips`        varchar(1024) DEFAULT NULL COMMENT '高频访问IP，格式 ip=次数,ip=次数',
+    `create_time`    datetime     DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime     DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `idx_unique_rollup` (`full_short_url`,`gid`,`period_type`,`period_start`),
+    KEY `idx_gid_period` (`gid`,`period_type`,`period_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+CREATE TABLE IF NOT EXISTS `t_link_stats_rollup_period`
+(
+    `period_type`  tinyint(1) NOT NULL COMMENT '汇总周期 0：日 1：周 2：月',
+    `period_start` date NOT NULL COMMENT '周期起始日期',
+    `update_time`  datetime DEFAULT NULL COMMENT '汇总完成时间',
+    PRIMARY KEY (`period_type`, `period_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+-- 建表后调用 POST /api/short-link/v1/stats/rollup/backfill 补录历史日期的汇总数据，未汇总的日期查询时回退到访问日志
+
+-- 短链接号段分配，号段记录由应用启动时初始化
+CREATE TABLE IF NOT EXISTS `t_link_id_segment`
+(
+    `biz_tag`     varchar(64) NOT NULL COMMENT '业务标识',
+    `max_id`      bigint(20) NOT NULL DEFAULT '0' COMMENT '已分配号段上限',
+    `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+    PRIMARY KEY (`biz_tag`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
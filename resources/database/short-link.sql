@@ -27,6 +27,7 @@ CREATE TABLE `t_link_0`
     `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
     `domain`          varchar(128)                                   DEFAULT NULL COMMENT '域名',
     `short_uri`       varchar(32) CHARACTER SET utf8 COLLATE utf8_bin DEFAULT NULL COMMENT '短链接',
+    `full_short_url`  varchar(128)                                   DEFAULT NULL COMMENT '完整短链接',
     `user_id`         bigint(20)                                     DEFAULT NULL COMMENT '创建者ID',
     `origin_url`      varchar(1024)                                  DEFAULT NULL COMMENT '原始链接',
     `click_num`       int(11) DEFAULT '0' COMMENT '点击量',
@@ -42,7 +43,8 @@ CREATE TABLE `t_link_0`
     `update_time`     datetime                                       DEFAULT NULL COMMENT '修改时间',
     `del_time`        bigint(20) DEFAULT '0' COMMENT '删除时间戳',
     `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `idx_unique_full_short_url` (`full_short_url`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE `t_link_1`
@@ -50,6 +52,7 @@ CREATE TABLE `t_link_1`
     `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
     `domain`          varchar(128)                                   DEFAULT NULL COMMENT '域名',
     `short_uri`       varchar(32) CHARACTER SET utf8 COLLATE utf8_bin DEFAULT NULL COMMENT '短链接',
+    `full_short_url`  varchar(128)                                   DEFAULT NULL COMMENT '完整短链接',
     `user_id`         bigint(20)                                     DEFAULT NULL COMMENT '创建者ID',
     `origin_url`      varchar(1024)                                  DEFAULT NULL COMMENT '原始链接',
     `click_num`       int(11) DEFAULT '0' COMMENT '点击量',
@@ -65,10 +68,28 @@ CREATE TABLE `t_link_1`
     `update_time`     datetime                                       DEFAULT NULL COMMENT '修改时间',
     `del_time`        bigint(20) DEFAULT '0' COMMENT '删除时间戳',
     `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `idx_unique_full_short_url` (`full_short_url`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_link_goto`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `gid`            varchar(32) DEFAULT 'default' COMMENT '分组标识',
+    `full_short_url` varchar(128) DEFAULT NULL COMMENT '完整短链接',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `idx_unique_full_short_url` (`full_short_url`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
-CREATE TABLE `t_link_access_logs`
+CREATE TABLE `t_link_id_segment`
+(
+    `biz_tag`     varchar(64) NOT NULL COMMENT '业务标识',
+    `max_id`      bigint(20) NOT NULL DEFAULT '0' COMMENT '已分配号段上限',
+    `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+    PRIMARY KEY (`biz_tag`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_link_access_logs_template`
 (
     `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
     `full_short_url` varchar(128) DEFAULT NULL COMMENT '完整短链接',
@@ -83,7 +104,11 @@ CREATE TABLE `t_link_access_logs`
     `create_time`    datetime     DEFAULT NULL COMMENT '创建时间',
     `update_time`    datetime     DEFAULT NULL COMMENT '修改时间',
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    KEY `idx_link_create_time` (`full_short_url`, `gid`, `create_time`, `ip`, `user`) USING BTREE,
+    KEY `idx_gid_create_time` (`gid`, `create_time`, `ip`, `user`) USING BTREE,
+    KEY `idx_link_user` (`full_short_url`, `gid`, `user`, `create_time`) USING BTREE,
+    KEY `idx_gid_user` (`gid`, `user`, `create_time`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE `t_link_access_stats`
@@ -101,7 +126,8 @@ CREATE TABLE `t_link_access_stats`
     `update_time`    datetime     DEFAULT NULL COMMENT '修改时间',
     `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
     PRIMARY KEY (`id`),
-    UNIQUE KEY `idx_unique_access_stats` (`full_short_url`,`gid`,`date`,`hour`)
+    UNIQUE KEY `idx_unique_access_stats` (`full_short_url`,`gid`,`date`,`hour`),
+    KEY `idx_date` (`date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE `t_link_browser_stats`
@@ -182,6 +208,55 @@ CREATE TABLE `t_link_os_stats`
     UNIQUE KEY `idx_unique_os_stats` (`full_short_url`,`gid`,`date`,`os`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+CREATE TABLE `t_link_stats_rollup`
+(
+    `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `full_short_url` varchar(128) NOT NULL DEFAULT '' COMMENT '完整短链接，分组汇总为空字符串',
+    `gid`            varchar(32)  NOT NULL DEFAULT 'default' COMMENT '分组标识',
+    `period_type`    tinyint(1) NOT NULL COMMENT '汇总周期 0：日 1：周 2：月',
+    `period_start`   date         NOT NULL COMMENT '周期起始日期',
+    `pv`             int(11) DEFAULT NULL COMMENT '访问量',
+    `uv`             int(11) DEFAULT NULL COMMENT '独立访客数',
+    `uip`            int(11) DEFAULT NULL COMMENT '独立IP数',
+    `uv_sketch`      varbinary(4097) DEFAULT NULL COMMENT '访客 HyperLogLog',
+    `uip_sketch`     varbinary(4097) DEFAULT NULL COMMENT 'IP HyperLogLog',
+    `top_ips`        varchar(1024) DEFAULT NULL COMMENT '高频访问IP，格式 ip=次数,ip=次数',
+    `create_time`    datetime     DEFAULT NULL COMMENT '创建时间',
+    `update_time`    datetime     DEFAULT NULL COMMENT '修改时间',
+    `del_flag`       tinyint(1) DEFAULT NULL COMMENT '删除标识 0：未删除 1：已删除',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `idx_unique_rollup` (`full_short_url`,`gid`,`period_type`,`period_start`),
+    KEY `idx_gid_period` (`gid`,`period_type`,`period_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_link_stats_rollup_period`
+(
+    `period_type`  tinyint(1) NOT NULL COMMENT '汇总周期 0：日 1：周 2：月',
+    `period_start` date NOT NULL COMMENT '周期起始日期',
+    `update_time`  datetime DEFAULT NULL COMMENT '汇总完成时间',
+    PRIMARY KEY (`period_type`, `period_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_link_top_ip_daily`
+(
+    `gid`            varchar(32)  NOT NULL DEFAULT 'default' COMMENT '分组标识',
+    `full_short_url` varchar(128) NOT NULL DEFAULT '' COMMENT '完整短链接，分组为空字符串',
+    `date`           date         NOT NULL COMMENT '日期',
+    `total`          bigint(20) NOT NULL DEFAULT 0 COMMENT '访问次数',
+    `counters`       text COMMENT 'Space-Saving 计数器，格式 ip=估计次数=最大偏差,ip=估计次数=最大偏差',
+    PRIMARY KEY (`gid`, `full_short_url`, `date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_link_visitor_first_seen`
+(
+    `gid`             varchar(32)  NOT NULL DEFAULT 'default' COMMENT '分组标识',
+    `full_short_url`  varchar(128) NOT NULL DEFAULT '' COMMENT '完整短链接，分组访客为空字符串',
+    `visitor_hash`    bigint(20) NOT NULL COMMENT '访客标识哈希',
+    `first_seen_date` date         NOT NULL COMMENT '首次访问日期',
+    PRIMARY KEY (`gid`, `full_short_url`, `visitor_hash`),
+    KEY `idx_first_seen` (`gid`, `full_short_url`, `first_seen_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 CREATE TABLE `t_link_stats_today_0`
 (
     `id`             bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',